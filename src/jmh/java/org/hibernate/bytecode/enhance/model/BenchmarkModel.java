@@ -0,0 +1,33 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+/**
+ * The {@linkplain DomainModelGenerator generated} models used by the benchmarks measuring a single
+ * entity hierarchy.
+ *
+ * @author Steve Ebersole
+ */
+public final class BenchmarkModel {
+	private BenchmarkModel() {
+	}
+
+	/**
+	 * A single hierarchy of {@code hierarchyDepth} classes - the last of which is the entity - each
+	 * declaring {@code memberCount} attributes.  Uses property access with a share of odd getter
+	 * names, so getter analysis has to read the bytecode.
+	 */
+	public static DomainModelGenerator.GeneratedModel generate(int hierarchyDepth, int memberCount) {
+		final DomainModelGenerator generator = new DomainModelGenerator();
+		generator.setEntityCount( 1 );
+		generator.setHierarchyDepth( hierarchyDepth );
+		generator.setAttributesPerClass( memberCount );
+		generator.setPropertyAccessRatio( 1 );
+		generator.setOddGetterRatio( 0.2 );
+		return generator.generate();
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ModelSourceHelper;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jakarta.persistence.AccessType;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Categorizing the members of every class of the hierarchy into fields and backing members,
+ * against already resolved ClassDetails.
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class CategorizeMembersBenchmark {
+	@Param( { "1", "4", "8" } )
+	public int hierarchyDepth;
+
+	@Param( { "10", "50" } )
+	public int memberCount;
+
+	private ClassFileLocatorImpl classFileLocator;
+	private ClassDetails[] classDetails;
+
+	@Setup
+	public void setUp() {
+		final DomainModelGenerator.GeneratedModel model = BenchmarkModel.generate( hierarchyDepth, memberCount );
+		classFileLocator = model.createClassFileLocator();
+		final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
+				classFileLocator,
+				TypePool.Default.WithLazyResolution.of( classFileLocator )
+		);
+
+		final List<String> classNames = model.getClassNames();
+		classDetails = new ClassDetails[ classNames.size() ];
+		for ( int i = 0; i < classNames.size(); i++ ) {
+			classDetails[i] = processingContext.getClassDetailsRegistry().resolveClassDetails( classNames.get( i ) );
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		classFileLocator.close();
+	}
+
+	@Benchmark
+	public void categorizeMembers(Blackhole blackhole) {
+		for ( int i = 0; i < classDetails.length; i++ ) {
+			final ClassDetails declaringType = classDetails[i];
+			final AccessType classLevelAccessType = ModelSourceHelper.determineClassLevelAccessType(
+					declaringType,
+					declaringType.getIdentifierMember(),
+					null
+			);
+			ModelSourceHelper.categorizeMembers(
+					declaringType,
+					classLevelAccessType,
+					(name, field) -> blackhole.consume( field ),
+					(attributeName, backingField) -> blackhole.consume( backingField ),
+					(attributeName, backingGetter) -> blackhole.consume( backingGetter )
+			);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassDetailsRegistryImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Allocations of building ClassDetails - including their FieldDetails and MethodDetails - for a
+ * handful of entity classes.  Meant to be run with the GC profiler, i.e.
+ * {@code ./gradlew jmh -PjmhIncludes=ClassDetailsAllocation -PjmhProfilers=gc}: the difference
+ * in {@code gc.alloc.rate.norm} between {@link #resolveClassDetails} and {@link #createContext},
+ * divided by the number of classes, is the allocation per ClassDetails.
+ * <p/>
+ * The TypePool is warmed up front, so parsing the class files is not part of the measurement.
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class ClassDetailsAllocationBenchmark {
+	private static final List<String> NAMES = List.of(
+			SimplePropertyEntity.class.getName(),
+			SuperClassLevelAccessTests.SuperClassLevelAccessEntity.class.getName(),
+			SimpleFieldEntity.class.getName(),
+			OddNamingTests.OddNamingEntity.class.getName()
+	);
+
+	@Param( { "BYTE_BUDDY", "ASM" } )
+	public ModelProcessingOptions.ClassDetailsBackend backend;
+
+	private ClassFileLocatorImpl classFileLocator;
+	private ModelProcessingOptionsImpl options;
+	private TypePool typePool;
+
+	@Setup
+	public void setUp() {
+		classFileLocator = new ClassFileLocatorImpl( ClassDetailsAllocationBenchmark.class.getClassLoader() );
+		options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( backend );
+
+		typePool = TypePool.Default.WithLazyResolution.of( classFileLocator );
+		resolveClassDetails();
+	}
+
+	@TearDown
+	public void tearDown() {
+		classFileLocator.close();
+	}
+
+	@Benchmark
+	public ModelProcessingContextImpl createContext() {
+		return new ModelProcessingContextImpl( classFileLocator, typePool, options );
+	}
+
+	@Benchmark
+	public ModelProcessingContextImpl resolveClassDetails() {
+		final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl( classFileLocator, typePool, options );
+		final ClassDetailsRegistryImpl classDetailsRegistry = processingContext.getClassDetailsRegistry();
+		for ( int i = 0; i < NAMES.size(); i++ ) {
+			classDetailsRegistry.resolveClassDetails( NAMES.get( i ) );
+		}
+		return processingContext;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Resolving the ClassDetails of an entity, and with it those of its whole hierarchy, in a fresh
+ * context - once with a fresh TypePool (every class parsed from scratch) and once with a
+ * TypePool which already described all of them.  With the
+ * {@linkplain ModelProcessingOptions.ClassDetailsBackend#ASM ASM backend} the entity classes
+ * are read from the class files either way.
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class ClassDetailsResolutionBenchmark {
+	@Param( { "1", "4", "8" } )
+	public int hierarchyDepth;
+
+	@Param( { "10", "50" } )
+	public int memberCount;
+
+	@Param( { "BYTE_BUDDY", "ASM" } )
+	public ModelProcessingOptions.ClassDetailsBackend backend;
+
+	private String entityName;
+	private ClassFileLocatorImpl classFileLocator;
+	private ModelProcessingOptionsImpl options;
+	private TypePool warmTypePool;
+
+	@Setup
+	public void setUp() {
+		final DomainModelGenerator.GeneratedModel model = BenchmarkModel.generate( hierarchyDepth, memberCount );
+		entityName = model.getEntityNames().get( 0 );
+		classFileLocator = model.createClassFileLocator();
+		options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( backend );
+
+		warmTypePool = TypePool.Default.WithLazyResolution.of( classFileLocator );
+		new ModelProcessingContextImpl( classFileLocator, warmTypePool, options )
+				.getClassDetailsRegistry()
+				.resolveClassDetails( entityName );
+	}
+
+	@TearDown
+	public void tearDown() {
+		classFileLocator.close();
+	}
+
+	@Benchmark
+	public ClassDetails coldPool() {
+		return new ModelProcessingContextImpl( classFileLocator, TypePool.Default.WithLazyResolution.of( classFileLocator ), options )
+				.getClassDetailsRegistry()
+				.resolveClassDetails( entityName );
+	}
+
+	@Benchmark
+	public ClassDetails warmPool() {
+		return new ModelProcessingContextImpl( classFileLocator, warmTypePool, options )
+				.getClassDetailsRegistry()
+				.resolveClassDetails( entityName );
+	}
+}
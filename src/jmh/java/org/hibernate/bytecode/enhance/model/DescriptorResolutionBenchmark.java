@@ -0,0 +1,85 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeModelContextImpl;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * End-to-end resolution of the descriptor of an entity, and with it those of its super-types,
+ * in a fresh context with a fresh TypePool - i.e. everything from reading the class files
+ * through to the persistent attributes.
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class DescriptorResolutionBenchmark {
+	@Param( { "1", "4", "8" } )
+	public int hierarchyDepth;
+
+	@Param( { "10", "50" } )
+	public int memberCount;
+
+	@Param( { "BYTE_BUDDY", "ASM" } )
+	public ModelProcessingOptions.ClassDetailsBackend backend;
+
+	private String entityName;
+	private ClassFileLocatorImpl classFileLocator;
+	private ModelProcessingOptionsImpl options;
+
+	@Setup
+	public void setUp() {
+		final DomainModelGenerator.GeneratedModel model = BenchmarkModel.generate( hierarchyDepth, memberCount );
+		entityName = model.getEntityNames().get( 0 );
+		classFileLocator = model.createClassFileLocator();
+		options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( backend );
+	}
+
+	@TearDown
+	public void tearDown() {
+		classFileLocator.close();
+	}
+
+	@Benchmark
+	public ManagedTypeDescriptor resolveDescriptor() {
+		final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
+				classFileLocator,
+				TypePool.Default.WithLazyResolution.of( classFileLocator ),
+				options
+		);
+		return new ManagedTypeModelContextImpl( processingContext )
+				.getDescriptorRegistry()
+				.resolveDescriptor( entityName );
+	}
+}
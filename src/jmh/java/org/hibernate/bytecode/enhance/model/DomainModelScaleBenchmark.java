@@ -0,0 +1,92 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeModelContextImpl;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptorRegistry;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Resolving the descriptors of every entity of a {@linkplain DomainModelGenerator generated}
+ * domain model of production scale - mixed access types, {@code @Access} overrides, odd getter
+ * names and associations between the entities - in a fresh context with a fresh TypePool.
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class DomainModelScaleBenchmark {
+	@Param( { "100", "1000", "5000" } )
+	public int entityCount;
+
+	@Param( { "BYTE_BUDDY", "ASM" } )
+	public ModelProcessingOptions.ClassDetailsBackend backend;
+
+	private List<String> entityNames;
+	private ClassFileLocatorImpl classFileLocator;
+	private ModelProcessingOptionsImpl options;
+
+	@Setup
+	public void setUp() {
+		final DomainModelGenerator generator = new DomainModelGenerator();
+		generator.setEntityCount( entityCount );
+		generator.setHierarchyDepth( 3 );
+		generator.setEntitiesPerHierarchy( 5 );
+		generator.setClassAccessOverrideRatio( 0.05 );
+		final DomainModelGenerator.GeneratedModel model = generator.generate();
+
+		entityNames = model.getEntityNames();
+		classFileLocator = model.createClassFileLocator();
+		options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( backend );
+	}
+
+	@TearDown
+	public void tearDown() {
+		classFileLocator.close();
+	}
+
+	@Benchmark
+	public void resolveDescriptors(Blackhole blackhole) {
+		final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
+				classFileLocator,
+				TypePool.Default.WithLazyResolution.of( classFileLocator ),
+				options
+		);
+		final ManagedTypeDescriptorRegistry descriptorRegistry = new ManagedTypeModelContextImpl( processingContext )
+				.getDescriptorRegistry();
+		for ( int i = 0; i < entityNames.size(); i++ ) {
+			blackhole.consume( descriptorRegistry.resolveDescriptor( entityNames.get( i ) ) );
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.GetterFieldAnalyzer;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Determining, from the bytecode, the fields returned by the getters which cannot be matched
+ * to a field by name - for every class of the hierarchy.
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class GetterAnalysisBenchmark {
+	@Param( { "1", "4", "8" } )
+	public int hierarchyDepth;
+
+	@Param( { "10", "50" } )
+	public int memberCount;
+
+	private ClassFileLocatorImpl classFileLocator;
+	private ClassDetails[] classDetails;
+	private byte[][] classBytes;
+
+	@Setup
+	public void setUp() {
+		final DomainModelGenerator.GeneratedModel model = BenchmarkModel.generate( hierarchyDepth, memberCount );
+		classFileLocator = model.createClassFileLocator();
+		final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
+				classFileLocator,
+				TypePool.Default.WithLazyResolution.of( classFileLocator )
+		);
+
+		final List<String> classNames = model.getClassNames();
+		classDetails = new ClassDetails[ classNames.size() ];
+		classBytes = new byte[ classNames.size() ][];
+		for ( int i = 0; i < classNames.size(); i++ ) {
+			classDetails[i] = processingContext.getClassDetailsRegistry().resolveClassDetails( classNames.get( i ) );
+			classBytes[i] = model.getClassBytes().get( classNames.get( i ) );
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		classFileLocator.close();
+	}
+
+	@Benchmark
+	public void determineGottenFields(Blackhole blackhole) {
+		for ( int i = 0; i < classDetails.length; i++ ) {
+			blackhole.consume( GetterFieldAnalyzer.determineGottenFields( classBytes[i], classDetails[i] ) );
+		}
+	}
+}
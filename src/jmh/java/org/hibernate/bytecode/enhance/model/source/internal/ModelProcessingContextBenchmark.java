@@ -0,0 +1,76 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Creation of a {@link ModelProcessingContextImpl} - priming its own registry with the
+ * {@linkplain SharedClassDetailsCatalog#PRIMED_TYPES common types}, as contexts do by default,
+ * versus consulting a {@link SharedClassDetailsCatalog} built once up front.
+ * <p/>
+ * Independent of the domain model, hence no hierarchy depth or member count parameters.
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class ModelProcessingContextBenchmark {
+	private ClassFileLocatorImpl classFileLocator;
+	private ModelProcessingOptionsImpl options;
+	private SharedClassDetailsCatalog sharedCatalog;
+
+	@Setup
+	public void setUp() {
+		classFileLocator = new ClassFileLocatorImpl( ModelProcessingContextBenchmark.class.getClassLoader() );
+		options = new ModelProcessingOptionsImpl();
+		sharedCatalog = new SharedClassDetailsCatalog( options );
+	}
+
+	@TearDown
+	public void tearDown() {
+		classFileLocator.close();
+	}
+
+	@Benchmark
+	public ModelProcessingContextImpl prime() {
+		return new ModelProcessingContextImpl(
+				classFileLocator,
+				TypePool.Default.WithLazyResolution.of( classFileLocator ),
+				options,
+				null
+		);
+	}
+
+	@Benchmark
+	public ModelProcessingContextImpl createWithSharedCatalog() {
+		return new ModelProcessingContextImpl(
+				classFileLocator,
+				TypePool.Default.WithLazyResolution.of( classFileLocator ),
+				options,
+				sharedCatalog
+		);
+	}
+}
@@ -0,0 +1,385 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.interp.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeModelContext;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.MappedSuperclass;
+
+import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_LOGGER;
+
+/**
+ * Scans a jar file or class directory for managed classes as a staged pipeline -<ol>
+ *     <li>
+ *         <b>read</b> - the bytes of each class entry are read on a virtual thread (platform
+ *         threads prior to Java 21) and {@linkplain ClassFileLocatorImpl#stageClassBytes staged}
+ *         with the context's locator
+ *     </li>
+ *     <li><b>parse</b> - the staged bytes are parsed into {@link ClassDetails}</li>
+ *     <li>
+ *         <b>categorize</b> - the persistent attributes of each managed class (entity,
+ *         mapped-superclass or embeddable) are built via {@link ModelSourceHelper}
+ *     </li>
+ * </ol>
+ * The stages are joined by bounded queues and the number of classes in flight is capped at the
+ * queue capacity, so I/O overlaps the parsing while memory use stays bounded regardless of the
+ * size of the archive.
+ * <p/>
+ * Types referenced from a class which have not been staged (yet) are read through the context's
+ * locator as usual, so the archive should generally be visible to it.
+ *
+ * @author Steve Ebersole
+ */
+public class ArchiveScanningPipeline {
+	public static final int DEFAULT_QUEUE_CAPACITY = 256;
+	private static final int FALLBACK_READER_THREADS = 8;
+
+	private static final StagedClass END_OF_CLASSES = new StagedClass( null, null );
+
+	/**
+	 * Receives the results of the categorize stage.  Called concurrently from the pipeline's threads.
+	 */
+	@FunctionalInterface
+	public interface ManagedClassConsumer {
+		void accept(ClassDetails classDetails, List<PersistentAttribute> attributes);
+	}
+
+	private final ManagedTypeModelContext modelContext;
+	private final ClassFileLocatorImpl classFileLocator;
+	private final int parallelism;
+	private final int queueCapacity;
+
+	public ArchiveScanningPipeline(ManagedTypeModelContext modelContext) {
+		this( modelContext, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY );
+	}
+
+	/**
+	 * @param parallelism The number of threads for each of the parse and categorize stages
+	 * @param queueCapacity The capacity of the queues between stages, which is also the maximum
+	 * number of classes in flight
+	 */
+	public ArchiveScanningPipeline(ManagedTypeModelContext modelContext, int parallelism, int queueCapacity) {
+		assert parallelism > 0;
+		assert queueCapacity > 0;
+		this.modelContext = modelContext;
+		this.classFileLocator = (ClassFileLocatorImpl) modelContext.getModelProcessingContext().getClassFileLocator();
+		this.parallelism = parallelism;
+		this.queueCapacity = queueCapacity;
+	}
+
+	public void scan(Path archive, ManagedClassConsumer consumer) {
+		MODEL_SOURCE_LOGGER.debugf( "Scanning `%s` for managed classes", archive );
+
+		final BlockingQueue<StagedClass> parseQueue = new ArrayBlockingQueue<>( queueCapacity + parallelism );
+		final BlockingQueue<StagedClass> categorizeQueue = new ArrayBlockingQueue<>( queueCapacity + parallelism );
+		final Semaphore inFlight = new Semaphore( queueCapacity );
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		final ExecutorService readers = createReaderExecutor();
+		final ExecutorService workers = Executors.newFixedThreadPool( parallelism * 2 );
+		try {
+			final List<Future<?>> parsers = new ArrayList<>( parallelism );
+			final List<Future<?>> categorizers = new ArrayList<>( parallelism );
+			for ( int i = 0; i < parallelism; i++ ) {
+				parsers.add( workers.submit( () -> parse( parseQueue, categorizeQueue, inFlight, failure ) ) );
+				categorizers.add( workers.submit( () -> categorize( categorizeQueue, inFlight, failure, consumer ) ) );
+			}
+
+			// read
+			try ( ArchiveEntries entries = ArchiveEntries.open( archive ) ) {
+				entries.forEachClass( (className, reader) -> {
+					inFlight.acquire();
+					if ( failure.get() != null ) {
+						inFlight.release();
+						return false;
+					}
+					readers.execute( () -> {
+						try {
+							parseQueue.put( new StagedClass( className, reader.read() ) );
+						}
+						catch (Throwable t) {
+							failure.compareAndSet( null, t );
+							inFlight.release();
+						}
+					} );
+					return true;
+				} );
+
+				readers.shutdown();
+				while ( !readers.awaitTermination( 1, TimeUnit.SECONDS ) ) {
+					MODEL_SOURCE_LOGGER.tracef( "Waiting on class reads from `%s`", archive );
+				}
+			}
+
+			for ( int i = 0; i < parallelism; i++ ) {
+				parseQueue.put( END_OF_CLASSES );
+			}
+			awaitAll( parsers );
+
+			for ( int i = 0; i < parallelism; i++ ) {
+				categorizeQueue.put( END_OF_CLASSES );
+			}
+			awaitAll( categorizers );
+		}
+		catch (IOException e) {
+			throw new ByteBuddyModelException( "Unable to scan archive for classes : " + archive, e );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ByteBuddyModelException( "Interrupted while scanning archive : " + archive, e );
+		}
+		finally {
+			readers.shutdownNow();
+			workers.shutdownNow();
+		}
+
+		final Throwable problem = failure.get();
+		if ( problem != null ) {
+			if ( problem instanceof RuntimeException ) {
+				throw (RuntimeException) problem;
+			}
+			throw new ByteBuddyModelException( "Problem scanning archive : " + archive, problem );
+		}
+	}
+
+	private Void parse(
+			BlockingQueue<StagedClass> parseQueue,
+			BlockingQueue<StagedClass> categorizeQueue,
+			Semaphore inFlight,
+			AtomicReference<Throwable> failure) throws InterruptedException {
+		final ClassDetailsRegistry classDetailsRegistry = modelContext.getModelProcessingContext().getClassDetailsRegistry();
+		while ( true ) {
+			final StagedClass stagedClass = parseQueue.take();
+			if ( stagedClass == END_OF_CLASSES ) {
+				return null;
+			}
+
+			boolean handedOff = false;
+			try {
+				if ( failure.get() == null ) {
+					classFileLocator.stageClassBytes( stagedClass.className, stagedClass.bytes );
+					stagedClass.classDetails = classDetailsRegistry.resolveClassDetails( stagedClass.className );
+					if ( isManagedClass( stagedClass.classDetails ) ) {
+						categorizeQueue.put( stagedClass );
+						handedOff = true;
+					}
+				}
+			}
+			catch (Throwable t) {
+				failure.compareAndSet( null, t );
+			}
+			finally {
+				if ( !handedOff ) {
+					classFileLocator.releaseClassBytes( stagedClass.className );
+					inFlight.release();
+				}
+			}
+		}
+	}
+
+	private Void categorize(
+			BlockingQueue<StagedClass> categorizeQueue,
+			Semaphore inFlight,
+			AtomicReference<Throwable> failure,
+			ManagedClassConsumer consumer) throws InterruptedException {
+		while ( true ) {
+			final StagedClass stagedClass = categorizeQueue.take();
+			if ( stagedClass == END_OF_CLASSES ) {
+				return null;
+			}
+
+			try {
+				if ( failure.get() == null ) {
+					consumer.accept(
+							stagedClass.classDetails,
+							ModelSourceHelper.buildPersistentAttributeList( stagedClass.classDetails, null, modelContext )
+					);
+				}
+			}
+			catch (Throwable t) {
+				failure.compareAndSet( null, t );
+			}
+			finally {
+				classFileLocator.releaseClassBytes( stagedClass.className );
+				inFlight.release();
+			}
+		}
+	}
+
+	private static void awaitAll(List<Future<?>> futures) throws InterruptedException {
+		for ( int i = 0; i < futures.size(); i++ ) {
+			try {
+				futures.get( i ).get();
+			}
+			catch (ExecutionException e) {
+				throw new ByteBuddyModelException( "Archive scanning stage failed", e.getCause() );
+			}
+		}
+	}
+
+	private static boolean isManagedClass(ClassDetails classDetails) {
+		return classDetails.hasAnnotation( Entity.class )
+				|| classDetails.hasAnnotation( MappedSuperclass.class )
+				|| classDetails.hasAnnotation( Embeddable.class );
+	}
+
+	private static ExecutorService createReaderExecutor() {
+		try {
+			// Java 21+ - a virtual thread per read
+			return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+		}
+		catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool( FALLBACK_READER_THREADS );
+		}
+	}
+
+	private static String toClassName(String resourceName) {
+		if ( !resourceName.endsWith( ".class" )
+				|| resourceName.endsWith( "module-info.class" )
+				|| resourceName.endsWith( "package-info.class" )
+				|| resourceName.startsWith( "META-INF/" ) ) {
+			return null;
+		}
+		return resourceName.substring( 0, resourceName.length() - ".class".length() ).replace( '/', '.' );
+	}
+
+	private static class StagedClass {
+		private final String className;
+		private final byte[] bytes;
+		// set by the parse stage
+		private ClassDetails classDetails;
+
+		private StagedClass(String className, byte[] bytes) {
+			this.className = className;
+			this.bytes = bytes;
+		}
+	}
+
+	@FunctionalInterface
+	private interface ClassBytesReader {
+		byte[] read() throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface ClassEntryConsumer {
+		/**
+		 * @return {@code false} to stop iterating
+		 */
+		boolean accept(String className, ClassBytesReader reader) throws InterruptedException;
+	}
+
+	/**
+	 * Access to the class entries of a jar file or class directory
+	 */
+	private interface ArchiveEntries extends AutoCloseable {
+		void forEachClass(ClassEntryConsumer consumer) throws IOException, InterruptedException;
+
+		@Override
+		void close() throws IOException;
+
+		static ArchiveEntries open(Path archive) throws IOException {
+			if ( Files.isDirectory( archive ) ) {
+				return new DirectoryEntries( archive );
+			}
+			return new JarEntries( new JarFile( archive.toFile() ) );
+		}
+	}
+
+	private static class JarEntries implements ArchiveEntries {
+		private final JarFile jarFile;
+
+		private JarEntries(JarFile jarFile) {
+			this.jarFile = jarFile;
+		}
+
+		@Override
+		public void forEachClass(ClassEntryConsumer consumer) throws InterruptedException {
+			final Enumeration<JarEntry> entries = jarFile.entries();
+			while ( entries.hasMoreElements() ) {
+				final JarEntry entry = entries.nextElement();
+				if ( entry.isDirectory() ) {
+					continue;
+				}
+				final String className = toClassName( entry.getName() );
+				if ( className == null ) {
+					continue;
+				}
+				final boolean proceed = consumer.accept( className, () -> {
+					try ( InputStream stream = jarFile.getInputStream( entry ) ) {
+						return stream.readAllBytes();
+					}
+				} );
+				if ( !proceed ) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			jarFile.close();
+		}
+	}
+
+	private static class DirectoryEntries implements ArchiveEntries {
+		private final Path directory;
+
+		private DirectoryEntries(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		public void forEachClass(ClassEntryConsumer consumer) throws IOException, InterruptedException {
+			final List<Path> files = new ArrayList<>();
+			try ( Stream<Path> paths = Files.walk( directory ) ) {
+				paths.filter( Files::isRegularFile ).forEach( files::add );
+			}
+
+			for ( int i = 0; i < files.size(); i++ ) {
+				final Path file = files.get( i );
+				final String className = toClassName( directory.relativize( file ).toString().replace( '\\', '/' ) );
+				if ( className == null ) {
+					continue;
+				}
+				if ( !consumer.accept( className, () -> Files.readAllBytes( file ) ) ) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
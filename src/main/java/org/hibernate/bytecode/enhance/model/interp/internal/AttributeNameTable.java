@@ -0,0 +1,232 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.interp.internal;
+
+import java.util.HashMap;
+
+/**
+ * Immutable mapping of attribute names to attribute ordinals, built once per
+ * {@link ManagedTypeDescriptorImpl descriptor}.
+ * <p/>
+ * The names are placed using a perfect hash built by "hash and displace" - the names are first
+ * split into small buckets, then, largest bucket first, a displacement is searched for each
+ * bucket which moves all of its names to free slots.  The table has about one slot per name
+ * (an eighth more), plus one displacement per four names, and a lookup is a single probe plus
+ * one (usually identity) comparison.  The names' {@linkplain String#hashCode() hash
+ * codes} are cached by the JDK, so nothing is hashed per lookup beyond mixing.  Names with equal
+ * hash codes can never be separated, in which case lookups go through a plain map instead.
+ *
+ * @author Steve Ebersole
+ */
+final class AttributeNameTable {
+	private static final int NAMES_PER_BUCKET = 4;
+	// per bucket, relative to the table size - only exceeded in (practically) impossible cases
+	private static final int DISPLACEMENT_FACTOR = 64;
+	private static final int HIDDEN = -1;
+
+	private static final AttributeNameTable EMPTY = new AttributeNameTable( new int[1], new String[1], new int[1], null );
+
+	private final int[] displacements;
+	private final String[] names;
+	private final int[] ordinals;
+	private final HashMap<String, Integer> fallback;
+
+	private AttributeNameTable(int[] displacements, String[] names, int[] ordinals, HashMap<String, Integer> fallback) {
+		this.displacements = displacements;
+		this.names = names;
+		this.ordinals = ordinals;
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Build the table for the given names, the index of each name being its ordinal.  Should a
+	 * name occur more than once, the last occurrence wins - e.g. a sub-type attribute hiding a
+	 * same-named super-type attribute.
+	 */
+	static AttributeNameTable from(String[] attributeNames) {
+		if ( attributeNames.length == 0 ) {
+			return EMPTY;
+		}
+
+		final AttributeNameTable table = tryBuild( attributeNames );
+		if ( table != null ) {
+			return table;
+		}
+
+		final HashMap<String, Integer> fallback = new HashMap<>( (int) ( attributeNames.length / 0.75f ) + 1 );
+		for ( int i = 0; i < attributeNames.length; i++ ) {
+			fallback.put( attributeNames[i], i );
+		}
+		return new AttributeNameTable( null, null, null, fallback );
+	}
+
+	private static AttributeNameTable tryBuild(String[] attributeNames) {
+		final int size = attributeNames.length;
+		final int bucketCount = ( size + NAMES_PER_BUCKET - 1 ) / NAMES_PER_BUCKET;
+
+		// group the names by bucket, with a counting sort
+		final int[] bucketStarts = new int[ bucketCount + 1 ];
+		for ( String name : attributeNames ) {
+			bucketStarts[ bucket( name, bucketCount ) + 1 ]++;
+		}
+		int maxBucketSize = 0;
+		for ( int bucket = 0; bucket < bucketCount; bucket++ ) {
+			maxBucketSize = Math.max( maxBucketSize, bucketStarts[bucket + 1] );
+			bucketStarts[bucket + 1] += bucketStarts[bucket];
+		}
+		final int[] bucketMembers = new int[ size ];
+		final int[] fill = bucketStarts.clone();
+		for ( int i = 0; i < size; i++ ) {
+			bucketMembers[ fill[ bucket( attributeNames[i], bucketCount ) ]++ ] = i;
+		}
+
+		// place the buckets largest first, again ordered by a counting sort
+		final int[] sizeStarts = new int[ maxBucketSize + 2 ];
+		for ( int bucket = 0; bucket < bucketCount; bucket++ ) {
+			sizeStarts[ maxBucketSize - ( bucketStarts[bucket + 1] - bucketStarts[bucket] ) + 1 ]++;
+		}
+		for ( int i = 0; i <= maxBucketSize; i++ ) {
+			sizeStarts[i + 1] += sizeStarts[i];
+		}
+		final int[] bucketOrder = new int[ bucketCount ];
+		for ( int bucket = 0; bucket < bucketCount; bucket++ ) {
+			bucketOrder[ sizeStarts[ maxBucketSize - ( bucketStarts[bucket + 1] - bucketStarts[bucket] ) ]++ ] = bucket;
+		}
+
+		final int[] displacements = new int[ bucketCount ];
+		// a little slack keeps the search short for the last buckets
+		final int tableSize = size + ( size >> 3 ) + 1;
+		final String[] names = new String[ tableSize ];
+		final int[] ordinals = new int[ tableSize ];
+		final int[] bucketSlots = new int[ maxBucketSize ];
+		final int maxDisplacement = DISPLACEMENT_FACTOR * size;
+		for ( int bucket : bucketOrder ) {
+			final int start = bucketStarts[bucket];
+			final int end = bucketStarts[bucket + 1];
+			if ( start == end ) {
+				// only empty buckets remain
+				break;
+			}
+			if ( !hideRepeatedNames( attributeNames, bucketMembers, start, end ) ) {
+				return null;
+			}
+
+			int displacement = 0;
+			while ( !fits( attributeNames, bucketMembers, start, end, displacement, names, bucketSlots ) ) {
+				if ( ++displacement > maxDisplacement ) {
+					return null;
+				}
+			}
+			displacements[bucket] = displacement;
+			for ( int i = start; i < end; i++ ) {
+				if ( bucketMembers[i] == HIDDEN ) {
+					continue;
+				}
+				final int slot = bucketSlots[i - start];
+				names[slot] = attributeNames[ bucketMembers[i] ];
+				ordinals[slot] = bucketMembers[i];
+			}
+		}
+		return new AttributeNameTable( displacements, names, ordinals, null );
+	}
+
+	/**
+	 * Names with equal hash codes always share their bucket and slot.  A name occurring more than
+	 * once is hidden by its last occurrence (members are in ordinal order), any other pair cannot be
+	 * separated by a displacement at all.
+	 *
+	 * @return {@code false} if the bucket cannot be placed
+	 */
+	private static boolean hideRepeatedNames(String[] attributeNames, int[] bucketMembers, int start, int end) {
+		for ( int i = start; i < end; i++ ) {
+			final String name = attributeNames[ bucketMembers[i] ];
+			for ( int j = i + 1; j < end; j++ ) {
+				final String other = attributeNames[ bucketMembers[j] ];
+				if ( name.hashCode() == other.hashCode() ) {
+					if ( !name.equals( other ) ) {
+						return false;
+					}
+					bucketMembers[i] = HIDDEN;
+					break;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the given displacement moves all names of the bucket to distinct free slots,
+	 * which are collected into {@code bucketSlots}
+	 */
+	private static boolean fits(
+			String[] attributeNames,
+			int[] bucketMembers,
+			int start,
+			int end,
+			int displacement,
+			String[] names,
+			int[] bucketSlots) {
+		for ( int i = start; i < end; i++ ) {
+			if ( bucketMembers[i] == HIDDEN ) {
+				bucketSlots[i - start] = -1;
+				continue;
+			}
+			final int slot = slot( attributeNames[ bucketMembers[i] ], displacement, names.length );
+			if ( names[slot] != null ) {
+				return false;
+			}
+			for ( int j = 0; j < i - start; j++ ) {
+				if ( bucketSlots[j] == slot ) {
+					return false;
+				}
+			}
+			bucketSlots[i - start] = slot;
+		}
+		return true;
+	}
+
+	private static int bucket(String name, int bucketCount) {
+		return reduce( mix( name.hashCode() ), bucketCount );
+	}
+
+	private static int slot(String name, int displacement, int size) {
+		return reduce( mix( name.hashCode() ^ ( ( displacement + 1 ) * 0x9E3779B9 ) ), size );
+	}
+
+	private static int mix(int hash) {
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		hash *= 0xC2B2AE35;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+
+	/**
+	 * Maps the (well mixed) hash onto {@code [0, bound)} without a division
+	 */
+	private static int reduce(int hash, int bound) {
+		return (int) ( ( ( hash & 0xFFFFFFFFL ) * bound ) >>> 32 );
+	}
+
+	/**
+	 * The ordinal for the named attribute, or {@code -1} if there is no such attribute
+	 */
+	int find(String name) {
+		if ( fallback != null ) {
+			final Integer ordinal = fallback.get( name );
+			return ordinal == null ? -1 : ordinal;
+		}
+
+		final int slot = slot( name, displacements[ bucket( name, displacements.length ) ], names.length );
+		final String candidate = names[slot];
+		if ( candidate == name || ( candidate != null && candidate.equals( name ) ) ) {
+			return ordinals[slot];
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.interp.internal;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeModelContext;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+
+import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_LOGGER;
+
+/**
+ * Builds the {@link ClassDetails} and {@link ManagedTypeDescriptor} references for a batch of
+ * classes in parallel on a {@link ForkJoinPool}.
+ * <p/>
+ * Building happens in 3 steps -<ol>
+ *     <li>resolve the ClassDetails for each class, in parallel</li>
+ *     <li>build the persistent attribute list for each class, in parallel</li>
+ *     <li>create and register the descriptors, super-types first, on the calling thread</li>
+ * </ol>
+ * The returned descriptors are always in the order of the requested names, regardless
+ * of the parallelism of the pool.
+ *
+ * @author Steve Ebersole
+ */
+public class BatchModelBuilder {
+	private final ManagedTypeModelContext modelContext;
+	private final ForkJoinPool forkJoinPool;
+
+	public BatchModelBuilder(ManagedTypeModelContext modelContext) {
+		this( modelContext, ForkJoinPool.commonPool() );
+	}
+
+	public BatchModelBuilder(ManagedTypeModelContext modelContext, ForkJoinPool forkJoinPool) {
+		this.modelContext = modelContext;
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Build descriptors for all the named classes.
+	 *
+	 * @return The descriptors, in the iteration order of {@code classNames}
+	 */
+	public List<ManagedTypeDescriptor> buildDescriptors(Collection<String> classNames) {
+		final List<String> names = new ArrayList<>( new LinkedHashSet<>( classNames ) );
+		MODEL_SOURCE_LOGGER.debugf( "Building ManagedTypeDescriptors for %s classes", names.size() );
+
+		final ClassDetails[] classDetailsList = resolveClassDetails( names );
+		return buildDescriptors( classDetailsList );
+	}
+
+	/**
+	 * Build descriptors for all the managed classes (entities, mapped-superclasses and embeddables)
+	 * found in the given jar file or class directory, using an {@link ArchiveScanningPipeline}
+	 * matching the parallelism of the pool.
+	 *
+	 * @return The descriptors, ordered by class name
+	 */
+	public List<ManagedTypeDescriptor> buildDescriptors(Path archive) {
+		final ConcurrentSkipListMap<String, ClassDetails> managedClasses = new ConcurrentSkipListMap<>();
+		final Map<String, List<PersistentAttribute>> attributeListMap = new ConcurrentHashMap<>();
+		new ArchiveScanningPipeline(
+				modelContext,
+				forkJoinPool.getParallelism(),
+				ArchiveScanningPipeline.DEFAULT_QUEUE_CAPACITY
+		).scan( archive, (classDetails, attributes) -> {
+			managedClasses.put( classDetails.getClassName(), classDetails );
+			attributeListMap.put( classDetails.getClassName(), attributes );
+		} );
+
+		final List<ManagedTypeDescriptor> descriptors = new ArrayList<>( managedClasses.size() );
+		for ( ClassDetails classDetails : managedClasses.values() ) {
+			descriptors.add( registerDescriptor( classDetails, attributeListMap ) );
+		}
+		return descriptors;
+	}
+
+	private ClassDetails[] resolveClassDetails(List<String> names) {
+		final ClassDetailsRegistry classDetailsRegistry = modelContext.getModelProcessingContext().getClassDetailsRegistry();
+		final ClassDetails[] classDetailsList = new ClassDetails[ names.size() ];
+		forEachInParallel(
+				names.size(),
+				(index) -> classDetailsList[index] = classDetailsRegistry.resolveClassDetails( names.get( index ) )
+		);
+		return classDetailsList;
+	}
+
+	private List<ManagedTypeDescriptor> buildDescriptors(ClassDetails[] classDetailsList) {
+		final Map<String, List<PersistentAttribute>> attributeListMap = new ConcurrentHashMap<>();
+		forEachInParallel(
+				classDetailsList.length,
+				(index) -> attributeListMap.put(
+						classDetailsList[index].getClassName(),
+						ModelSourceHelper.buildPersistentAttributeList( classDetailsList[index], null, modelContext )
+				)
+		);
+
+		final List<ManagedTypeDescriptor> descriptors = new ArrayList<>( classDetailsList.length );
+		for ( int i = 0; i < classDetailsList.length; i++ ) {
+			descriptors.add( registerDescriptor( classDetailsList[i], attributeListMap ) );
+		}
+		return descriptors;
+	}
+
+	private ManagedTypeDescriptor registerDescriptor(
+			ClassDetails classDetails,
+			Map<String, List<PersistentAttribute>> attributeListMap) {
+		final ManagedTypeDescriptorRegistryImpl descriptorRegistry = (ManagedTypeDescriptorRegistryImpl) modelContext.getDescriptorRegistry();
+		final ManagedTypeDescriptor existing = descriptorRegistry.findDescriptor( classDetails.getClassName() );
+		if ( existing != null ) {
+			return existing;
+		}
+
+		// the descriptor looks up its super-type descriptor, so make sure that is registered first
+		if ( classDetails.getSuperType() != null ) {
+			registerDescriptor( classDetails.getSuperType(), attributeListMap );
+		}
+
+		List<PersistentAttribute> attributes = attributeListMap.get( classDetails.getClassName() );
+		if ( attributes == null ) {
+			// a super-type which was not part of the batch
+			attributes = ModelSourceHelper.buildPersistentAttributeList( classDetails, null, modelContext );
+		}
+
+		final ManagedTypeDescriptor descriptor = new ManagedTypeDescriptorImpl( classDetails, attributes, modelContext );
+		return descriptorRegistry.addDescriptor( descriptor );
+	}
+
+	private void forEachInParallel(int count, IntConsumer action) {
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>( count );
+		for ( int i = 0; i < count; i++ ) {
+			final int index = i;
+			tasks.add( forkJoinPool.submit( () -> action.accept( index ) ) );
+		}
+		for ( int i = 0; i < tasks.size(); i++ ) {
+			tasks.get( i ).join();
+		}
+	}
+}
@@ -10,6 +10,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
 import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
 import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeModelContext;
 import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
@@ -25,18 +26,62 @@ public class ManagedTypeDescriptorImpl implements ManagedTypeDescriptor {
 
 	private final ManagedTypeDescriptor superTypeDescriptor;
 
+	// all attributes, inherited ones first, indexed by ordinal
+	private final PersistentAttribute[] attributes;
+	private final AttributeNameTable attributeNameTable;
+
+	/**
+	 * @param attributes The attributes declared by the type.  The descriptor assigns their
+	 * {@linkplain PersistentAttribute#getOrdinal() ordinals}, so these must be (not yet
+	 * numbered) {@link PersistentAttributeImpl} instances
+	 */
 	public ManagedTypeDescriptorImpl(ClassDetails classDetails, List<PersistentAttribute> attributes, ManagedTypeModelContext context) {
+		this(
+				classDetails,
+				attributes,
+				classDetails.getSuperType() == null
+						? null
+						: context.getDescriptorRegistry().getDescriptor( classDetails.getSuperType() )
+		);
+	}
+
+	/**
+	 * Form for descriptors whose super-type descriptor is already known, e.g. from a {@link ModelImage}
+	 *
+	 * @param attributes As for {@link #ManagedTypeDescriptorImpl(ClassDetails, List, ManagedTypeModelContext)}
+	 */
+	public ManagedTypeDescriptorImpl(
+			ClassDetails classDetails,
+			List<PersistentAttribute> attributes,
+			ManagedTypeDescriptor superTypeDescriptor) {
 		this.classDetails = classDetails;
 		this.attributeMap = CollectionHelper.linkedMapOfSize( attributes.size() );
+		this.superTypeDescriptor = superTypeDescriptor;
 
-		this.superTypeDescriptor = classDetails.getSuperType() == null
-				? null
-				: context.getDescriptorRegistry().getDescriptor( classDetails.getSuperType() );
+		final int inheritedCount = superTypeDescriptor == null ? 0 : superTypeDescriptor.getAttributeCount();
+		this.attributes = new PersistentAttribute[ inheritedCount + attributes.size() ];
+		final String[] attributeNames = new String[ this.attributes.length ];
+		for ( int i = 0; i < inheritedCount; i++ ) {
+			this.attributes[i] = superTypeDescriptor.getAttribute( i );
+			attributeNames[i] = this.attributes[i].getName();
+		}
 
 		for ( int i = 0; i < attributes.size(); i++ ) {
 			final PersistentAttribute attribute = attributes.get( i );
+			if ( !( attribute instanceof PersistentAttributeImpl ) ) {
+				throw new ByteBuddyModelException(
+						"Attribute `" + attribute.getName() + "` of " + classDetails.getName()
+								+ " must be a PersistentAttributeImpl to be assigned an ordinal : " + attribute
+				);
+			}
+			final int ordinal = inheritedCount + i;
+			( (PersistentAttributeImpl) attribute ).injectOrdinal( ordinal );
+			this.attributes[ordinal] = attribute;
+			attributeNames[ordinal] = attribute.getName();
 			attributeMap.put( attribute.getName(), attribute );
 		}
+
+		this.attributeNameTable = AttributeNameTable.from( attributeNames );
 	}
 
 	@Override
@@ -52,4 +97,19 @@ public class ManagedTypeDescriptorImpl implements ManagedTypeDescriptor {
 	public Map<String, PersistentAttribute> getPersistentAttributes() {
 		return attributeMap;
 	}
+
+	@Override
+	public int getAttributeCount() {
+		return attributes.length;
+	}
+
+	@Override
+	public PersistentAttribute getAttribute(int ordinal) {
+		return attributes[ordinal];
+	}
+
+	@Override
+	public int findAttributeOrdinal(String name) {
+		return attributeNameTable.find( name );
+	}
 }
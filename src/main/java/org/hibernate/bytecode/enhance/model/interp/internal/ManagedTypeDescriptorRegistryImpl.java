@@ -6,19 +6,40 @@
  */
 package org.hibernate.bytecode.enhance.model.interp.internal;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
 import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
 import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptorRegistry;
 import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeModelContext;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassDetailsRegistryImpl;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
 
 /**
+ * Registry of {@link ManagedTypeDescriptor} references, safe for use from multiple threads.
+ * <p/>
+ * Published descriptors are read without locking.  Each descriptor is built exactly once -
+ * concurrent callers resolving the same name wait for the single in-flight build rather than
+ * starting their own.  A build first resolves the super-type descriptor through this same
+ * registry, so a shared super-type is also built just once no matter how many sub-types race.
+ * <p/>
+ * Registration order, which always has super-types ahead of their sub-types, is kept for
+ * deterministic iteration - see {@link #getDescriptorNames()}.
+ *
  * @author Steve Ebersole
  */
 public class ManagedTypeDescriptorRegistryImpl implements ManagedTypeDescriptorRegistry {
-	private final Map<String, ManagedTypeDescriptor> managedTypeDescriptorMap = new LinkedHashMap<>();
+	private final ConcurrentHashMap<String, ManagedTypeDescriptor> managedTypeDescriptorMap = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, FutureTask<ManagedTypeDescriptor>> inFlightBuilds = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<String> registrationOrder = new ConcurrentLinkedQueue<>();
 	private final ManagedTypeModelContext modelContext;
 
 	public ManagedTypeDescriptorRegistryImpl(ManagedTypeModelContext modelContext) {
@@ -31,18 +52,153 @@ public class ManagedTypeDescriptorRegistryImpl implements ManagedTypeDescriptorR
 	}
 
 	public ManagedTypeDescriptor resolveDescriptor(String name) {
-		final ManagedTypeDescriptor existing = findDescriptor( name );
+		final ManagedTypeDescriptor existing = managedTypeDescriptorMap.get( name );
 		if ( existing != null ) {
 			return existing;
 		}
 
+		final FutureTask<ManagedTypeDescriptor> build = new FutureTask<>( () -> buildDescriptor( name ) );
+		final FutureTask<ManagedTypeDescriptor> inFlight = inFlightBuilds.putIfAbsent( name, build );
+		if ( inFlight != null ) {
+			// another thread is building it
+			return await( name, inFlight );
+		}
+
+		try {
+			// the descriptor may have been published between the check above and registering the build
+			final ManagedTypeDescriptor published = managedTypeDescriptorMap.get( name );
+			if ( published != null ) {
+				return published;
+			}
+			build.run();
+			return await( name, build );
+		}
+		finally {
+			// only after publishing, so no caller ever sees neither the build nor its result
+			inFlightBuilds.remove( name, build );
+		}
+	}
+
+	private ManagedTypeDescriptor buildDescriptor(String name) {
 		final ClassDetails classDetails = modelContext.getModelProcessingContext().getClassDetailsRegistry().resolveClassDetails( name );
-		final ManagedTypeDescriptor managedTypeDescriptor = ModelSourceHelper.buildManagedTypeDescriptor(
+
+		// resolve (and register) the super-type descriptor first - outside any lock, sharing its
+		// build with whoever else needs it
+		final ManagedTypeDescriptor superTypeDescriptor = classDetails.getSuperType() == null
+				? null
+				: resolveDescriptor( classDetails.getSuperType().getClassName() );
+
+		final ManagedTypeDescriptor managedTypeDescriptor = new ManagedTypeDescriptorImpl(
 				classDetails,
-				null,
-				modelContext
+				ModelSourceHelper.buildPersistentAttributeList( classDetails, null, modelContext ),
+				superTypeDescriptor
 		);
-		managedTypeDescriptorMap.put( name, managedTypeDescriptor );
+		return publish( name, managedTypeDescriptor );
+	}
+
+	private static ManagedTypeDescriptor await(String name, FutureTask<ManagedTypeDescriptor> build) {
+		try {
+			return build.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ByteBuddyModelException( "Interrupted while waiting for ManagedTypeDescriptor : " + name, e );
+		}
+		catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw new ByteBuddyModelException( "Unable to build ManagedTypeDescriptor : " + name, cause );
+		}
+	}
+
+	/**
+	 * Publish the descriptor, unless one is already registered under the name - a published
+	 * descriptor may already have been handed out, so it is never replaced.
+	 *
+	 * @return The registered descriptor, i.e. the given one or the one published before it
+	 */
+	private ManagedTypeDescriptor publish(String name, ManagedTypeDescriptor managedTypeDescriptor) {
+		final ManagedTypeDescriptor existing = managedTypeDescriptorMap.putIfAbsent( name, managedTypeDescriptor );
+		if ( existing != null ) {
+			return existing;
+		}
+		registrationOrder.add( name );
 		return managedTypeDescriptor;
 	}
+
+	/**
+	 * The names of all registered descriptors, in registration order - super-types ahead of their sub-types
+	 */
+	public List<String> getDescriptorNames() {
+		return new ArrayList<>( registrationOrder );
+	}
+
+	/**
+	 * Refresh the model after the named classes changed.  Evicts the ClassDetails of those classes
+	 * and of everything depending on them (see {@link ClassDetailsRegistryImpl#invalidate}), drops
+	 * the descriptors of all evicted classes as well as those whose super-type descriptor chain
+	 * includes one, and rebuilds just those descriptors.  Descriptors of classes which no longer
+	 * exist are dropped without replacement.
+	 * <p/>
+	 * Not safe to call while other threads use this registry; fails if a descriptor or
+	 * ClassDetails is being built at the time.
+	 *
+	 * @return The names of the rebuilt descriptors, in (re)registration order
+	 */
+	public List<String> invalidate(Collection<String> changedClassNames) {
+		if ( !inFlightBuilds.isEmpty() ) {
+			throw new ByteBuddyModelException( "Descriptors cannot be invalidated while being built : " + inFlightBuilds.keySet() );
+		}
+
+		final ModelProcessingContext processingContext = modelContext.getModelProcessingContext();
+		final Set<String> evictedClassNames = ( (ClassDetailsRegistryImpl) processingContext.getClassDetailsRegistry() )
+				.invalidate( changedClassNames );
+
+		// registration order has super-types first, which rebuilding relies upon
+		final List<String> evictedDescriptorNames = new ArrayList<>();
+		for ( String name : registrationOrder ) {
+			if ( dependsOnAny( managedTypeDescriptorMap.get( name ), evictedClassNames ) ) {
+				evictedDescriptorNames.add( name );
+			}
+		}
+		for ( int i = 0; i < evictedDescriptorNames.size(); i++ ) {
+			managedTypeDescriptorMap.remove( evictedDescriptorNames.get( i ) );
+		}
+		registrationOrder.removeAll( evictedDescriptorNames );
+
+		final List<String> rebuiltDescriptorNames = new ArrayList<>( evictedDescriptorNames.size() );
+		for ( int i = 0; i < evictedDescriptorNames.size(); i++ ) {
+			final String name = evictedDescriptorNames.get( i );
+			if ( processingContext.getTypePool().describe( name ).isResolved() ) {
+				resolveDescriptor( name );
+				rebuiltDescriptorNames.add( name );
+			}
+		}
+		return rebuiltDescriptorNames;
+	}
+
+	private static boolean dependsOnAny(ManagedTypeDescriptor descriptor, Set<String> classNames) {
+		ManagedTypeDescriptor current = descriptor;
+		while ( current != null ) {
+			if ( classNames.contains( current.getClassDetails().getClassName() ) ) {
+				return true;
+			}
+			current = ( (ManagedTypeDescriptorImpl) current ).getSuperTypeDescriptor();
+		}
+		return false;
+	}
+
+	/**
+	 * Registers a descriptor built outside the registry, e.g. by {@link BatchModelBuilder}
+	 *
+	 * @return The registered descriptor - the given one, or the one already registered for the same class
+	 */
+	public ManagedTypeDescriptor addDescriptor(ManagedTypeDescriptor managedTypeDescriptor) {
+		return publish( managedTypeDescriptor.getClassDetails().getClassName(), managedTypeDescriptor );
+	}
 }
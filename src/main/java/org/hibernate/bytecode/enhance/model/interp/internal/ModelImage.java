@@ -0,0 +1,271 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.interp.internal;
+
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptorRegistry;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassDetailsSerializer;
+import org.hibernate.bytecode.enhance.model.source.internal.SymbolTable;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+
+import jakarta.persistence.AccessType;
+
+/**
+ * Read-only, memory-mapped image of a fully built model, as written by {@link ModelImageWriter}.
+ * <p/>
+ * Opening the image only reads its index; each ClassDetails and descriptor is materialized from
+ * its offset on first request.  Nothing is resolved from class files, so consulting the model
+ * needs neither classpath scanning nor bytecode parsing.  Being a read-only file mapping, the
+ * image pages are shared through the page cache by all JVMs on the host using the same file.
+ * <p/>
+ * Thread-safe.
+ *
+ * @author Steve Ebersole
+ */
+public class ModelImage implements ManagedTypeDescriptorRegistry {
+	static final int MAGIC = 0x484D494D;
+	static final int FORMAT_VERSION = 2;
+
+	private final Path imageFile;
+	private final MappedByteBuffer buffer;
+	private final Map<String, Integer> classOffsets;
+	private final Map<String, Integer> descriptorOffsets;
+
+	private final ImageClassDetailsRegistry classDetailsRegistry = new ImageClassDetailsRegistry();
+	private final ConcurrentHashMap<String, ManagedTypeDescriptor> descriptors = new ConcurrentHashMap<>();
+
+	private ModelImage(
+			Path imageFile,
+			MappedByteBuffer buffer,
+			Map<String, Integer> classOffsets,
+			Map<String, Integer> descriptorOffsets) {
+		this.imageFile = imageFile;
+		this.buffer = buffer;
+		this.classOffsets = classOffsets;
+		this.descriptorOffsets = descriptorOffsets;
+	}
+
+	/**
+	 * Map the given image file
+	 */
+	public static ModelImage open(Path imageFile) throws IOException {
+		final MappedByteBuffer buffer;
+		try ( FileChannel channel = FileChannel.open( imageFile, StandardOpenOption.READ ) ) {
+			// the mapping stays valid after the channel is closed
+			buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+		}
+
+		final ByteBuffer view = buffer.duplicate();
+		final DataInputStream input = new DataInputStream( new ByteBufferInputStream( view ) );
+		if ( input.readInt() != MAGIC ) {
+			throw new ByteBuddyModelException( "Not a model image : " + imageFile );
+		}
+		final int formatVersion = input.readInt();
+		if ( formatVersion != FORMAT_VERSION ) {
+			throw new ByteBuddyModelException( "Unsupported model image version (" + formatVersion + ") : " + imageFile );
+		}
+
+		final Map<String, Integer> classOffsets = readIndex( input );
+		final Map<String, Integer> descriptorOffsets = readIndex( input );
+
+		// offsets are relative to the end of the index
+		final int bodiesStart = view.position();
+		classOffsets.replaceAll( (name, offset) -> bodiesStart + offset );
+		descriptorOffsets.replaceAll( (name, offset) -> bodiesStart + offset );
+
+		return new ModelImage( imageFile, buffer, classOffsets, descriptorOffsets );
+	}
+
+	private static Map<String, Integer> readIndex(DataInputStream input) throws IOException {
+		final int count = input.readInt();
+		final Map<String, Integer> offsets = new HashMap<>( count * 2 );
+		for ( int i = 0; i < count; i++ ) {
+			offsets.put( input.readUTF(), input.readInt() );
+		}
+		return offsets;
+	}
+
+	/**
+	 * Access to the ClassDetails in the image
+	 */
+	public ClassDetailsRegistry getClassDetailsRegistry() {
+		return classDetailsRegistry;
+	}
+
+	/**
+	 * The names of all classes with a descriptor in the image
+	 */
+	public Set<String> getDescriptorNames() {
+		return Collections.unmodifiableSet( descriptorOffsets.keySet() );
+	}
+
+	@Override
+	public ManagedTypeDescriptor findDescriptor(String name) {
+		final ManagedTypeDescriptor existing = descriptors.get( name );
+		if ( existing != null ) {
+			return existing;
+		}
+
+		final Integer offset = descriptorOffsets.get( name );
+		if ( offset == null ) {
+			return null;
+		}
+
+		final ClassDetails classDetails = classDetailsRegistry.getClassDetails( name );
+		// resolve the super-type descriptor first - outside of any map operation
+		final ManagedTypeDescriptor superTypeDescriptor = classDetails.getSuperType() == null
+				? null
+				: findDescriptor( classDetails.getSuperType().getName() );
+		final ManagedTypeDescriptor created = new ManagedTypeDescriptorImpl(
+				classDetails,
+				readAttributes( classDetails, offset ),
+				superTypeDescriptor
+		);
+
+		final ManagedTypeDescriptor raced = descriptors.putIfAbsent( name, created );
+		return raced == null ? created : raced;
+	}
+
+	/**
+	 * The image is closed, so this is the same as {@link #getDescriptor(String)}
+	 */
+	@Override
+	public ManagedTypeDescriptor resolveDescriptor(String name) {
+		return getDescriptor( name );
+	}
+
+	private List<PersistentAttribute> readAttributes(ClassDetails classDetails, int offset) {
+		final List<FieldDetails> fields = classDetails.getFields();
+		final AccessType[] accessTypes = AccessType.values();
+		try {
+			final DataInputStream input = openAt( offset );
+			final int attributeCount = input.readInt();
+			final List<PersistentAttribute> attributes = new ArrayList<>( attributeCount );
+			for ( int i = 0; i < attributeCount; i++ ) {
+				final String name = input.readUTF();
+				final AccessType accessType = accessTypes[ input.readByte() ];
+				final MemberDetails backingMember = member( classDetails, input.readInt() );
+				final int underlyingFieldIndex = input.readInt();
+				attributes.add( new PersistentAttributeImpl(
+						name,
+						accessType,
+						backingMember,
+						underlyingFieldIndex < 0 ? null : fields.get( underlyingFieldIndex )
+				) );
+			}
+			return attributes;
+		}
+		catch (IOException e) {
+			throw new ByteBuddyModelException( "Unable to read descriptor " + classDetails.getName() + " from model image : " + imageFile, e );
+		}
+	}
+
+	private static MemberDetails member(ClassDetails classDetails, int index) {
+		final int fieldCount = classDetails.getFields().size();
+		return index < fieldCount
+				? classDetails.getFields().get( index )
+				: classDetails.getMethods().get( index - fieldCount );
+	}
+
+	private DataInputStream openAt(int offset) {
+		final ByteBuffer view = buffer.duplicate();
+		view.position( offset );
+		return new DataInputStream( new ByteBufferInputStream( view ) );
+	}
+
+	private class ImageClassDetailsRegistry implements ClassDetailsRegistry {
+		private final ConcurrentHashMap<String, ClassDetails> classDetailsMap = new ConcurrentHashMap<>();
+		private final SymbolTable symbolTable = new SymbolTable();
+
+		@Override
+		public ClassDetails findClassDetails(String name) {
+			final ClassDetails existing = classDetailsMap.get( name );
+			if ( existing != null ) {
+				return existing;
+			}
+
+			final Integer offset = classOffsets.get( name );
+			if ( offset == null ) {
+				return null;
+			}
+
+			// reading never touches this registry - member and super types are resolved lazily
+			return classDetailsMap.computeIfAbsent( name, (key) -> readClassDetails( key, offset ) );
+		}
+
+		private ClassDetails readClassDetails(String name, int offset) {
+			try {
+				return ClassDetailsSerializer.readClassDetails( name, openAt( offset ), this, symbolTable );
+			}
+			catch (IOException e) {
+				throw new ByteBuddyModelException( "Unable to read ClassDetails " + name + " from model image : " + imageFile, e );
+			}
+		}
+
+		@Override
+		public ClassDetails getClassDetails(String name) {
+			final ClassDetails classDetails = findClassDetails( name );
+			if ( classDetails == null ) {
+				throw new ByteBuddyModelException( "No ClassDetails for `" + name + "` in model image : " + imageFile );
+			}
+			return classDetails;
+		}
+
+		/**
+		 * The image is closed, so this is the same as {@link #getClassDetails}
+		 */
+		@Override
+		public ClassDetails resolveClassDetails(String name) {
+			return getClassDetails( name );
+		}
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if ( !buffer.hasRemaining() ) {
+				return -1;
+			}
+			final int count = Math.min( length, buffer.remaining() );
+			buffer.get( bytes, offset, count );
+			return count;
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.interp.internal;
+
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassDetailsSerializer;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+/**
+ * Writes a {@link ModelImage} for a fully built set of descriptors, typically at build time.
+ * <p/>
+ * The image is closed - besides the descriptors' classes and their super-types (written in full),
+ * it holds the types of their members and the super-types of those (written without members),
+ * so nothing needs to be resolved from class files when it is used.  Likewise the descriptors
+ * of super-types are written along with the given descriptors, so inherited attributes and
+ * ordinals are the same as in the model the image was written from.
+ *
+ * @author Steve Ebersole
+ */
+public class ModelImageWriter {
+	/**
+	 * Write the image for the given descriptors to {@code imageFile}, replacing any existing file
+	 */
+	public static void writeImage(Collection<ManagedTypeDescriptor> descriptors, Path imageFile) throws IOException {
+		final Map<String, ManagedTypeDescriptor> allDescriptors = new LinkedHashMap<>();
+		for ( ManagedTypeDescriptor descriptor : descriptors ) {
+			collectDescriptor( descriptor, allDescriptors );
+		}
+		for ( ManagedTypeDescriptor descriptor : allDescriptors.values() ) {
+			verifySuperTypeDescriptor( descriptor, allDescriptors );
+		}
+
+		final Map<String, ClassDetails> fullClasses = new LinkedHashMap<>();
+		for ( ManagedTypeDescriptor descriptor : allDescriptors.values() ) {
+			ClassDetails classDetails = descriptor.getClassDetails();
+			while ( classDetails != null && fullClasses.putIfAbsent( classDetails.getName(), classDetails ) == null ) {
+				classDetails = classDetails.getSuperType();
+			}
+		}
+
+		final Map<String, ClassDetails> shallowClasses = new LinkedHashMap<>();
+		for ( ClassDetails classDetails : fullClasses.values() ) {
+			for ( FieldDetails field : classDetails.getFields() ) {
+				collectShallowClass( field.getType(), fullClasses, shallowClasses );
+			}
+			for ( MethodDetails method : classDetails.getMethods() ) {
+				collectShallowClass( method.getType(), fullClasses, shallowClasses );
+			}
+		}
+
+		// bodies first, so their (relative) offsets are known for the index
+		final ByteArrayOutputStream bodiesBuffer = new ByteArrayOutputStream();
+		final DataOutputStream bodies = new DataOutputStream( bodiesBuffer );
+		final Map<String, Integer> classOffsets = new LinkedHashMap<>();
+		for ( ClassDetails classDetails : fullClasses.values() ) {
+			classOffsets.put( classDetails.getName(), bodies.size() );
+			ClassDetailsSerializer.writeClassDetails( classDetails, true, Collections.emptyMap(), bodies );
+		}
+		for ( ClassDetails classDetails : shallowClasses.values() ) {
+			classOffsets.put( classDetails.getName(), bodies.size() );
+			ClassDetailsSerializer.writeClassDetails( classDetails, false, Collections.emptyMap(), bodies );
+		}
+
+		final Map<String, Integer> descriptorOffsets = new LinkedHashMap<>();
+		for ( ManagedTypeDescriptor descriptor : allDescriptors.values() ) {
+			descriptorOffsets.put( descriptor.getClassDetails().getName(), bodies.size() );
+			writeDescriptor( descriptor, bodies );
+		}
+		bodies.flush();
+
+		final Path directory = imageFile.toAbsolutePath().getParent();
+		Files.createDirectories( directory );
+		final Path tempFile = Files.createTempFile( directory, imageFile.getFileName().toString(), ".tmp" );
+		try ( DataOutputStream output = new DataOutputStream( new BufferedOutputStream( Files.newOutputStream( tempFile ) ) ) ) {
+			output.writeInt( ModelImage.MAGIC );
+			output.writeInt( ModelImage.FORMAT_VERSION );
+			writeIndex( classOffsets, output );
+			writeIndex( descriptorOffsets, output );
+			bodiesBuffer.writeTo( output );
+		}
+		Files.move( tempFile, imageFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+	}
+
+	private static void collectDescriptor(ManagedTypeDescriptor descriptor, Map<String, ManagedTypeDescriptor> allDescriptors) {
+		while ( descriptor != null && allDescriptors.putIfAbsent( descriptor.getClassDetails().getName(), descriptor ) == null ) {
+			descriptor = descriptor instanceof ManagedTypeDescriptorImpl
+					? ( (ManagedTypeDescriptorImpl) descriptor ).getSuperTypeDescriptor()
+					: null;
+		}
+	}
+
+	/**
+	 * The image resolves the super-type descriptor by the name of the direct super-type, so a
+	 * descriptor inheriting attributes needs that one to be part of the image as well
+	 */
+	private static void verifySuperTypeDescriptor(ManagedTypeDescriptor descriptor, Map<String, ManagedTypeDescriptor> allDescriptors) {
+		final int inheritedCount = descriptor.getAttributeCount() - descriptor.getPersistentAttributes().size();
+		if ( inheritedCount == 0 ) {
+			return;
+		}
+		final ClassDetails superType = descriptor.getClassDetails().getSuperType();
+		if ( superType == null || !allDescriptors.containsKey( superType.getName() ) ) {
+			throw new ByteBuddyModelException(
+					"Descriptor " + descriptor.getClassDetails().getName() + " inherits " + inheritedCount
+							+ " attribute(s), but the descriptor of its super-type is not part of the model image"
+			);
+		}
+	}
+
+	private static void collectShallowClass(
+			ClassDetails classDetails,
+			Map<String, ClassDetails> fullClasses,
+			Map<String, ClassDetails> shallowClasses) {
+		while ( classDetails != null
+				&& !fullClasses.containsKey( classDetails.getName() )
+				&& shallowClasses.putIfAbsent( classDetails.getName(), classDetails ) == null ) {
+			classDetails = classDetails.getSuperType();
+		}
+	}
+
+	private static void writeIndex(Map<String, Integer> offsets, DataOutputStream output) throws IOException {
+		output.writeInt( offsets.size() );
+		for ( Map.Entry<String, Integer> entry : offsets.entrySet() ) {
+			output.writeUTF( entry.getKey() );
+			output.writeInt( entry.getValue() );
+		}
+	}
+
+	private static void writeDescriptor(ManagedTypeDescriptor descriptor, DataOutputStream output) throws IOException {
+		final ClassDetails classDetails = descriptor.getClassDetails();
+		final List<FieldDetails> fields = classDetails.getFields();
+		final List<MethodDetails> methods = classDetails.getMethods();
+
+		final Collection<PersistentAttribute> attributes = descriptor.getPersistentAttributes().values();
+		output.writeInt( attributes.size() );
+		for ( PersistentAttribute attribute : attributes ) {
+			output.writeUTF( attribute.getName() );
+			output.writeByte( attribute.getAccessType().ordinal() );
+			output.writeInt( memberIndex( attribute.getBackingMember(), fields, methods, classDetails ) );
+			output.writeInt( attribute.getUnderlyingField() == null
+					? -1
+					: memberIndex( attribute.getUnderlyingField(), fields, methods, classDetails ) );
+		}
+	}
+
+	/**
+	 * Members are indexed as in the ClassDetails entry - fields first, followed by methods
+	 */
+	private static int memberIndex(
+			MemberDetails member,
+			List<FieldDetails> fields,
+			List<MethodDetails> methods,
+			ClassDetails classDetails) {
+		final int fieldIndex = fields.indexOf( member );
+		if ( fieldIndex >= 0 ) {
+			return fieldIndex;
+		}
+		final int methodIndex = methods.indexOf( member );
+		if ( methodIndex >= 0 ) {
+			return fields.size() + methodIndex;
+		}
+		throw new ByteBuddyModelException( "Attribute member " + member + " is not declared by " + classDetails.getName() );
+	}
+}
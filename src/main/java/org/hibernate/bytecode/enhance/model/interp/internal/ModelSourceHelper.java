@@ -6,7 +6,6 @@
  */
 package org.hibernate.bytecode.enhance.model.interp.internal;
 
-import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,22 +18,15 @@ import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
 import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeModelContext;
 import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
 import org.hibernate.bytecode.enhance.model.source.spi.AnnotationTarget;
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationUsage;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
 import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
 import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
 import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
-import org.hibernate.internal.util.collections.CollectionHelper;
 
 import jakarta.persistence.Access;
 import jakarta.persistence.AccessType;
 import jakarta.persistence.Transient;
-import net.bytebuddy.dynamic.ClassFileLocator;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.tree.AbstractInsnNode;
-import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.FieldInsnNode;
-import org.objectweb.asm.tree.MethodNode;
 
 import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_LOGGER;
 import static org.hibernate.internal.util.collections.CollectionHelper.arrayList;
@@ -117,15 +109,12 @@ public class ModelSourceHelper {
 			return;
 		}
 
-		final AsmModelNodesRef asmModelNodesRef = new AsmModelNodesRef( declaringType, processingContext );
-
 		backingGetters.forEach( (attributeName, getterDetails) -> {
 			final FieldDetails underlyingField = determineGottenField(
 					getterDetails,
 					backingFields,
 					allFields,
-					asmModelNodesRef,
-					processingContext
+					declaringType
 			);
 
 			attributeCollector.accept( new PersistentAttributeImpl(
@@ -160,29 +149,16 @@ public class ModelSourceHelper {
 			MethodDetails getterDetails,
 			Map<String,FieldDetails> backingFields,
 			Map<String,FieldDetails> allFields,
-			AsmModelNodesRef asmModelNodesRef,
-			ManagedTypeModelContext processingContext) {
+			ClassDetails declaringType) {
 		final FieldDetails simpleMatch = allFields.get( getterDetails.getSimpleMatchFieldName() );
 		if ( simpleMatch != null ) {
 			return simpleMatch;
 		}
 
-		// we need to dig a littler deeper and look at the bytecode instructions
-		final Map<String, MethodNode> getterMethodNodeMap = asmModelNodesRef.getGetterMethodNodeMap();
-		final MethodNode methodNode = getterMethodNodeMap.get( getterDetails.getName() );
-
-		// assume the final GETFIELD instruction is the backing field
-		FieldDetails returnedField = null;
-		for ( int i = methodNode.instructions.size() - 1; i >= 0; i-- ) {
-			final AbstractInsnNode instruction = methodNode.instructions.get( i );
-			if ( instruction.getOpcode() == Opcodes.GETFIELD ) {
-				final FieldInsnNode getFieldInstruction = (FieldInsnNode) instruction;
-				final String returnedFieldName = getFieldInstruction.name;
-				returnedField = allFields.get( returnedFieldName );
-				break;
-			}
-		}
-
+		// we need to dig a littler deeper and look at the bytecode instructions - the
+		// ClassDetails analyzes (in a single streaming pass) and memoizes that
+		final String gottenFieldName = declaringType.findGottenFieldName( getterDetails.getName() );
+		final FieldDetails returnedField = gottenFieldName == null ? null : allFields.get( gottenFieldName );
 		if ( returnedField != null ) {
 			backingFields.remove( returnedField.resolveAttributeName() );
 			return returnedField;
@@ -191,33 +167,6 @@ public class ModelSourceHelper {
 		throw new ByteBuddyModelException( "Could not locate underlying field : " + getterDetails.getName() );
 	}
 
-	private static class AsmModelNodesRef {
-		private final ClassDetails declaringType;
-		private final ManagedTypeModelContext processingContext;
-
-		private ClassNode classNode = null;
-		private Map<String, MethodNode> getterMethodNodeMap = null;
-
-		private AsmModelNodesRef(ClassDetails declaringType, ManagedTypeModelContext processingContext) {
-			this.declaringType = declaringType;
-			this.processingContext = processingContext;
-		}
-
-		public ClassNode getClassNode() {
-			if ( classNode == null ) {
-				classNode = buildClassNode( declaringType, processingContext );
-			}
-			return classNode;
-		}
-
-		public Map<String, MethodNode> getGetterMethodNodeMap() {
-			if ( getterMethodNodeMap == null ) {
-				getterMethodNodeMap = extractGetterMethodNodeMap( declaringType, getClassNode(), processingContext );
-			}
-			return getterMethodNodeMap;
-		}
-	}
-
 	/**
 	 * Accepts a {@linkplain MemberDetails member} which is the backing for a persistent attribute.
 	 *
@@ -251,12 +200,13 @@ public class ModelSourceHelper {
 				continue;
 			}
 
-			final Access localAccess = fieldDetails.getAnnotation( Access.class );
+			final AnnotationUsage localAccess = fieldDetails.getAnnotationUsage( Access.class );
 			if ( localAccess != null ) {
 				// the field contained `@Access`
-				validateAttributeLevelAccess( fieldDetails, localAccess.value(), declaringType );
+				final AccessType localAccessType = localAccess.getEnum( "value", AccessType.class );
+				validateAttributeLevelAccess( fieldDetails, localAccessType, declaringType );
 
-				if ( localAccess.value() == AccessType.FIELD ) {
+				if ( localAccessType == AccessType.FIELD ) {
 					backingFieldCollector.accept( fieldDetails.resolveAttributeName(), fieldDetails );
 				}
 			}
@@ -275,12 +225,13 @@ public class ModelSourceHelper {
 				continue;
 			}
 
-			final Access localAccess = methodDetails.getAnnotation( Access.class );
+			final AnnotationUsage localAccess = methodDetails.getAnnotationUsage( Access.class );
 			if ( localAccess != null ) {
 				// the method contained `@Access`
-				validateAttributeLevelAccess( methodDetails, localAccess.value(), declaringType );
+				final AccessType localAccessType = localAccess.getEnum( "value", AccessType.class );
+				validateAttributeLevelAccess( methodDetails, localAccessType, declaringType );
 
-				if ( localAccess.value() == AccessType.FIELD ) {
+				if ( localAccessType == AccessType.PROPERTY ) {
 					backingGetterCollector.accept( methodDetails.resolveAttributeName(), methodDetails );
 				}
 			}
@@ -290,63 +241,14 @@ public class ModelSourceHelper {
 		}
 	}
 
-	private static ClassNode buildClassNode(ClassDetails declaringType, ManagedTypeModelContext processingContext) {
-		try {
-			final ClassNode classNode = new ClassNode();
-			final ClassFileLocator.Resolution resolution = processingContext
-					.getModelProcessingContext()
-					.getClassFileLocator()
-					.locate( declaringType.getClassName() );
-			final ClassReader classReader = new ClassReader( resolution.resolve() );
-			classReader.accept( classNode, ClassReader.SKIP_DEBUG );
-			return classNode;
-		}
-		catch (IOException e) {
-			throw new RuntimeException( e );
-		}
-	}
-
-	private static Map<String,MethodNode> extractGetterMethodNodeMap(
-			ClassDetails declaringType,
-			ClassNode classNode,
-			ManagedTypeModelContext processingContext) {
-		final LinkedHashMap<String, MethodNode> getterNodeMap = new LinkedHashMap<>();
-		for ( int i = 0; i < classNode.methods.size(); i++ ) {
-			final MethodNode methodNode = classNode.methods.get( i );
-			if ( CollectionHelper.isNotEmpty( methodNode.parameters ) ) {
-				//can't be a getter - has arguments
-				continue;
-			}
-
-			if ( !methodNode.name.startsWith( "get" ) && !methodNode .name.startsWith( "is" ) ) {
-				// can't be a getter - name does not match get/is
-				continue;
-			}
-
-			getterNodeMap.put( methodNode.name, methodNode );
-		}
-
-		return getterNodeMap;
-	}
-
 	public static AccessType determineClassLevelAccessType(
 			ClassDetails declaringType,
 			MemberDetails identifierMember,
 			AccessType contextAccessType) {
-		final Access annotation = declaringType.getAnnotation( Access.class );
-		if ( annotation != null ) {
-			return annotation.value();
-		}
-
-		if ( declaringType.getSuperType() != null ) {
-			final AccessType accessType = determineClassLevelAccessType(
-					declaringType.getSuperType(),
-					declaringType.getIdentifierMember(),
-					null
-			);
-			if ( accessType != null ) {
-				return accessType;
-			}
+		// memoized per ClassDetails, so shared by all sub-types of a hierarchy
+		final AccessType hierarchyAccessType = declaringType.getHierarchyAccessType();
+		if ( hierarchyAccessType != null ) {
+			return hierarchyAccessType;
 		}
 
 		if ( identifierMember != null ) {
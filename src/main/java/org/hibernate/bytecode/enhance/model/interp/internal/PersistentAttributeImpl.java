@@ -24,6 +24,9 @@ public class PersistentAttributeImpl implements PersistentAttribute {
 	private final MemberDetails backingMember;
 	private final FieldDetails underlyingField;
 
+	// assigned by the descriptor the attribute becomes part of
+	private int ordinal = -1;
+
 	public PersistentAttributeImpl(
 			String name,
 			AccessType accessType,
@@ -40,6 +43,16 @@ public class PersistentAttributeImpl implements PersistentAttribute {
 		return name;
 	}
 
+	@Override
+	public int getOrdinal() {
+		return ordinal;
+	}
+
+	void injectOrdinal(int ordinal) {
+		assert this.ordinal < 0 : "Ordinal already assigned : " + name;
+		this.ordinal = ordinal;
+	}
+
 	/**
 	 * The implicit or {@link #isAccessTypeExplicit() explicit} access-type for this attribute
 	 */
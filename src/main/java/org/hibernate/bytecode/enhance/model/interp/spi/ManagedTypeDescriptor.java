@@ -16,9 +16,31 @@ import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
 public interface ManagedTypeDescriptor {
 	ClassDetails getClassDetails();
 
+	/**
+	 * The attributes declared by this type, keyed by name
+	 */
 	Map<String,PersistentAttribute> getPersistentAttributes();
 
 	default PersistentAttribute getPersistentAttribute(String name) {
 		return getPersistentAttributes().get( name );
 	}
+
+	/**
+	 * The number of attributes of this type, including those inherited from its super-types.
+	 * Valid {@linkplain PersistentAttribute#getOrdinal() ordinals} are {@code 0} through
+	 * {@code getAttributeCount() - 1}, making this the size for any array of per-attribute state.
+	 */
+	int getAttributeCount();
+
+	/**
+	 * The attribute, declared or inherited, with the given {@linkplain PersistentAttribute#getOrdinal() ordinal}
+	 */
+	PersistentAttribute getAttribute(int ordinal);
+
+	/**
+	 * The {@linkplain PersistentAttribute#getOrdinal() ordinal} of the named attribute, declared or
+	 * inherited, or {@code -1} if there is no such attribute.  Where a declared attribute hides a
+	 * same-named inherited one, the declared one is found.
+	 */
+	int findAttributeOrdinal(String name);
 }
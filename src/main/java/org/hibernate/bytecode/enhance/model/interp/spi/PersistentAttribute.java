@@ -23,6 +23,15 @@ public interface PersistentAttribute {
 	 */
 	String getName();
 
+	/**
+	 * The position of this attribute within its {@linkplain ManagedTypeDescriptor managed type}.
+	 * Super-type attributes are numbered first, so an attribute has the same ordinal in the
+	 * descriptor declaring it and in the descriptors of all its sub-types.
+	 *
+	 * @see ManagedTypeDescriptor#getAttribute(int)
+	 */
+	int getOrdinal();
+
 	/**
 	 * The type of access for the attribute
 	 */
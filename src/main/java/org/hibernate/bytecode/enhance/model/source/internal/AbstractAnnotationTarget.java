@@ -1,33 +1,121 @@
 package org.hibernate.bytecode.enhance.model.source.internal;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
 
 import org.hibernate.bytecode.enhance.model.source.spi.AnnotationTarget;
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationUsage;
 
-import net.bytebuddy.description.annotation.AnnotationDescription;
 import net.bytebuddy.description.annotation.AnnotationList;
 
 /**
  * @author Steve Ebersole
  */
 public abstract class AbstractAnnotationTarget implements AnnotationTarget {
-	private final AnnotationList annotationAccess;
+	private volatile AnnotationList annotationAccess;
+	private final Supplier<AnnotationList> annotationAccessSupplier;
+	private volatile AnnotationPresence annotationPresence;
+	private volatile List<CachedAnnotation> annotationUsages;
 
 	public AbstractAnnotationTarget(AnnotationList annotationAccess) {
 		this.annotationAccess = annotationAccess;
+		this.annotationAccessSupplier = null;
+	}
+
+	/**
+	 * Form for targets which locate their annotations on first use
+	 *
+	 * @param annotationAccessSupplier Locates the annotations; called (at most a few times, should threads race) on first use
+	 */
+	protected AbstractAnnotationTarget(Supplier<AnnotationList> annotationAccessSupplier) {
+		this.annotationAccessSupplier = annotationAccessSupplier;
+	}
+
+	AnnotationList getAnnotationAccess() {
+		AnnotationList local = annotationAccess;
+		if ( local == null ) {
+			local = annotationAccessSupplier.get();
+			annotationAccess = local;
+		}
+		return local;
+	}
+
+	/**
+	 * Computed on first check, as the annotations themselves may only be located on first use
+	 */
+	private AnnotationPresence getAnnotationPresence() {
+		AnnotationPresence local = annotationPresence;
+		if ( local == null ) {
+			final AnnotationList annotations = getAnnotationAccess();
+			final AnnotationPresence.Builder builder = AnnotationPresence.builder();
+			for ( int i = 0; i < annotations.size(); i++ ) {
+				builder.add( annotations.get( i ).getAnnotationType().getName() );
+			}
+			local = builder.build();
+			annotationPresence = local;
+		}
+		return local;
 	}
 
 	@Override
 	public <A extends Annotation> boolean hasAnnotation(Class<A> type) {
-		return annotationAccess.isAnnotationPresent( type );
+		return getAnnotationPresence().isPresent( type );
 	}
 
 	@Override
 	public <A extends Annotation> A getAnnotation(Class<A> type) {
-		final AnnotationDescription.Loadable<A> reference = annotationAccess.ofType( type );
-		if ( reference == null ) {
+		if ( !getAnnotationPresence().isPresent( type ) ) {
+			return null;
+		}
+		// created once per target, rather than a new proxy per call
+		final CachedAnnotation usage = findAnnotationUsage( type.getName() );
+		return usage == null ? null : usage.load( type );
+	}
+
+	@Override
+	public AnnotationUsage getAnnotationUsage(Class<? extends Annotation> type) {
+		if ( !getAnnotationPresence().isPresent( type ) ) {
 			return null;
 		}
-		return reference.load();
+		return findAnnotationUsage( type.getName() );
+	}
+
+	@Override
+	public AnnotationUsage getAnnotationUsage(String annotationTypeName) {
+		return findAnnotationUsage( annotationTypeName );
+	}
+
+	private CachedAnnotation findAnnotationUsage(String annotationTypeName) {
+		final List<CachedAnnotation> usages = getAnnotationUsages();
+		for ( int i = 0; i < usages.size(); i++ ) {
+			if ( usages.get( i ).getTypeName().equals( annotationTypeName ) ) {
+				return usages.get( i );
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The annotation values, extracted from the descriptions on first need
+	 */
+	private List<CachedAnnotation> getAnnotationUsages() {
+		List<CachedAnnotation> local = annotationUsages;
+		if ( local == null ) {
+			final AnnotationList annotations = getAnnotationAccess();
+			if ( annotations.isEmpty() ) {
+				local = Collections.emptyList();
+			}
+			else {
+				local = new ArrayList<>( annotations.size() );
+				for ( int i = 0; i < annotations.size(); i++ ) {
+					local.add( CachedAnnotation.from( annotations.get( i ) ) );
+				}
+			}
+			annotationUsages = local;
+		}
+		return local;
 	}
 }
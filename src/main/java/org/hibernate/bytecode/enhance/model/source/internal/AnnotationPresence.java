@@ -0,0 +1,86 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Which annotations are present on an annotation target.  {@linkplain KnownAnnotations Known}
+ * annotation types are recorded in a bitset, making {@link #isPresent} a bit test; any others
+ * are kept by name.
+ *
+ * @author Steve Ebersole
+ */
+final class AnnotationPresence {
+	static final AnnotationPresence NONE = new AnnotationPresence( new long[0], 0, Collections.emptySet() );
+
+	private final long[] knownBits;
+	// the number of known types when this presence was computed; types registered later are in otherNames
+	private final int knownCount;
+	private final Set<String> otherNames;
+
+	private AnnotationPresence(long[] knownBits, int knownCount, Set<String> otherNames) {
+		this.knownBits = knownBits;
+		this.knownCount = knownCount;
+		this.otherNames = otherNames;
+	}
+
+	boolean isPresent(Class<? extends Annotation> annotationType) {
+		final int index = KnownAnnotations.indexOf( annotationType );
+		if ( index >= 0 && index < knownCount ) {
+			final int word = index >>> 6;
+			return word < knownBits.length && ( knownBits[word] & ( 1L << index ) ) != 0;
+		}
+		return !otherNames.isEmpty() && otherNames.contains( annotationType.getName() );
+	}
+
+	static Builder builder() {
+		return new Builder();
+	}
+
+	static class Builder {
+		private final int knownCount = KnownAnnotations.count();
+		private long[] knownBits;
+		private Set<String> otherNames;
+
+		void add(String annotationTypeName) {
+			final int index = KnownAnnotations.indexOf( annotationTypeName );
+			if ( index >= 0 && index < knownCount ) {
+				final int word = index >>> 6;
+				if ( knownBits == null ) {
+					knownBits = new long[word + 1];
+				}
+				else if ( word >= knownBits.length ) {
+					final long[] expanded = new long[word + 1];
+					System.arraycopy( knownBits, 0, expanded, 0, knownBits.length );
+					knownBits = expanded;
+				}
+				knownBits[word] |= 1L << index;
+			}
+			else {
+				if ( otherNames == null ) {
+					otherNames = new HashSet<>();
+				}
+				otherNames.add( annotationTypeName );
+			}
+		}
+
+		AnnotationPresence build() {
+			if ( knownBits == null && otherNames == null ) {
+				return NONE;
+			}
+			return new AnnotationPresence(
+					knownBits == null ? new long[0] : knownBits,
+					knownCount,
+					otherNames == null ? Collections.emptySet() : otherNames
+			);
+		}
+	}
+}
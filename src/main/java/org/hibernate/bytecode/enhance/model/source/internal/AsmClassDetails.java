@@ -0,0 +1,111 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+import net.bytebuddy.dynamic.ClassFileLocator;
+
+/**
+ * ClassDetails built by the {@linkplain AsmClassDetailsBuilder ASM backend} or from a
+ * {@linkplain JandexClassDetailsBuilder Jandex index}.  Both only see the direct super-types, so
+ * the complete set of super-types (for assignability checks) is collected through the registry
+ * on first need.
+ *
+ * @author Steve Ebersole
+ */
+public class AsmClassDetails extends CachedClassDetails {
+	private final ClassDetailsRegistry classDetailsRegistry;
+
+	private volatile Set<String> allSuperTypeNames;
+
+	public AsmClassDetails(
+			String name,
+			boolean isAbstract,
+			String superTypeName,
+			Set<String> directSuperTypeNames,
+			List<CachedAnnotation> annotations,
+			List<FieldDetails> fields,
+			List<MethodDetails> methods,
+			MemberDetails identifierMember,
+			Map<String, String> gottenFieldNames,
+			ClassDetailsRegistry classDetailsRegistry) {
+		super(
+				name,
+				isAbstract,
+				superTypeName,
+				directSuperTypeNames,
+				annotations,
+				fields,
+				methods,
+				identifierMember,
+				gottenFieldNames,
+				classDetailsRegistry
+		);
+		this.classDetailsRegistry = classDetailsRegistry;
+	}
+
+	/**
+	 * Form for sources without method bodies, which analyze the getters from the class file
+	 * on first need
+	 */
+	public AsmClassDetails(
+			String name,
+			boolean isAbstract,
+			String superTypeName,
+			Set<String> directSuperTypeNames,
+			List<CachedAnnotation> annotations,
+			List<FieldDetails> fields,
+			List<MethodDetails> methods,
+			MemberDetails identifierMember,
+			ClassFileLocator classFileLocator,
+			ClassDetailsRegistry classDetailsRegistry) {
+		super(
+				name,
+				isAbstract,
+				superTypeName,
+				directSuperTypeNames,
+				annotations,
+				fields,
+				methods,
+				identifierMember,
+				classFileLocator,
+				classDetailsRegistry
+		);
+		this.classDetailsRegistry = classDetailsRegistry;
+	}
+
+	@Override
+	Set<String> getSuperTypeNames() {
+		Set<String> local = allSuperTypeNames;
+		if ( local == null ) {
+			final Set<String> directSuperTypeNames = super.getSuperTypeNames();
+			local = new HashSet<>( directSuperTypeNames );
+			for ( String directSuperTypeName : directSuperTypeNames ) {
+				local.addAll( ClassDetailsSerializer.collectSuperTypeNames(
+						classDetailsRegistry.resolveClassDetails( directSuperTypeName )
+				) );
+			}
+			allSuperTypeNames = local;
+		}
+		return local;
+	}
+
+	@Override
+	public String toString() {
+		return "ClassDetails(" + getName() + ")";
+	}
+}
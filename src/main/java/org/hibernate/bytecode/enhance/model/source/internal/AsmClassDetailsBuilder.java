@@ -0,0 +1,466 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsBuilder;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Id;
+import net.bytebuddy.dynamic.ClassFileLocator;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * ClassDetailsBuilder building {@link AsmClassDetails} from a single ASM pass over the class file,
+ * capturing declarations, annotations and the getter-to-field resolutions together - so the class
+ * is parsed exactly once, rather than once by ByteBuddy and again for getter analysis.
+ * <p/>
+ * Primitive, array and {@linkplain org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#getOpaqueTypePrefixes() opaque}
+ * types, which either have no class file or are never parsed anyway, are delegated to the
+ * ByteBuddy-based {@link ClassDetailsBuilderImpl}.
+ *
+ * @see org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions.ClassDetailsBackend#ASM
+ *
+ * @author Steve Ebersole
+ */
+public class AsmClassDetailsBuilder implements ClassDetailsBuilder {
+	private static final String ID_NAME = Id.class.getName();
+	private static final String EMBEDDED_ID_NAME = EmbeddedId.class.getName();
+
+	private final ModelProcessingContextImpl modelProcessingContext;
+	private final ClassDetailsBuilderImpl byteBuddyBuilder;
+
+	public AsmClassDetailsBuilder(ModelProcessingContextImpl modelProcessingContext) {
+		this.modelProcessingContext = modelProcessingContext;
+		this.byteBuddyBuilder = new ClassDetailsBuilderImpl( modelProcessingContext );
+	}
+
+	@Override
+	public ClassDetails buildClassDetails(String name, ModelProcessingContext processingContext) {
+		if ( isDelegatedType( name, processingContext.getOptions().getOpaqueTypePrefixes() ) ) {
+			return byteBuddyBuilder.buildClassDetails( name, processingContext );
+		}
+
+		final byte[] classBytes = locateBytes( name );
+		if ( classBytes == null ) {
+			// let ByteBuddy report the problem as it normally would
+			return byteBuddyBuilder.buildClassDetails( name, processingContext );
+		}
+
+		return buildClassDetails( name, classBytes );
+	}
+
+	@Override
+	public void afterRegistration(ClassDetails classDetails, ModelProcessingContext processingContext) {
+		// writing the entry resolves the super-types through the registry, so only once registered
+		final ClassDetailsCache classDetailsCache = modelProcessingContext.getClassDetailsCache();
+		if ( classDetailsCache != null && classDetails instanceof AsmClassDetails ) {
+			classDetailsCache.store( classDetails );
+		}
+	}
+
+	private static boolean isDelegatedType(String name, Collection<String> opaqueTypePrefixes) {
+		if ( name.startsWith( "[" ) || name.indexOf( '.' ) < 0 && isPrimitiveName( name ) ) {
+			return true;
+		}
+		for ( String prefix : opaqueTypePrefixes ) {
+			if ( name.startsWith( prefix ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isPrimitiveName(String name) {
+		switch ( name ) {
+			case "boolean":
+			case "byte":
+			case "char":
+			case "short":
+			case "int":
+			case "long":
+			case "float":
+			case "double":
+			case "void":
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private byte[] locateBytes(String name) {
+		try {
+			final ClassFileLocator.Resolution resolution = modelProcessingContext.getClassFileLocator().locate( name );
+			return resolution.isResolved() ? resolution.resolve() : null;
+		}
+		catch (IOException e) {
+			throw new ByteBuddyModelException( "Unable to locate class file : " + name, e );
+		}
+	}
+
+	private AsmClassDetails buildClassDetails(String name, byte[] classBytes) {
+		ModelSourceLogging.MODEL_SOURCE_LOGGER.debugf( "Creating ClassDetails(%s) [ASM]", name );
+
+		final ClassDetailsCollector collector = new ClassDetailsCollector(
+				modelProcessingContext.getClassDetailsRegistry(),
+				modelProcessingContext.getSymbolTable()
+		);
+		new ClassReader( classBytes ).accept( collector, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES );
+
+		return new AsmClassDetails(
+				modelProcessingContext.getSymbolTable().intern( name ),
+				collector.isAbstract,
+				collector.superTypeName,
+				collector.directSuperTypeNames,
+				collector.annotations,
+				collector.fields,
+				collector.methods,
+				determineIdentifierMember( name, collector.fields, collector.methods ),
+				collector.gottenFieldNames,
+				modelProcessingContext.getClassDetailsRegistry()
+		);
+	}
+
+	static MemberDetails determineIdentifierMember(
+			String name,
+			List<FieldDetails> fields,
+			List<MethodDetails> methods) {
+		MemberDetails identifierMember = null;
+		for ( int i = 0; i < fields.size(); i++ ) {
+			identifierMember = checkForIdentifier( fields.get( i ), identifierMember, name );
+		}
+		for ( int i = 0; i < methods.size(); i++ ) {
+			final MethodDetails method = methods.get( i );
+			if ( method.getMethodKind() == MethodDetails.MethodKind.GETTER ) {
+				identifierMember = checkForIdentifier( method, identifierMember, name );
+			}
+		}
+		return identifierMember;
+	}
+
+	private static MemberDetails checkForIdentifier(MemberDetails member, MemberDetails current, String declaringTypeName) {
+		final List<CachedAnnotation> annotations = ( (CachedAnnotationTarget) member ).getCachedAnnotations();
+		for ( int i = 0; i < annotations.size(); i++ ) {
+			final String annotationName = annotations.get( i ).getTypeName();
+			if ( ID_NAME.equals( annotationName ) || EMBEDDED_ID_NAME.equals( annotationName ) ) {
+				if ( current != null && current.getKind() != member.getKind() ) {
+					throw new ByteBuddyModelException(
+							String.format(
+									Locale.ROOT,
+									"Mismatched placement of @Id/@EmbeddedId (%S) : %s, %s",
+									declaringTypeName,
+									member.getName(),
+									current.getName()
+							)
+					);
+				}
+				return member;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * The type name in the form ByteBuddy (and {@link Class#getName()}) uses
+	 */
+	private static String typeName(Type type) {
+		return type.getSort() == Type.ARRAY
+				? type.getDescriptor().replace( '/', '.' )
+				: type.getClassName();
+	}
+
+	private static String typeName(String descriptor) {
+		return typeName( Type.getType( descriptor ) );
+	}
+
+	private static class ClassDetailsCollector extends ClassVisitor {
+		private final ClassDetailsRegistryImpl classDetailsRegistry;
+		private final SymbolTable symbolTable;
+
+		private boolean isAbstract;
+		private String superTypeName;
+		private final Set<String> directSuperTypeNames = new LinkedHashSet<>();
+		private final List<CachedAnnotation> annotations = new ArrayList<>();
+		private final List<FieldDetails> fields = new ArrayList<>();
+		private final List<MethodDetails> methods = new ArrayList<>();
+		private final Map<String, String> gottenFieldNames = new HashMap<>();
+
+		private ClassDetailsCollector(ClassDetailsRegistryImpl classDetailsRegistry, SymbolTable symbolTable) {
+			super( Opcodes.ASM9 );
+			this.classDetailsRegistry = classDetailsRegistry;
+			this.symbolTable = symbolTable;
+		}
+
+		/**
+		 * The canonical {@linkplain AsmClassDetailsBuilder#typeName(Type) type name}
+		 */
+		private String canonicalTypeName(Type type) {
+			return type.getSort() == Type.OBJECT
+					? symbolTable.className( type.getInternalName() )
+					: symbolTable.intern( typeName( type ) );
+		}
+
+		@Override
+		public void visit(
+				int version,
+				int access,
+				String name,
+				String signature,
+				String superName,
+				String[] interfaces) {
+			isAbstract = ( access & Opcodes.ACC_ABSTRACT ) != 0;
+			if ( superName != null ) {
+				final String superClassName = symbolTable.className( superName );
+				directSuperTypeNames.add( superClassName );
+				if ( !Object.class.getName().equals( superClassName ) ) {
+					superTypeName = superClassName;
+				}
+			}
+			if ( interfaces != null ) {
+				for ( String interfaceName : interfaces ) {
+					directSuperTypeNames.add( symbolTable.className( interfaceName ) );
+				}
+			}
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			if ( !visible ) {
+				// CLASS retention - never seen through reflection, nor by the ByteBuddy backend
+				return null;
+			}
+			return new AnnotationCollector( typeName( descriptor ), annotations::add );
+		}
+
+		@Override
+		public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+			if ( ( access & ( Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_TRANSIENT ) ) != 0 ) {
+				return null;
+			}
+
+			final List<CachedAnnotation> fieldAnnotations = new ArrayList<>();
+			final String fieldName = symbolTable.intern( name );
+			fields.add( new CachedFieldDetails(
+					fieldName,
+					canonicalTypeName( Type.getType( descriptor ) ),
+					symbolTable.intern( FieldDetailsImpl.capitalizeFirst( fieldName ) ),
+					fieldAnnotations,
+					classDetailsRegistry
+			) );
+			return new FieldVisitor( Opcodes.ASM9 ) {
+				@Override
+				public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+					if ( !visible ) {
+						return null;
+					}
+					return new AnnotationCollector( typeName( annotationDescriptor ), fieldAnnotations::add );
+				}
+			};
+		}
+
+		@Override
+		public MethodVisitor visitMethod(
+				int access,
+				String name,
+				String descriptor,
+				String signature,
+				String[] exceptions) {
+			if ( ( access & ( Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE ) ) != 0 ) {
+				return null;
+			}
+
+			// same signature-based categorization as ClassDetailsImpl
+			final Type returnType = Type.getReturnType( descriptor );
+			final Type[] argumentTypes = Type.getArgumentTypes( descriptor );
+			final MethodDetails.MethodKind methodKind;
+			final String methodTypeName;
+			if ( returnType.getSort() == Type.VOID && argumentTypes.length == 1 && name.startsWith( "set" ) ) {
+				methodKind = MethodDetails.MethodKind.SETTER;
+				methodTypeName = canonicalTypeName( argumentTypes[0] );
+			}
+			else if ( argumentTypes.length == 0 && ( name.startsWith( "get" ) || name.startsWith( "is" ) ) ) {
+				methodKind = MethodDetails.MethodKind.GETTER;
+				methodTypeName = canonicalTypeName( returnType );
+			}
+			else if ( "<init>".equals( name ) ) {
+				return null;
+			}
+			else {
+				methodKind = MethodDetails.MethodKind.OTHER;
+				methodTypeName = null;
+			}
+
+			final List<CachedAnnotation> methodAnnotations = new ArrayList<>();
+			final String methodName = symbolTable.intern( name );
+			final String methodNameStem = symbolTable.intern( MethodDetailsImpl.resolveMethodNameStem( methodName, methodKind ) );
+			methods.add( new CachedMethodDetails(
+					methodName,
+					methodKind,
+					methodTypeName,
+					methodNameStem,
+					symbolTable.attributeName( methodNameStem ),
+					methodAnnotations,
+					classDetailsRegistry
+			) );
+			return new MethodCollector( name, methodKind == MethodDetails.MethodKind.GETTER, methodAnnotations, gottenFieldNames );
+		}
+	}
+
+	private static class MethodCollector extends MethodVisitor {
+		private final String methodName;
+		private final boolean isGetter;
+		private final List<CachedAnnotation> annotations;
+		private final Map<String, String> gottenFieldNames;
+
+		private String lastGottenField;
+
+		private MethodCollector(
+				String methodName,
+				boolean isGetter,
+				List<CachedAnnotation> annotations,
+				Map<String, String> gottenFieldNames) {
+			super( Opcodes.ASM9 );
+			this.methodName = methodName;
+			this.isGetter = isGetter;
+			this.annotations = annotations;
+			this.gottenFieldNames = gottenFieldNames;
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			if ( !visible ) {
+				return null;
+			}
+			return new AnnotationCollector( typeName( descriptor ), annotations::add );
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+			if ( isGetter && opcode == Opcodes.GETFIELD ) {
+				lastGottenField = name;
+			}
+		}
+
+		@Override
+		public void visitEnd() {
+			if ( lastGottenField != null ) {
+				gottenFieldNames.put( methodName, lastGottenField );
+			}
+		}
+	}
+
+	/**
+	 * Collects annotation values in the form {@link CachedAnnotation} keeps them
+	 */
+	private abstract static class ValueCollector extends AnnotationVisitor {
+		private ValueCollector() {
+			super( Opcodes.ASM9 );
+		}
+
+		protected abstract void addValue(String name, Object value);
+
+		@Override
+		public void visit(String name, Object value) {
+			if ( value instanceof Type ) {
+				addValue( name, new CachedAnnotation.ClassValue( typeName( (Type) value ) ) );
+			}
+			else if ( value.getClass().isArray() ) {
+				// primitive arrays are reported as a whole
+				final int length = Array.getLength( value );
+				final List<Object> elements = new ArrayList<>( length );
+				for ( int i = 0; i < length; i++ ) {
+					elements.add( Array.get( value, i ) );
+				}
+				addValue( name, elements );
+			}
+			else {
+				addValue( name, value );
+			}
+		}
+
+		@Override
+		public void visitEnum(String name, String descriptor, String value) {
+			addValue( name, new CachedAnnotation.EnumValue( typeName( descriptor ), value ) );
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+			return new AnnotationCollector( typeName( descriptor ), (nested) -> addValue( name, nested ) );
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			return new ArrayCollector( (elements) -> addValue( name, elements ) );
+		}
+	}
+
+	private static class AnnotationCollector extends ValueCollector {
+		private final String typeName;
+		private final Consumer<CachedAnnotation> consumer;
+		private final Map<String, Object> values = new LinkedHashMap<>();
+
+		private AnnotationCollector(String typeName, Consumer<CachedAnnotation> consumer) {
+			this.typeName = typeName;
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void addValue(String name, Object value) {
+			values.put( name, value );
+		}
+
+		@Override
+		public void visitEnd() {
+			consumer.accept( new CachedAnnotation( typeName, values ) );
+		}
+	}
+
+	private static class ArrayCollector extends ValueCollector {
+		private final Consumer<List<Object>> consumer;
+		private final List<Object> elements = new ArrayList<>();
+
+		private ArrayCollector(Consumer<List<Object>> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void addValue(String name, Object value) {
+			elements.add( value );
+		}
+
+		@Override
+		public void visitEnd() {
+			consumer.accept( elements );
+		}
+	}
+}
@@ -0,0 +1,539 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationUsage;
+
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.enumeration.EnumerationDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+
+/**
+ * An annotation usage as extracted up front - the annotation type name plus its attribute
+ * values.  Attributes without a value fall back to the attribute default when loaded.  Values are kept as
+ * strings, boxed primitives, {@link EnumValue}, {@link ClassValue}, nested {@code CachedAnnotation}
+ * and lists of those for arrays.  The annotation instance is only created when
+ * {@linkplain #load requested}; the values can also be read directly as an {@link AnnotationUsage}.
+ *
+ * @author Steve Ebersole
+ */
+public class CachedAnnotation implements AnnotationUsage {
+	private static final byte STRING = 1;
+	private static final byte BOOLEAN = 2;
+	private static final byte BYTE = 3;
+	private static final byte CHAR = 4;
+	private static final byte SHORT = 5;
+	private static final byte INT = 6;
+	private static final byte LONG = 7;
+	private static final byte FLOAT = 8;
+	private static final byte DOUBLE = 9;
+	private static final byte ENUM = 10;
+	private static final byte CLASS = 11;
+	private static final byte ANNOTATION = 12;
+	private static final byte ARRAY = 13;
+
+	private final String typeName;
+	private final Map<String, Object> values;
+
+	private volatile Annotation loaded;
+
+	public CachedAnnotation(String typeName, Map<String, Object> values) {
+		this.typeName = typeName;
+		this.values = values;
+	}
+
+	public String getTypeName() {
+		return typeName;
+	}
+
+	public Map<String, Object> getValues() {
+		return values;
+	}
+
+	@Override
+	public String getAnnotationTypeName() {
+		return typeName;
+	}
+
+	@Override
+	public Object findAttributeValue(String attributeName) {
+		return values.get( attributeName );
+	}
+
+	@Override
+	public String getString(String attributeName) {
+		return (String) values.get( attributeName );
+	}
+
+	@Override
+	public String getEnumConstantName(String attributeName) {
+		final EnumValue value = (EnumValue) values.get( attributeName );
+		return value == null ? null : value.getConstantName();
+	}
+
+	@Override
+	public String getClassName(String attributeName) {
+		final ClassValue value = (ClassValue) values.get( attributeName );
+		return value == null ? null : value.getTypeName();
+	}
+
+	@Override
+	public AnnotationUsage getNestedUsage(String attributeName) {
+		return (CachedAnnotation) values.get( attributeName );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<AnnotationUsage> getNestedUsages(String attributeName) {
+		final Object value = values.get( attributeName );
+		if ( value == null ) {
+			return Collections.emptyList();
+		}
+		if ( value instanceof CachedAnnotation ) {
+			// a single value for an array attribute
+			return Collections.singletonList( (CachedAnnotation) value );
+		}
+		return (List<AnnotationUsage>) value;
+	}
+
+	/**
+	 * Create (once) the annotation instance for the given annotation type
+	 */
+	public <A extends Annotation> A load(Class<A> annotationType) {
+		Annotation local = loaded;
+		if ( local == null ) {
+			local = createProxy( annotationType );
+			loaded = local;
+		}
+		return annotationType.cast( local );
+	}
+
+	private Annotation createProxy(Class<? extends Annotation> annotationType) {
+		final Map<String, Object> attributes = new LinkedHashMap<>();
+		for ( Method attribute : annotationType.getDeclaredMethods() ) {
+			final Object value = values.get( attribute.getName() );
+			attributes.put(
+					attribute.getName(),
+					value == null
+							? attribute.getDefaultValue()
+							: toLoadedValue( value, attribute.getReturnType(), annotationType.getClassLoader() )
+			);
+		}
+
+		return (Annotation) Proxy.newProxyInstance(
+				annotationType.getClassLoader(),
+				new Class<?>[] { annotationType },
+				new AnnotationHandler( annotationType, attributes )
+		);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object toLoadedValue(Object value, Class<?> valueType, ClassLoader classLoader) {
+		if ( value instanceof EnumValue ) {
+			return Enum.valueOf( (Class) valueType, ( (EnumValue) value ).getConstantName() );
+		}
+		if ( value instanceof ClassValue ) {
+			return ( (ClassValue) value ).load( classLoader );
+		}
+		if ( value instanceof CachedAnnotation ) {
+			return ( (CachedAnnotation) value ).load( (Class) valueType );
+		}
+		if ( value instanceof List ) {
+			final List<?> elements = (List<?>) value;
+			final Class<?> componentType = valueType.getComponentType();
+			final Object array = Array.newInstance( componentType, elements.size() );
+			for ( int i = 0; i < elements.size(); i++ ) {
+				Array.set( array, i, toLoadedValue( elements.get( i ), componentType, classLoader ) );
+			}
+			return array;
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "@" + typeName + values;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// creation from ByteBuddy descriptions
+
+	public static CachedAnnotation from(AnnotationDescription annotationDescription) {
+		final TypeDescription annotationType = annotationDescription.getAnnotationType();
+		final Map<String, Object> values = new LinkedHashMap<>();
+		for ( MethodDescription.InDefinedShape attribute : annotationType.getDeclaredMethods() ) {
+			values.put( attribute.getName(), fromResolvedValue( annotationDescription.getValue( attribute ).resolve() ) );
+		}
+		return new CachedAnnotation( annotationType.getName(), values );
+	}
+
+	private static Object fromResolvedValue(Object resolved) {
+		if ( resolved instanceof EnumerationDescription ) {
+			final EnumerationDescription enumeration = (EnumerationDescription) resolved;
+			return new EnumValue( enumeration.getEnumerationType().getName(), enumeration.getValue() );
+		}
+		if ( resolved instanceof TypeDescription ) {
+			return new ClassValue( ( (TypeDescription) resolved ).getName() );
+		}
+		if ( resolved instanceof AnnotationDescription ) {
+			return from( (AnnotationDescription) resolved );
+		}
+		if ( resolved != null && resolved.getClass().isArray() ) {
+			final int length = Array.getLength( resolved );
+			final List<Object> elements = new ArrayList<>( length );
+			for ( int i = 0; i < length; i++ ) {
+				elements.add( fromResolvedValue( Array.get( resolved, i ) ) );
+			}
+			return elements;
+		}
+		return resolved;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// (de)serialization
+
+	public void writeTo(DataOutput output) throws IOException {
+		output.writeUTF( typeName );
+		output.writeInt( values.size() );
+		for ( Map.Entry<String, Object> entry : values.entrySet() ) {
+			output.writeUTF( entry.getKey() );
+			writeValue( entry.getValue(), output );
+		}
+	}
+
+	public static CachedAnnotation readFrom(DataInput input) throws IOException {
+		final String typeName = input.readUTF();
+		final int valueCount = input.readInt();
+		final Map<String, Object> values = new LinkedHashMap<>( valueCount * 2 );
+		for ( int i = 0; i < valueCount; i++ ) {
+			values.put( input.readUTF(), readValue( input ) );
+		}
+		return new CachedAnnotation( typeName, values );
+	}
+
+	private static void writeValue(Object value, DataOutput output) throws IOException {
+		if ( value instanceof String ) {
+			output.writeByte( STRING );
+			output.writeUTF( (String) value );
+		}
+		else if ( value instanceof Boolean ) {
+			output.writeByte( BOOLEAN );
+			output.writeBoolean( (Boolean) value );
+		}
+		else if ( value instanceof Byte ) {
+			output.writeByte( BYTE );
+			output.writeByte( (Byte) value );
+		}
+		else if ( value instanceof Character ) {
+			output.writeByte( CHAR );
+			output.writeChar( (Character) value );
+		}
+		else if ( value instanceof Short ) {
+			output.writeByte( SHORT );
+			output.writeShort( (Short) value );
+		}
+		else if ( value instanceof Integer ) {
+			output.writeByte( INT );
+			output.writeInt( (Integer) value );
+		}
+		else if ( value instanceof Long ) {
+			output.writeByte( LONG );
+			output.writeLong( (Long) value );
+		}
+		else if ( value instanceof Float ) {
+			output.writeByte( FLOAT );
+			output.writeFloat( (Float) value );
+		}
+		else if ( value instanceof Double ) {
+			output.writeByte( DOUBLE );
+			output.writeDouble( (Double) value );
+		}
+		else if ( value instanceof EnumValue ) {
+			output.writeByte( ENUM );
+			output.writeUTF( ( (EnumValue) value ).getTypeName() );
+			output.writeUTF( ( (EnumValue) value ).getConstantName() );
+		}
+		else if ( value instanceof ClassValue ) {
+			output.writeByte( CLASS );
+			output.writeUTF( ( (ClassValue) value ).getTypeName() );
+		}
+		else if ( value instanceof CachedAnnotation ) {
+			output.writeByte( ANNOTATION );
+			( (CachedAnnotation) value ).writeTo( output );
+		}
+		else if ( value instanceof List ) {
+			final List<?> elements = (List<?>) value;
+			output.writeByte( ARRAY );
+			output.writeInt( elements.size() );
+			for ( Object element : elements ) {
+				writeValue( element, output );
+			}
+		}
+		else {
+			throw new ByteBuddyModelException( "Unexpected annotation value type : " + value );
+		}
+	}
+
+	private static Object readValue(DataInput input) throws IOException {
+		final byte kind = input.readByte();
+		switch ( kind ) {
+			case STRING:
+				return input.readUTF();
+			case BOOLEAN:
+				return input.readBoolean();
+			case BYTE:
+				return input.readByte();
+			case CHAR:
+				return input.readChar();
+			case SHORT:
+				return input.readShort();
+			case INT:
+				return input.readInt();
+			case LONG:
+				return input.readLong();
+			case FLOAT:
+				return input.readFloat();
+			case DOUBLE:
+				return input.readDouble();
+			case ENUM:
+				return new EnumValue( input.readUTF(), input.readUTF() );
+			case CLASS:
+				return new ClassValue( input.readUTF() );
+			case ANNOTATION:
+				return readFrom( input );
+			case ARRAY: {
+				final int length = input.readInt();
+				final List<Object> elements = new ArrayList<>( length );
+				for ( int i = 0; i < length; i++ ) {
+					elements.add( readValue( input ) );
+				}
+				return elements;
+			}
+			default:
+				throw new IOException( "Unexpected annotation value kind : " + kind );
+		}
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// value types
+
+	/**
+	 * An enum constant used as annotation value
+	 */
+	public static class EnumValue {
+		private final String typeName;
+		private final String constantName;
+
+		public EnumValue(String typeName, String constantName) {
+			this.typeName = typeName;
+			this.constantName = constantName;
+		}
+
+		public String getTypeName() {
+			return typeName;
+		}
+
+		public String getConstantName() {
+			return constantName;
+		}
+
+		@Override
+		public String toString() {
+			return typeName + "." + constantName;
+		}
+	}
+
+	/**
+	 * A class reference used as annotation value
+	 */
+	public static class ClassValue {
+		private final String typeName;
+
+		public ClassValue(String typeName) {
+			this.typeName = typeName;
+		}
+
+		public String getTypeName() {
+			return typeName;
+		}
+
+		private Class<?> load(ClassLoader classLoader) {
+			switch ( typeName ) {
+				case "boolean": return boolean.class;
+				case "byte": return byte.class;
+				case "char": return char.class;
+				case "short": return short.class;
+				case "int": return int.class;
+				case "long": return long.class;
+				case "float": return float.class;
+				case "double": return double.class;
+				case "void": return void.class;
+			}
+			try {
+				return Class.forName( typeName, false, classLoader );
+			}
+			catch (ClassNotFoundException e) {
+				throw new ByteBuddyModelException( "Unable to load annotation value class : " + typeName, e );
+			}
+		}
+
+		@Override
+		public String toString() {
+			return typeName + ".class";
+		}
+	}
+
+	private static class AnnotationHandler implements InvocationHandler {
+		private final Class<? extends Annotation> annotationType;
+		private final Map<String, Object> attributes;
+
+		private AnnotationHandler(Class<? extends Annotation> annotationType, Map<String, Object> attributes) {
+			this.annotationType = annotationType;
+			this.attributes = attributes;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			final String name = method.getName();
+			if ( method.getParameterCount() == 1 && "equals".equals( name ) ) {
+				return proxy == args[0] || isEqual( args[0] );
+			}
+			if ( method.getParameterCount() != 0 ) {
+				throw new UnsupportedOperationException( method.toString() );
+			}
+			switch ( name ) {
+				case "annotationType":
+					return annotationType;
+				case "hashCode":
+					return annotationHashCode();
+				case "toString":
+					return annotationToString();
+			}
+
+			final Object value = attributes.get( name );
+			if ( value != null && value.getClass().isArray() ) {
+				return cloneArray( value );
+			}
+			return value;
+		}
+
+		private boolean isEqual(Object other) {
+			if ( !annotationType.isInstance( other ) ) {
+				return false;
+			}
+			try {
+				for ( Map.Entry<String, Object> entry : attributes.entrySet() ) {
+					final Object otherValue = annotationType.getDeclaredMethod( entry.getKey() ).invoke( other );
+					if ( !Arrays.deepEquals( new Object[] { entry.getValue() }, new Object[] { otherValue } ) ) {
+						return false;
+					}
+				}
+				return true;
+			}
+			catch (ReflectiveOperationException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * The hash code as specified by {@link Annotation#hashCode()}, matching that of the JDK's
+		 * annotation instances
+		 */
+		private int annotationHashCode() {
+			int hashCode = 0;
+			for ( Map.Entry<String, Object> entry : attributes.entrySet() ) {
+				hashCode += ( 127 * entry.getKey().hashCode() ) ^ valueHashCode( entry.getValue() );
+			}
+			return hashCode;
+		}
+
+		private static int valueHashCode(Object value) {
+			if ( !value.getClass().isArray() ) {
+				return value.hashCode();
+			}
+			if ( value instanceof Object[] ) {
+				return Arrays.hashCode( (Object[]) value );
+			}
+			if ( value instanceof int[] ) {
+				return Arrays.hashCode( (int[]) value );
+			}
+			if ( value instanceof long[] ) {
+				return Arrays.hashCode( (long[]) value );
+			}
+			if ( value instanceof boolean[] ) {
+				return Arrays.hashCode( (boolean[]) value );
+			}
+			if ( value instanceof byte[] ) {
+				return Arrays.hashCode( (byte[]) value );
+			}
+			if ( value instanceof short[] ) {
+				return Arrays.hashCode( (short[]) value );
+			}
+			if ( value instanceof char[] ) {
+				return Arrays.hashCode( (char[]) value );
+			}
+			if ( value instanceof float[] ) {
+				return Arrays.hashCode( (float[]) value );
+			}
+			return Arrays.hashCode( (double[]) value );
+		}
+
+		private String annotationToString() {
+			final StringBuilder buffer = new StringBuilder( "@" ).append( annotationType.getName() ).append( '(' );
+			String separator = "";
+			for ( Map.Entry<String, Object> entry : attributes.entrySet() ) {
+				buffer.append( separator ).append( entry.getKey() ).append( '=' );
+				appendValue( entry.getValue(), buffer );
+				separator = ", ";
+			}
+			return buffer.append( ')' ).toString();
+		}
+
+		private static void appendValue(Object value, StringBuilder buffer) {
+			if ( !value.getClass().isArray() ) {
+				buffer.append( value );
+				return;
+			}
+			buffer.append( '{' );
+			final int length = Array.getLength( value );
+			for ( int i = 0; i < length; i++ ) {
+				if ( i > 0 ) {
+					buffer.append( ", " );
+				}
+				buffer.append( Array.get( value, i ) );
+			}
+			buffer.append( '}' );
+		}
+
+		private static Object cloneArray(Object array) {
+			final int length = Array.getLength( array );
+			final Object copy = Array.newInstance( array.getClass().getComponentType(), length );
+			System.arraycopy( array, 0, copy, 0, length );
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationTarget;
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationUsage;
+
+/**
+ * Base support for annotation targets backed by {@link CachedAnnotation} data rather than ByteBuddy descriptions
+ *
+ * @author Steve Ebersole
+ */
+public abstract class CachedAnnotationTarget implements AnnotationTarget {
+	private final List<CachedAnnotation> annotations;
+	// computed on first check, as builders may still be collecting the annotations at construction
+	private volatile AnnotationPresence annotationPresence;
+
+	protected CachedAnnotationTarget(List<CachedAnnotation> annotations) {
+		this.annotations = annotations;
+	}
+
+	List<CachedAnnotation> getCachedAnnotations() {
+		return annotations;
+	}
+
+	private AnnotationPresence getAnnotationPresence() {
+		AnnotationPresence local = annotationPresence;
+		if ( local == null ) {
+			final AnnotationPresence.Builder builder = AnnotationPresence.builder();
+			for ( int i = 0; i < annotations.size(); i++ ) {
+				builder.add( annotations.get( i ).getTypeName() );
+			}
+			local = builder.build();
+			annotationPresence = local;
+		}
+		return local;
+	}
+
+	private CachedAnnotation findAnnotation(Class<? extends Annotation> type) {
+		return findAnnotation( type.getName() );
+	}
+
+	private CachedAnnotation findAnnotation(String typeName) {
+		for ( int i = 0; i < annotations.size(); i++ ) {
+			final CachedAnnotation annotation = annotations.get( i );
+			if ( annotation.getTypeName().equals( typeName ) ) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public <A extends Annotation> boolean hasAnnotation(Class<A> type) {
+		return getAnnotationPresence().isPresent( type );
+	}
+
+	@Override
+	public <A extends Annotation> A getAnnotation(Class<A> type) {
+		if ( !getAnnotationPresence().isPresent( type ) ) {
+			return null;
+		}
+		final CachedAnnotation annotation = findAnnotation( type );
+		if ( annotation == null ) {
+			return null;
+		}
+		return annotation.load( type );
+	}
+
+	@Override
+	public AnnotationUsage getAnnotationUsage(Class<? extends Annotation> type) {
+		if ( !getAnnotationPresence().isPresent( type ) ) {
+			return null;
+		}
+		return findAnnotation( type );
+	}
+
+	@Override
+	public AnnotationUsage getAnnotationUsage(String annotationTypeName) {
+		return findAnnotation( annotationTypeName );
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+import jakarta.persistence.AccessType;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+
+/**
+ * ClassDetails backed by data extracted up front - read from the {@linkplain ClassDetailsCache ClassDetails cache}
+ * or a {@linkplain org.hibernate.bytecode.enhance.model.interp.internal.ModelImage model image}.
+ * Carries everything the ByteBuddy-based {@link ClassDetailsImpl} would expose, plus the
+ * getter-to-field resolutions previously determined from the class's bytecode.
+ *
+ * @author Steve Ebersole
+ */
+public class CachedClassDetails extends CachedAnnotationTarget implements ClassDetails {
+	private final String name;
+	private final boolean isAbstract;
+	private final String superTypeName;
+	private final Set<String> superTypeNames;
+	private final List<FieldDetails> fields;
+	private final List<MethodDetails> methods;
+	private final MemberDetails identifierMember;
+	private final ClassDetailsRegistry classDetailsRegistry;
+	// used to determine the getter-to-field resolutions when not known up front
+	private final ClassFileLocator classFileLocator;
+
+	private volatile Map<String, String> gottenFieldNames;
+
+	private volatile ClassDetails superType;
+
+	// memoized #getHierarchyAccessType; may legitimately be null, hence the flag
+	private volatile AccessType hierarchyAccessType;
+	private volatile boolean hierarchyAccessTypeResolved;
+
+	public CachedClassDetails(
+			String name,
+			boolean isAbstract,
+			String superTypeName,
+			Set<String> superTypeNames,
+			List<CachedAnnotation> annotations,
+			List<FieldDetails> fields,
+			List<MethodDetails> methods,
+			MemberDetails identifierMember,
+			Map<String, String> gottenFieldNames,
+			ClassDetailsRegistry classDetailsRegistry) {
+		this(
+				name,
+				isAbstract,
+				superTypeName,
+				superTypeNames,
+				annotations,
+				fields,
+				methods,
+				identifierMember,
+				gottenFieldNames,
+				null,
+				classDetailsRegistry
+		);
+	}
+
+	/**
+	 * Form for sources without method bodies, which analyze the getters from the class file
+	 * (located through {@code classFileLocator}) on first need
+	 */
+	public CachedClassDetails(
+			String name,
+			boolean isAbstract,
+			String superTypeName,
+			Set<String> superTypeNames,
+			List<CachedAnnotation> annotations,
+			List<FieldDetails> fields,
+			List<MethodDetails> methods,
+			MemberDetails identifierMember,
+			ClassFileLocator classFileLocator,
+			ClassDetailsRegistry classDetailsRegistry) {
+		this(
+				name,
+				isAbstract,
+				superTypeName,
+				superTypeNames,
+				annotations,
+				fields,
+				methods,
+				identifierMember,
+				null,
+				classFileLocator,
+				classDetailsRegistry
+		);
+	}
+
+	private CachedClassDetails(
+			String name,
+			boolean isAbstract,
+			String superTypeName,
+			Set<String> superTypeNames,
+			List<CachedAnnotation> annotations,
+			List<FieldDetails> fields,
+			List<MethodDetails> methods,
+			MemberDetails identifierMember,
+			Map<String, String> gottenFieldNames,
+			ClassFileLocator classFileLocator,
+			ClassDetailsRegistry classDetailsRegistry) {
+		super( annotations );
+
+		this.name = name;
+		this.isAbstract = isAbstract;
+		this.superTypeName = superTypeName;
+		this.superTypeNames = superTypeNames;
+		this.fields = fields;
+		this.methods = methods;
+		this.identifierMember = identifierMember;
+		this.gottenFieldNames = gottenFieldNames;
+		this.classFileLocator = classFileLocator;
+		this.classDetailsRegistry = classDetailsRegistry;
+	}
+
+	String getSuperTypeName() {
+		return superTypeName;
+	}
+
+	/**
+	 * The names of all super-types (classes and interfaces), used for {@link #isImplementorOf}
+	 */
+	Set<String> getSuperTypeNames() {
+		return superTypeNames;
+	}
+
+	Map<String, String> getGottenFieldNames() {
+		Map<String, String> local = gottenFieldNames;
+		if ( local == null ) {
+			local = GetterFieldAnalyzer.determineGottenFields( this, classFileLocator );
+			gottenFieldNames = local;
+		}
+		return local;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getClassName() {
+		return name;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return isAbstract;
+	}
+
+	@Override
+	public ClassDetails getSuperType() {
+		ClassDetails local = superType;
+		if ( local == null && superTypeName != null ) {
+			// resolution is single-flight, so racing here still leads to the same reference
+			local = classDetailsRegistry.resolveClassDetails( superTypeName );
+			superType = local;
+		}
+		return local;
+	}
+
+	@Override
+	public List<FieldDetails> getFields() {
+		return fields;
+	}
+
+	@Override
+	public List<MethodDetails> getMethods() {
+		return methods;
+	}
+
+	@Override
+	public MemberDetails getIdentifierMember() {
+		return identifierMember;
+	}
+
+	@Override
+	public AccessType getHierarchyAccessType() {
+		if ( !hierarchyAccessTypeResolved ) {
+			hierarchyAccessType = ClassDetails.super.getHierarchyAccessType();
+			hierarchyAccessTypeResolved = true;
+		}
+		return hierarchyAccessType;
+	}
+
+	@Override
+	public String findGottenFieldName(String getterName) {
+		return getGottenFieldNames().get( getterName );
+	}
+
+	@Override
+	public boolean isImplementorOf(Class<?> checkType) {
+		return isImplementorOf( checkType.getName() );
+	}
+
+	@Override
+	public boolean isImplementorOf(TypeDescription checkType) {
+		return isImplementorOf( checkType.asErasure().getName() );
+	}
+
+	private boolean isImplementorOf(String checkTypeName) {
+		return name.equals( checkTypeName ) || getSuperTypeNames().contains( checkTypeName );
+	}
+
+	@Override
+	public String toString() {
+		return "CachedClassDetails(" + name + ")";
+	}
+}
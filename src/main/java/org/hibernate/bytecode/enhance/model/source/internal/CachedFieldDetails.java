@@ -0,0 +1,71 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+
+/**
+ * FieldDetails of a {@link CachedClassDetails}
+ *
+ * @author Steve Ebersole
+ */
+public class CachedFieldDetails extends CachedAnnotationTarget implements FieldDetails {
+	private final String name;
+	private final String typeName;
+	private final String methodNameStem;
+	private final ClassDetailsRegistry classDetailsRegistry;
+
+	private volatile ClassDetails type;
+
+	public CachedFieldDetails(
+			String name,
+			String typeName,
+			String methodNameStem,
+			List<CachedAnnotation> annotations,
+			ClassDetailsRegistry classDetailsRegistry) {
+		super( annotations );
+		this.name = name;
+		this.typeName = typeName;
+		this.methodNameStem = methodNameStem;
+		this.classDetailsRegistry = classDetailsRegistry;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	String getTypeName() {
+		return typeName;
+	}
+
+	@Override
+	public ClassDetails getType() {
+		ClassDetails local = type;
+		if ( local == null ) {
+			// resolution is single-flight, so racing here still leads to the same reference
+			local = classDetailsRegistry.resolveClassDetails( typeName );
+			type = local;
+		}
+		return local;
+	}
+
+	@Override
+	public String resolveAttributeMethodNameStem() {
+		return methodNameStem;
+	}
+
+	@Override
+	public String toString() {
+		return "FieldDetails(" + name + " : " + typeName + ")";
+	}
+}
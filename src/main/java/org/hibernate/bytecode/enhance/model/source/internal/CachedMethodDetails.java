@@ -0,0 +1,118 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+
+import java.beans.Introspector;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+/**
+ * MethodDetails of a {@link CachedClassDetails}
+ *
+ * @author Steve Ebersole
+ */
+public class CachedMethodDetails extends CachedAnnotationTarget implements MethodDetails {
+	private final String name;
+	private final MethodKind methodKind;
+	private final String typeName;
+	private final String methodNameStem;
+	private final String attributeName;
+	private final ClassDetailsRegistry classDetailsRegistry;
+
+	private volatile ClassDetails type;
+
+	public CachedMethodDetails(
+			String name,
+			MethodKind methodKind,
+			String typeName,
+			String methodNameStem,
+			List<CachedAnnotation> annotations,
+			ClassDetailsRegistry classDetailsRegistry) {
+		this(
+				name,
+				methodKind,
+				typeName,
+				methodNameStem,
+				Introspector.decapitalize( methodNameStem ),
+				annotations,
+				classDetailsRegistry
+		);
+	}
+
+	/**
+	 * Form accepting the already determined (typically {@linkplain SymbolTable#attributeName canonical}) attribute name
+	 */
+	public CachedMethodDetails(
+			String name,
+			MethodKind methodKind,
+			String typeName,
+			String methodNameStem,
+			String attributeName,
+			List<CachedAnnotation> annotations,
+			ClassDetailsRegistry classDetailsRegistry) {
+		super( annotations );
+		this.name = name;
+		this.methodKind = methodKind;
+		this.typeName = typeName;
+		this.methodNameStem = methodNameStem;
+		this.attributeName = attributeName;
+		this.classDetailsRegistry = classDetailsRegistry;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public MethodKind getMethodKind() {
+		return methodKind;
+	}
+
+	String getTypeName() {
+		return typeName;
+	}
+
+	@Override
+	public ClassDetails getType() {
+		ClassDetails local = type;
+		if ( local == null && typeName != null ) {
+			// resolution is single-flight, so racing here still leads to the same reference
+			local = classDetailsRegistry.resolveClassDetails( typeName );
+			type = local;
+		}
+		return local;
+	}
+
+	@Override
+	public String resolveAttributeMethodNameStem() {
+		return methodNameStem;
+	}
+
+	@Override
+	public String resolveAttributeName() {
+		return attributeName;
+	}
+
+	@Override
+	public String getSimpleMatchFieldName() {
+		if ( MethodDetailsImpl.isSimpleGetter( name, methodKind ) ) {
+			return attributeName;
+		}
+		// let the default report the problem
+		return MethodDetails.super.getSimpleMatchFieldName();
+	}
+
+	@Override
+	public String toString() {
+		return "MethodDetails(" + name + " : " + ( typeName == null ? "???" : typeName ) + ")";
+	}
+}
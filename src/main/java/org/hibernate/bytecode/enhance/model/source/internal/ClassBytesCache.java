@@ -0,0 +1,172 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of class file bytes, keyed by class name, used by {@link ClassFileLocatorImpl}
+ * so the {@code TypePool} and bytecode analysis share a single read of each class file.
+ * <p/>
+ * The cache is bounded by the total number of bytes held, evicting least-recently-used entries
+ * beyond that.  Entries are additionally softly referenced, so the garbage collector may reclaim
+ * them under memory pressure.  Hit, miss and eviction counts are tracked to help size the bound
+ * for a given classpath.
+ * <p/>
+ * Thread-safe.  Since entries are keyed by name only, a cache should only be shared by locators
+ * over the same class loader.  The cached arrays are handed out as-is and must not be modified.
+ *
+ * @author Steve Ebersole
+ */
+public class ClassBytesCache {
+	public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+	private final long maxBytes;
+	// access-ordered, i.e. iteration starts with the least-recently-used entry
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>( 256, 0.75f, true );
+	private long cachedBytes;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public ClassBytesCache() {
+		this( DEFAULT_MAX_BYTES );
+	}
+
+	/**
+	 * @param maxBytes The maximum total size of the cached class files
+	 */
+	public ClassBytesCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * The cached bytes for the named class, or {@code null}
+	 */
+	public byte[] find(String className) {
+		byte[] bytes = null;
+		synchronized ( entries ) {
+			final Entry entry = entries.get( className );
+			if ( entry != null ) {
+				bytes = entry.reference.get();
+				if ( bytes == null ) {
+					// reclaimed by the garbage collector
+					entries.remove( className );
+					cachedBytes -= entry.size;
+					evictions.increment();
+				}
+			}
+		}
+
+		if ( bytes == null ) {
+			misses.increment();
+		}
+		else {
+			hits.increment();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Cache the bytes for the named class, evicting least-recently-used entries as needed
+	 */
+	public void put(String className, byte[] bytes) {
+		if ( bytes.length > maxBytes ) {
+			return;
+		}
+
+		synchronized ( entries ) {
+			final Entry previous = entries.put( className, new Entry( bytes ) );
+			if ( previous != null ) {
+				cachedBytes -= previous.size;
+			}
+			cachedBytes += bytes.length;
+
+			final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+			while ( cachedBytes > maxBytes && iterator.hasNext() ) {
+				final Entry eldest = iterator.next().getValue();
+				iterator.remove();
+				cachedBytes -= eldest.size;
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Drop the entry for the named class, e.g. because the class changed
+	 */
+	public void evict(String className) {
+		synchronized ( entries ) {
+			final Entry removed = entries.remove( className );
+			if ( removed != null ) {
+				cachedBytes -= removed.size;
+			}
+		}
+	}
+
+	public void clear() {
+		synchronized ( entries ) {
+			entries.clear();
+			cachedBytes = 0;
+		}
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * The total size of the currently cached class files.  Entries reclaimed by the garbage
+	 * collector are only accounted for once looked up again.
+	 */
+	public long getCachedBytes() {
+		synchronized ( entries ) {
+			return cachedBytes;
+		}
+	}
+
+	public int getEntryCount() {
+		synchronized ( entries ) {
+			return entries.size();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ClassBytesCache(hits=" + getHitCount()
+				+ ", misses=" + getMissCount()
+				+ ", evictions=" + getEvictionCount()
+				+ ", bytes=" + getCachedBytes() + "/" + maxBytes + ")";
+	}
+
+	private static class Entry {
+		private final SoftReference<byte[]> reference;
+		private final int size;
+
+		private Entry(byte[] bytes) {
+			this.reference = new SoftReference<>( bytes );
+			this.size = bytes.length;
+		}
+	}
+}
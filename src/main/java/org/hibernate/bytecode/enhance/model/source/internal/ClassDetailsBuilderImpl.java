@@ -6,6 +6,7 @@
  */
 package org.hibernate.bytecode.enhance.model.source.internal;
 
+import java.util.Collection;
 
 import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
@@ -32,6 +33,26 @@ public class ClassDetailsBuilderImpl implements ClassDetailsBuilder {
 	}
 
 	public ClassDetails buildClassDetails(String name, TypeDescription typeDescription, ModelProcessingContext processingContext) {
+		if ( isOpaqueType( name, typeDescription, processingContext.getOptions().getOpaqueTypePrefixes() ) ) {
+			return new OpaqueClassDetails( name, typeDescription, processingContext );
+		}
 		return new ClassDetailsImpl( name, typeDescription, processingContext );
 	}
+
+	private static boolean isOpaqueType(String name, TypeDescription typeDescription, Collection<String> opaqueTypePrefixes) {
+		if ( opaqueTypePrefixes.isEmpty() ) {
+			return false;
+		}
+
+		if ( typeDescription.isPrimitive() || typeDescription.isArray() ) {
+			return true;
+		}
+
+		for ( String prefix : opaqueTypePrefixes ) {
+			if ( name.startsWith( prefix ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
@@ -0,0 +1,235 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+
+import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_LOGGER;
+
+/**
+ * Persistent, incremental cache of {@link ClassDetails}, one entry file per class in the
+ * {@linkplain org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#getCacheDirectory() cache directory}.
+ * <p/>
+ * Each entry is keyed by a hash of the class file plus the hashes of the class files of its
+ * super-types (classes and interfaces; {@code java.*} types are assumed stable and not hashed).
+ * Validating an entry only reads and hashes those class files - a current entry is served as a
+ * {@link CachedClassDetails} without ByteBuddy or ASM parsing.  A missing or stale entry means
+ * the class is built normally and the entry (re)written once its members are resolved.
+ * <p/>
+ * The cache is best-effort : problems reading or writing entries are logged and treated as misses.
+ *
+ * @author Steve Ebersole
+ */
+public class ClassDetailsCache {
+	private static final int MAGIC = 0x48434443;
+	private static final int FORMAT_VERSION = 2;
+	private static final String ENTRY_SUFFIX = ".cdc";
+
+	private final Path directory;
+	private final ModelProcessingContextImpl processingContext;
+
+	public ClassDetailsCache(Path directory, ModelProcessingContextImpl processingContext) {
+		this.directory = directory;
+		this.processingContext = processingContext;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Read the cached details for the named class, if a current entry exists.
+	 *
+	 * @return The cached details, or {@code null} if there is no entry or it is stale
+	 */
+	public ClassDetails load(String name) {
+		if ( !isApplicationClass( name ) ) {
+			// never stored, see #store
+			return null;
+		}
+
+		final Path entryFile = resolveEntryFile( name );
+		if ( !Files.isRegularFile( entryFile ) ) {
+			return null;
+		}
+
+		try ( DataInputStream input = new DataInputStream( new BufferedInputStream( Files.newInputStream( entryFile ) ) ) ) {
+			if ( input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION || !name.equals( input.readUTF() ) ) {
+				return null;
+			}
+
+			if ( !isCurrent( name, readBytes( input ) ) ) {
+				MODEL_SOURCE_LOGGER.debugf( "Stale ClassDetails cache entry (%s)", name );
+				return null;
+			}
+			final int hashedSuperTypeCount = input.readInt();
+			for ( int i = 0; i < hashedSuperTypeCount; i++ ) {
+				final String superTypeName = input.readUTF();
+				if ( !isCurrent( superTypeName, readBytes( input ) ) ) {
+					MODEL_SOURCE_LOGGER.debugf( "Stale ClassDetails cache entry (%s) - super-type %s changed", name, superTypeName );
+					return null;
+				}
+			}
+
+			MODEL_SOURCE_LOGGER.debugf( "Using cached ClassDetails(%s)", name );
+			return ClassDetailsSerializer.readClassDetails(
+					name,
+					input,
+					processingContext.getClassDetailsRegistry(),
+					processingContext.getSymbolTable()
+			);
+		}
+		catch (IOException e) {
+			MODEL_SOURCE_LOGGER.debugf( e, "Unable to read ClassDetails cache entry (%s)", name );
+			return null;
+		}
+	}
+
+	/**
+	 * Write (or replace) the entry for the given details.  Only classes of the application are
+	 * cached - JDK types are never written.
+	 */
+	public void store(ClassDetails classDetails) {
+		if ( classDetails instanceof ClassDetailsImpl ) {
+			final TypeDescription typeDescription = ( (ClassDetailsImpl) classDetails ).getTypeDescription();
+			if ( typeDescription.isPrimitive() || typeDescription.isArray() ) {
+				return;
+			}
+		}
+
+		final String name = classDetails.getName();
+		if ( !isApplicationClass( name ) ) {
+			return;
+		}
+		final byte[] classBytes = locateBytes( name );
+		if ( classBytes == null ) {
+			return;
+		}
+
+		final Map<String, byte[]> superTypeHashes = new LinkedHashMap<>();
+		for ( String superTypeName : ClassDetailsSerializer.collectSuperTypeNames( classDetails ) ) {
+			if ( superTypeName.startsWith( "java." ) ) {
+				continue;
+			}
+			final byte[] superTypeBytes = locateBytes( superTypeName );
+			if ( superTypeBytes == null ) {
+				// the entry could never be validated
+				return;
+			}
+			superTypeHashes.put( superTypeName, hash( superTypeBytes ) );
+		}
+
+		final Path entryFile = resolveEntryFile( name );
+		try {
+			Files.createDirectories( directory );
+			final Path tempFile = Files.createTempFile( directory, name, ".tmp" );
+			try ( DataOutputStream output = new DataOutputStream( new BufferedOutputStream( Files.newOutputStream( tempFile ) ) ) ) {
+				output.writeInt( MAGIC );
+				output.writeInt( FORMAT_VERSION );
+				output.writeUTF( name );
+				writeBytes( hash( classBytes ), output );
+				output.writeInt( superTypeHashes.size() );
+				for ( Map.Entry<String, byte[]> entry : superTypeHashes.entrySet() ) {
+					output.writeUTF( entry.getKey() );
+					writeBytes( entry.getValue(), output );
+				}
+
+				ClassDetailsSerializer.writeClassDetails(
+						classDetails,
+						true,
+						determineGottenFieldNames( classDetails, classBytes ),
+						output
+				);
+			}
+			Files.move( tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (IOException e) {
+			MODEL_SOURCE_LOGGER.debugf( e, "Unable to write ClassDetails cache entry (%s)", name );
+		}
+	}
+
+	private boolean isApplicationClass(String name) {
+		final ClassFileLocator classFileLocator = processingContext.getClassFileLocator();
+		return classFileLocator instanceof ClassFileLocatorImpl
+				&& ( (ClassFileLocatorImpl) classFileLocator ).isApplicationClass( name );
+	}
+
+	private Path resolveEntryFile(String name) {
+		return directory.resolve( name + ENTRY_SUFFIX );
+	}
+
+	private boolean isCurrent(String name, byte[] storedHash) {
+		final byte[] classBytes = locateBytes( name );
+		return classBytes != null && Arrays.equals( hash( classBytes ), storedHash );
+	}
+
+	private byte[] locateBytes(String name) {
+		try {
+			final ClassFileLocator.Resolution resolution = processingContext.getClassFileLocator().locate( name );
+			return resolution.isResolved() ? resolution.resolve() : null;
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static byte[] hash(byte[] bytes) {
+		try {
+			return MessageDigest.getInstance( "SHA-256" ).digest( bytes );
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new ByteBuddyModelException( "SHA-256 not available", e );
+		}
+	}
+
+	private static Map<String, String> determineGottenFieldNames(ClassDetails classDetails, byte[] classBytes) {
+		if ( classDetails instanceof CachedClassDetails ) {
+			return ( (CachedClassDetails) classDetails ).getGottenFieldNames();
+		}
+		if ( classDetails instanceof ClassDetailsImpl ) {
+			// memoized, so later descriptor builds do not analyze the getters again
+			return ( (ClassDetailsImpl) classDetails ).getGottenFieldNames( classBytes );
+		}
+		return GetterFieldAnalyzer.determineGottenFields( classBytes, classDetails );
+	}
+
+	private static void writeBytes(byte[] bytes, DataOutput output) throws IOException {
+		output.writeInt( bytes.length );
+		output.write( bytes );
+	}
+
+	private static byte[] readBytes(DataInput input) throws IOException {
+		final int length = input.readInt();
+		if ( length < 0 || length > 64 ) {
+			throw new IOException( "Unexpected hash length : " + length );
+		}
+		final byte[] bytes = new byte[ length ];
+		input.readFully( bytes );
+		return bytes;
+	}
+}
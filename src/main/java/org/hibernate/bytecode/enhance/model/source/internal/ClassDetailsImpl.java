@@ -6,15 +6,21 @@
  */
 package org.hibernate.bytecode.enhance.model.source.internal;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
+import jakarta.persistence.AccessType;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Id;
 import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.field.FieldList;
 import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.MethodList;
 import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
 
 import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
@@ -23,52 +29,153 @@ import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
 import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
 import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
 
-import static org.hibernate.internal.util.collections.CollectionHelper.arrayList;
-
 /**
  * @author Steve Ebersole
  */
 public class ClassDetailsImpl extends AbstractAnnotationTarget implements ClassDetails {
 	private final TypeDescription typeDescription;
+	private final String name;
+	private final SymbolTable symbolTable;
+	private final ClassDetailsRegistryImpl classDetailsRegistry;
+	private final boolean deferMemberTypeResolution;
+	private final ClassDetailsCache classDetailsCache;
+	private final ClassFileLocator classFileLocator;
+
+	// state built by #resolveMembers
+	private ClassDetails superClassDetails;
+	private List<FieldDetails> fields;
+	private List<MethodDetails> methods;
+	private MemberDetails identifierMember;
 
-	private final ClassDetails superClassDetails;
-	private final List<FieldDetails> fields;
-	private final List<MethodDetails> methods;
+	private volatile boolean membersResolved;
+	// guarded by this
+	private boolean resolvingMembers;
 
-	private MemberDetails identifierMember;
+	// getter-to-field resolutions, determined from the bytecode on first need
+	private volatile Map<String, String> gottenFieldNames;
+
+	// memoized #getHierarchyAccessType; may legitimately be null, hence the flag
+	private volatile AccessType hierarchyAccessType;
+	private volatile boolean hierarchyAccessTypeResolved;
 
 	public ClassDetailsImpl(String name, TypeDescription typeDescription, ModelProcessingContext processingContext) {
-		super( typeDescription.getDeclaredAnnotations() );
+		// NOTE: the annotations are located on first use
+		super( typeDescription::getDeclaredAnnotations );
 
 		ModelSourceLogging.MODEL_SOURCE_LOGGER.debugf( "Creating ClassDetails(%s)", name );
 
 		this.typeDescription = typeDescription;
+		this.symbolTable = ( (ModelProcessingContextImpl) processingContext ).getSymbolTable();
+		this.name = symbolTable.intern( typeDescription.getName() );
+		this.classDetailsRegistry = ( (ModelProcessingContextImpl) processingContext ).getClassDetailsRegistry();
+		this.classDetailsCache = ( (ModelProcessingContextImpl) processingContext ).getClassDetailsCache();
+		this.deferMemberTypeResolution = processingContext.getOptions().isDeferredMemberTypeResolution();
+		this.classFileLocator = processingContext.getClassFileLocator();
+	}
+
+	TypeDescription getTypeDescription() {
+		return typeDescription;
+	}
 
-		final ClassDetailsRegistryImpl classDetailsRegistry = ( (ModelProcessingContextImpl) processingContext ).getClassDetailsRegistry();
-		// NOTE: this registration is important to avoid stack overflow problems
-		classDetailsRegistry.addClassDetails( name, this );
+	@Override
+	public AccessType getHierarchyAccessType() {
+		if ( !hierarchyAccessTypeResolved ) {
+			hierarchyAccessType = ClassDetails.super.getHierarchyAccessType();
+			hierarchyAccessTypeResolved = true;
+		}
+		return hierarchyAccessType;
+	}
 
-		this.superClassDetails = interpretSuperType( typeDescription, classDetailsRegistry );
+	@Override
+	public String findGottenFieldName(String getterName) {
+		return getGottenFieldNames( null ).get( getterName );
+	}
+
+	/**
+	 * The getter-to-field resolutions, analyzing the getters (in a single pass) on first need
+	 *
+	 * @param classBytes The class file, if already at hand; otherwise it is located if needed
+	 */
+	Map<String, String> getGottenFieldNames(byte[] classBytes) {
+		Map<String, String> local = gottenFieldNames;
+		if ( local == null ) {
+			local = classBytes == null
+					? GetterFieldAnalyzer.determineGottenFields( this, classFileLocator )
+					: GetterFieldAnalyzer.determineGottenFields( classBytes, this );
+			gottenFieldNames = local;
+		}
+		return local;
+	}
+
+	/**
+	 * Builds the super-type reference and the member details.
+	 * <p/>
+	 * Called by the registry only after this reference has been published, so self-referencing
+	 * and cyclic type graphs simply find this reference rather than re-entering its build.  With
+	 * {@linkplain org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#isLazyMemberResolution() lazy member resolution}
+	 * the registry skips that call and this happens on first access to the members instead.
+	 * Safe to call from multiple threads - the members are built exactly once and concurrent
+	 * callers wait for that build to finish.  Should the build fail, nothing is kept and the
+	 * next call builds again; reading the members from within their own build is an error.
+	 * <p/>
+	 * When a {@linkplain ClassDetailsCache cache} is in use, the thread which built the members
+	 * also writes the cache entry.
+	 */
+	void resolveMembers() {
+		if ( membersResolved ) {
+			return;
+		}
+
+		synchronized ( this ) {
+			if ( membersResolved ) {
+				return;
+			}
+			if ( resolvingMembers ) {
+				// only the resolving thread itself can get here, as it holds the monitor
+				throw new ByteBuddyModelException( "Members of ClassDetails(" + name + ") accessed while being resolved" );
+			}
+
+			resolvingMembers = true;
+			try {
+				buildMembers();
+				// only once everything is built - a failed build is simply attempted again
+				membersResolved = true;
+			}
+			finally {
+				resolvingMembers = false;
+			}
+		}
+
+		// only the building thread gets here - all others return above
+		classDetailsRegistry.recordDependencies( this );
+		if ( classDetailsCache != null ) {
+			classDetailsCache.store( this );
+		}
+	}
 
-		this.fields = arrayList( typeDescription.getDeclaredFields().size() );
-		for ( FieldDescription.InDefinedShape declaredField : typeDescription.getDeclaredFields() ) {
-			if ( declaredField.isStatic() || declaredField.isSynthetic() || declaredField.isTransient() ) {
+	private void buildMembers() {
+		final ClassDetails superType = interpretSuperType( typeDescription, classDetailsRegistry );
+		MemberDetails identifier = null;
+
+		// sized to just the retained members, rather than to all declared ones
+		final FieldList<FieldDescription.InDefinedShape> declaredFields = typeDescription.getDeclaredFields();
+		final FieldDetails[] fieldDetailsArray = new FieldDetails[ countRetainedFields( declaredFields ) ];
+		int fieldCount = 0;
+		for ( FieldDescription.InDefinedShape declaredField : declaredFields ) {
+			if ( !isRetained( declaredField ) ) {
 				continue;
 			}
 
-			final TypeDescription fieldTypeDescription = declaredField.getType().asErasure();
-			final ClassDetails fieldTypeDetails = classDetailsRegistry.resolveClassDetails(
-					fieldTypeDescription.getName(),
-					fieldTypeDescription
-			);
-			final FieldDetailsImpl fieldDetails = new FieldDetailsImpl( declaredField, fieldTypeDetails );
-			fields.add( fieldDetails );
-			identifierMember = checkForIdentifier( fieldDetails, identifierMember, typeDescription );
+			final FieldDetailsImpl fieldDetails = createFieldDetails( declaredField );
+			fieldDetailsArray[fieldCount++] = fieldDetails;
+			identifier = checkForIdentifier( fieldDetails, identifier, typeDescription );
 		}
 
-		this.methods = new ArrayList<>( typeDescription.getDeclaredMethods().size() );
-		for ( MethodDescription.InDefinedShape declaredMethod : typeDescription.getDeclaredMethods() ) {
-			if ( declaredMethod.isStatic() || declaredMethod.isSynthetic() || declaredMethod.isBridge() ) {
+		final MethodList<MethodDescription.InDefinedShape> declaredMethods = typeDescription.getDeclaredMethods();
+		final MethodDetails[] methodDetailsArray = new MethodDetails[ countRetainedMethods( declaredMethods ) ];
+		int methodCount = 0;
+		for ( MethodDescription.InDefinedShape declaredMethod : declaredMethods ) {
+			if ( !isRetained( declaredMethod ) ) {
 				continue;
 			}
 
@@ -84,38 +191,95 @@ public class ClassDetailsImpl extends AbstractAnnotationTarget implements ClassD
 					&& declaredMethod.getParameters().size() == 1
 					&& methodName.startsWith( "set" ) ) {
 				final TypeDescription methodTypeDescription = declaredMethod.getParameters().get( 0 ).getType().asErasure();
-				final ClassDetails methodTypeDetails = classDetailsRegistry.resolveClassDetails(
-						methodTypeDescription.getName(),
-						methodTypeDescription
-				);
-				methods.add( new MethodDetailsImpl( declaredMethod, methodTypeDetails, MethodDetails.MethodKind.SETTER ) );
+				methodDetailsArray[methodCount++] = createMethodDetails( declaredMethod, methodTypeDescription, MethodDetails.MethodKind.SETTER );
 				continue;
 			}
 
 			// GETTER
 			if ( declaredMethod.getParameters().isEmpty()
 					&& ( methodName.startsWith( "get" ) || methodName.startsWith( "is" ) ) ) {
-				final ClassDetails methodTypeDetails = classDetailsRegistry.resolveClassDetails(
-						returnTypeDescription.getName(),
-						returnTypeDescription
-				);
-				final MethodDetailsImpl methodDetails = new MethodDetailsImpl(
+				final MethodDetailsImpl methodDetails = createMethodDetails(
 						declaredMethod,
-						methodTypeDetails,
+						returnTypeDescription,
 						MethodDetails.MethodKind.GETTER
 				);
-				methods.add( methodDetails );
-				identifierMember = checkForIdentifier( methodDetails, identifierMember, typeDescription );
+				methodDetailsArray[methodCount++] = methodDetails;
+				identifier = checkForIdentifier( methodDetails, identifier, typeDescription );
 				continue;
 			}
 
 			// OTHER
-			if ( declaredMethod.isConstructor() ) {
-				continue;
+			methodDetailsArray[methodCount++] = new MethodDetailsImpl( declaredMethod, MethodDetails.MethodKind.OTHER, symbolTable );
+		}
+
+		// assigned together, so a failure part way leaves nothing half-built behind
+		this.superClassDetails = superType;
+		this.fields = immutableList( fieldDetailsArray );
+		this.methods = immutableList( methodDetailsArray );
+		this.identifierMember = identifier;
+	}
+
+	private static boolean isRetained(FieldDescription.InDefinedShape declaredField) {
+		return !declaredField.isStatic() && !declaredField.isSynthetic() && !declaredField.isTransient();
+	}
+
+	private static int countRetainedFields(FieldList<FieldDescription.InDefinedShape> declaredFields) {
+		int count = 0;
+		for ( FieldDescription.InDefinedShape declaredField : declaredFields ) {
+			if ( isRetained( declaredField ) ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static boolean isRetained(MethodDescription.InDefinedShape declaredMethod) {
+		return !declaredMethod.isStatic()
+				&& !declaredMethod.isSynthetic()
+				&& !declaredMethod.isBridge()
+				&& !declaredMethod.isConstructor();
+	}
+
+	private static int countRetainedMethods(MethodList<MethodDescription.InDefinedShape> declaredMethods) {
+		int count = 0;
+		for ( MethodDescription.InDefinedShape declaredMethod : declaredMethods ) {
+			if ( isRetained( declaredMethod ) ) {
+				count++;
 			}
-			final MethodDetailsImpl methodDetails = new MethodDetailsImpl( declaredMethod, MethodDetails.MethodKind.OTHER );
-			methods.add( methodDetails );
 		}
+		return count;
+	}
+
+	private static <T> List<T> immutableList(T[] array) {
+		return array.length == 0 ? Collections.emptyList() : Collections.unmodifiableList( Arrays.asList( array ) );
+	}
+
+	private FieldDetailsImpl createFieldDetails(FieldDescription.InDefinedShape declaredField) {
+		final TypeDescription fieldTypeDescription = declaredField.getType().asErasure();
+		if ( deferMemberTypeResolution ) {
+			return new FieldDetailsImpl( declaredField, fieldTypeDescription.getName(), classDetailsRegistry, symbolTable );
+		}
+
+		final ClassDetails fieldTypeDetails = classDetailsRegistry.resolveClassDetails(
+				fieldTypeDescription.getName(),
+				fieldTypeDescription
+		);
+		return new FieldDetailsImpl( declaredField, fieldTypeDetails, symbolTable );
+	}
+
+	private MethodDetailsImpl createMethodDetails(
+			MethodDescription.InDefinedShape declaredMethod,
+			TypeDescription methodTypeDescription,
+			MethodDetails.MethodKind methodKind) {
+		if ( deferMemberTypeResolution ) {
+			return new MethodDetailsImpl( declaredMethod, methodTypeDescription.getName(), classDetailsRegistry, methodKind, symbolTable );
+		}
+
+		final ClassDetails methodTypeDetails = classDetailsRegistry.resolveClassDetails(
+				methodTypeDescription.getName(),
+				methodTypeDescription
+		);
+		return new MethodDetailsImpl( declaredMethod, methodTypeDetails, methodKind, symbolTable );
 	}
 
 	private static MemberDetails checkForIdentifier(MemberDetails member, MemberDetails current, TypeDescription declaringType) {
@@ -157,12 +321,12 @@ public class ClassDetailsImpl extends AbstractAnnotationTarget implements ClassD
 
 	@Override
 	public String getName() {
-		return typeDescription.getName();
+		return name;
 	}
 
 	@Override
 	public String getClassName() {
-		return typeDescription.getName();
+		return name;
 	}
 
 	@Override
@@ -172,21 +336,25 @@ public class ClassDetailsImpl extends AbstractAnnotationTarget implements ClassD
 
 	@Override
 	public ClassDetails getSuperType() {
+		resolveMembers();
 		return superClassDetails;
 	}
 
 	@Override
 	public List<FieldDetails> getFields() {
+		resolveMembers();
 		return fields;
 	}
 
 	@Override
 	public List<MethodDetails> getMethods() {
+		resolveMembers();
 		return methods;
 	}
 
 	@Override
 	public MemberDetails getIdentifierMember() {
+		resolveMembers();
 		return identifierMember;
 	}
 
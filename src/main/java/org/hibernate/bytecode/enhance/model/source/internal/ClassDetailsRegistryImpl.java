@@ -6,31 +6,85 @@
  */
 package org.hibernate.bytecode.enhance.model.source.internal;
 
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
 import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsBuilder;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
 import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
 
 import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.pool.TypePool;
 
 /**
+ * Thread-safe ClassDetailsRegistry.
+ * <p/>
+ * Resolution is single-flight - each name is built exactly once and callers racing on the
+ * same name wait for that one in-flight build and share its reference.  Builds run outside of
+ * any map operation, so they are free to resolve other types.  A reference is published before
+ * its {@linkplain ClassDetailsImpl#resolveMembers() members are resolved}, so cyclic type graphs
+ * simply find the published reference; callers reading the members of a reference still
+ * being resolved on another thread wait for that resolution to finish.  Should resolving the
+ * members fail, the reference is unregistered again so that the next resolution starts over.
+ * <p/>
+ * With {@linkplain org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#isLazyMemberResolution() lazy member resolution}
+ * the members are not resolved at all until first accessed.
+ *
  * @author Steve Ebersole
  */
 public class ClassDetailsRegistryImpl implements ClassDetailsRegistry {
-	private final ClassDetailsBuilderImpl classDetailsBuilder;
+	private final ClassDetailsBuilder classDetailsBuilder;
 	private final ModelProcessingContext processingContext;
-	private final Map<String, ClassDetails> registrations = new HashMap<>();
+	private final SymbolTable symbolTable;
+	private final SharedClassDetailsCatalog sharedCatalog;
+	private final ConcurrentHashMap<String, ClassDetails> registrations = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, ClassDetailsBuild> inFlightBuilds = new ConcurrentHashMap<>();
+	// name -> names of the registrations referencing it as super-type or member type
+	private final ConcurrentHashMap<String, Set<String>> dependents = new ConcurrentHashMap<>();
+	// shared by every creation, exclusive for invalidation
+	private final ReentrantReadWriteLock creationLock = new ReentrantReadWriteLock();
+
+	public ClassDetailsRegistryImpl(ClassDetailsBuilder classDetailsBuilder, ModelProcessingContext processingContext) {
+		this( classDetailsBuilder, processingContext, null );
+	}
 
-	public ClassDetailsRegistryImpl(ClassDetailsBuilderImpl classDetailsBuilder, ModelProcessingContext processingContext) {
+	/**
+	 * @param sharedCatalog Catalog consulted before this registry's own registrations; may be {@code null}
+	 */
+	public ClassDetailsRegistryImpl(
+			ClassDetailsBuilder classDetailsBuilder,
+			ModelProcessingContext processingContext,
+			SharedClassDetailsCatalog sharedCatalog) {
 		this.classDetailsBuilder = classDetailsBuilder;
 		this.processingContext = processingContext;
+		this.sharedCatalog = sharedCatalog;
+		this.symbolTable = processingContext instanceof ModelProcessingContextImpl
+				? ( (ModelProcessingContextImpl) processingContext ).getSymbolTable()
+				: new SymbolTable();
 	}
 
 	@Override
 	public ClassDetails findClassDetails(String name) {
+		if ( sharedCatalog != null ) {
+			final ClassDetails shared = sharedCatalog.findClassDetails( name );
+			if ( shared != null ) {
+				return shared;
+			}
+		}
 		return registrations.get( name );
 	}
 
@@ -52,8 +106,7 @@ public class ClassDetailsRegistryImpl implements ClassDetailsRegistry {
 			return existing;
 		}
 
-		// NOTE: ClassDetails references register themselves to avoid stack overflow issues
-		return classDetailsBuilder.buildClassDetails( name, processingContext );
+		return createClassDetails( name, (key) -> classDetailsBuilder.buildClassDetails( key, processingContext ) );
 	}
 
 	public ClassDetails resolveClassDetails(String name, TypeDescription typeDescription) {
@@ -64,9 +117,7 @@ public class ClassDetailsRegistryImpl implements ClassDetailsRegistry {
 			return existing;
 		}
 
-		final ClassDetails created = classDetailsBuilder.buildClassDetails( name, typeDescription, processingContext );
-		registerClassDetails( name, created );
-		return created;
+		return createClassDetails( name, (key) -> buildClassDetails( key, typeDescription ) );
 	}
 
 	/**
@@ -74,7 +125,7 @@ public class ClassDetailsRegistryImpl implements ClassDetailsRegistry {
 	 */
 	public void addClassDetails(String name, ClassDetails classDetails) {
 		ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassDetailsRegistry#addClassDetails(%s, %s) [ClassDetails]", name, classDetails );
-		registerClassDetails( name, classDetails );
+		registrations.put( symbolTable.intern( name ), classDetails );
 	}
 
 	/**
@@ -82,10 +133,244 @@ public class ClassDetailsRegistryImpl implements ClassDetailsRegistry {
 	 */
 	public void addClassDetails(String name, TypeDescription typeDescription) {
 		ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassDetailsRegistry#addClassDetails(%s, %s) [TypeDescription]", name, typeDescription );
-		registerClassDetails( name, classDetailsBuilder.buildClassDetails( name, typeDescription, processingContext ) );
+		final ClassDetails created = buildClassDetails( name, typeDescription );
+		registrations.put( symbolTable.intern( name ), created );
+		if ( !processingContext.getOptions().isLazyMemberResolution() ) {
+			resolveMembers( created );
+		}
+		classDetailsBuilder.afterRegistration( created, processingContext );
+	}
+
+	/**
+	 * Evict the registrations for the changed classes along with everything depending on them -
+	 * sub-types and types with members of those types, transitively.  Evicted classes are simply
+	 * rebuilt when next resolved.
+	 * <p/>
+	 * Intended for refreshing the model after classes were recompiled.  Fails if any ClassDetails
+	 * is being created at the time; creations started during the invalidation wait for it.
+	 * Primed types from the shared catalog are never evicted.
+	 * <p/>
+	 * With an {@link EvictableTypePool} only the descriptions of the evicted classes are dropped
+	 * from the pool; any other pool is cleared completely.
+	 *
+	 * @return The names of all evicted registrations, starting with the changed ones
+	 */
+	public Set<String> invalidate(Collection<String> changedClassNames) {
+		if ( !creationLock.writeLock().tryLock() ) {
+			throw new ByteBuddyModelException( "ClassDetails cannot be invalidated while being created" );
+		}
+
+		try {
+			final Set<String> evicted = new LinkedHashSet<>();
+			final Deque<String> toEvict = new ArrayDeque<>( changedClassNames );
+			while ( !toEvict.isEmpty() ) {
+				final String name = toEvict.poll();
+				if ( !evicted.add( name ) ) {
+					continue;
+				}
+				registrations.remove( name );
+				final Set<String> nameDependents = dependents.remove( name );
+				if ( nameDependents != null ) {
+					toEvict.addAll( nameDependents );
+				}
+			}
+
+			// the pool and locator would otherwise keep handing out the previous descriptions and bytes
+			final TypePool typePool = processingContext.getTypePool();
+			if ( typePool instanceof EvictableTypePool ) {
+				( (EvictableTypePool) typePool ).evict( evicted );
+			}
+			else {
+				typePool.clear();
+			}
+			if ( processingContext.getClassFileLocator() instanceof ClassFileLocatorImpl ) {
+				( (ClassFileLocatorImpl) processingContext.getClassFileLocator() ).evictClassBytes( evicted );
+			}
+
+			ModelSourceLogging.MODEL_SOURCE_LOGGER.debugf( "Invalidated ClassDetails %s", evicted );
+			return evicted;
+		}
+		finally {
+			creationLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Record the types the given (member resolved) details reference, for {@link #invalidate}
+	 */
+	void recordDependencies(ClassDetails classDetails) {
+		final String name = classDetails.getName();
+		addDependent( ClassDetailsSerializer.superTypeNameOf( classDetails ), name );
+		final List<FieldDetails> fields = classDetails.getFields();
+		for ( int i = 0; i < fields.size(); i++ ) {
+			addDependent( ClassDetailsSerializer.typeNameOf( fields.get( i ) ), name );
+		}
+		final List<MethodDetails> methods = classDetails.getMethods();
+		for ( int i = 0; i < methods.size(); i++ ) {
+			addDependent( ClassDetailsSerializer.typeNameOf( methods.get( i ) ), name );
+		}
+	}
+
+	private void addDependent(String dependencyName, String dependentName) {
+		if ( dependencyName == null || dependencyName.equals( dependentName ) ) {
+			return;
+		}
+		dependents.computeIfAbsent( dependencyName, (key) -> ConcurrentHashMap.newKeySet() ).add( dependentName );
+	}
+
+	/**
+	 * An immutable copy of the current registrations, not including the shared catalog
+	 */
+	Map<String, ClassDetails> copyRegistrations() {
+		return Map.copyOf( registrations );
+	}
+
+	private ClassDetails buildClassDetails(String name, TypeDescription typeDescription) {
+		if ( classDetailsBuilder instanceof ClassDetailsBuilderImpl ) {
+			return ( (ClassDetailsBuilderImpl) classDetailsBuilder ).buildClassDetails( name, typeDescription, processingContext );
+		}
+		// other backends work from the class file
+		return classDetailsBuilder.buildClassDetails( name, processingContext );
+	}
+
+	private ClassDetails createClassDetails(String name, Function<String, ClassDetails> creator) {
+		creationLock.readLock().lock();
+		try {
+			return doCreateClassDetails( name, creator );
+		}
+		finally {
+			creationLock.readLock().unlock();
+		}
 	}
 
-	private void registerClassDetails(String name, ClassDetails classDetails) {
-		registrations.put( name, classDetails );
+	private ClassDetails doCreateClassDetails(String name, Function<String, ClassDetails> creator) {
+		// the canonical name, so later lookups using it match on identity
+		final String key = symbolTable.intern( name );
+
+		final ClassDetails cached = loadCached( key );
+		if ( cached != null ) {
+			// validated and read without holding anything - concurrent loads simply race to publish
+			final ClassDetails raced = registrations.putIfAbsent( key, cached );
+			if ( raced != null ) {
+				return raced;
+			}
+			recordDependencies( cached );
+			return cached;
+		}
+
+		final ClassDetailsBuild build = new ClassDetailsBuild( key, creator );
+		final ClassDetailsBuild inFlight = inFlightBuilds.putIfAbsent( key, build );
+		if ( inFlight != null ) {
+			// another thread is building it
+			return inFlight.await();
+		}
+
+		final ClassDetails created;
+		try {
+			// the reference may have been published between the check in the caller and registering the build
+			final ClassDetails published = registrations.get( key );
+			if ( published != null ) {
+				return published;
+			}
+
+			// NOTE: built outside of any map operation, so the creator is free to use the registry
+			build.run();
+			created = build.await();
+			final ClassDetails raced = registrations.putIfAbsent( key, created );
+			if ( raced != null ) {
+				// explicitly added in the meantime
+				return raced;
+			}
+		}
+		finally {
+			// only after publishing, so no caller ever sees neither the build nor its result
+			inFlightBuilds.remove( key, build );
+		}
+
+		try {
+			if ( created instanceof CachedClassDetails ) {
+				// members are already known
+				recordDependencies( created );
+			}
+			else if ( !processingContext.getOptions().isLazyMemberResolution() ) {
+				// resolve the members now that the reference is visible to others, so cyclic
+				// type graphs find it.  callers sharing the reference wait for this resolution
+				// to finish when reading its members
+				resolveMembers( created );
+			}
+			classDetailsBuilder.afterRegistration( created, processingContext );
+		}
+		catch (RuntimeException | Error e) {
+			// do not leave a reference without members behind - the next resolution starts over
+			registrations.remove( key, created );
+			throw e;
+		}
+
+		return created;
+	}
+
+	private ClassDetails loadCached(String name) {
+		if ( processingContext instanceof ModelProcessingContextImpl ) {
+			final ClassDetailsCache classDetailsCache = ( (ModelProcessingContextImpl) processingContext ).getClassDetailsCache();
+			if ( classDetailsCache != null ) {
+				return classDetailsCache.load( name );
+			}
+		}
+		return null;
+	}
+
+	private static void resolveMembers(ClassDetails classDetails) {
+		if ( classDetails instanceof ClassDetailsImpl ) {
+			( (ClassDetailsImpl) classDetails ).resolveMembers();
+		}
+	}
+
+	/**
+	 * The single in-flight build of a (shallow) reference
+	 */
+	private static class ClassDetailsBuild extends FutureTask<ClassDetails> {
+		private final String name;
+		private volatile Thread builder;
+
+		private ClassDetailsBuild(String name, Function<String, ClassDetails> creator) {
+			super( () -> creator.apply( name ) );
+			this.name = name;
+		}
+
+		@Override
+		public void run() {
+			builder = Thread.currentThread();
+			try {
+				super.run();
+			}
+			finally {
+				builder = null;
+			}
+		}
+
+		private ClassDetails await() {
+			if ( builder == Thread.currentThread() ) {
+				// waiting would never end
+				throw new ByteBuddyModelException( "Recursive creation of ClassDetails : " + name );
+			}
+
+			try {
+				return get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ByteBuddyModelException( "Interrupted while waiting for ClassDetails : " + name, e );
+			}
+			catch (ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if ( cause instanceof RuntimeException ) {
+					throw (RuntimeException) cause;
+				}
+				if ( cause instanceof Error ) {
+					throw (Error) cause;
+				}
+				throw new ByteBuddyModelException( "Unable to build ClassDetails : " + name, cause );
+			}
+		}
 	}
 }
@@ -0,0 +1,293 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationTarget;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+import net.bytebuddy.description.annotation.AnnotationList;
+import net.bytebuddy.description.type.TypeDescription;
+
+/**
+ * Binary form of {@link ClassDetails}, shared by the {@linkplain ClassDetailsCache ClassDetails cache}
+ * and the {@linkplain org.hibernate.bytecode.enhance.model.interp.internal.ModelImage model image}.
+ * Details are always read back as {@link CachedClassDetails}.
+ *
+ * @author Steve Ebersole
+ */
+public class ClassDetailsSerializer {
+	private static final String OBJECT_NAME = Object.class.getName();
+
+	/**
+	 * Write the details (not including the name, which the caller keys the entry by).
+	 *
+	 * @param includeMembers Whether to write the fields and methods, or just the type-level details
+	 * @param gottenFieldNames Getter-to-field resolutions to include, keyed by getter name
+	 */
+	public static void writeClassDetails(
+			ClassDetails classDetails,
+			boolean includeMembers,
+			Map<String, String> gottenFieldNames,
+			DataOutput output) throws IOException {
+		output.writeBoolean( classDetails.isAbstract() );
+		writeNullableString( superTypeNameOf( classDetails ), output );
+		final Set<String> superTypeNames = collectSuperTypeNames( classDetails );
+		output.writeInt( superTypeNames.size() );
+		for ( String superTypeName : superTypeNames ) {
+			output.writeUTF( superTypeName );
+		}
+		writeAnnotations( classDetails, output );
+
+		final List<FieldDetails> fields = includeMembers ? classDetails.getFields() : Collections.emptyList();
+		output.writeInt( fields.size() );
+		for ( int i = 0; i < fields.size(); i++ ) {
+			final FieldDetails field = fields.get( i );
+			output.writeUTF( field.getName() );
+			output.writeUTF( typeNameOf( field ) );
+			writeNullableString( field.resolveAttributeMethodNameStem(), output );
+			writeAnnotations( field, output );
+		}
+
+		final List<MethodDetails> methods = includeMembers ? classDetails.getMethods() : Collections.emptyList();
+		output.writeInt( methods.size() );
+		for ( int i = 0; i < methods.size(); i++ ) {
+			final MethodDetails method = methods.get( i );
+			output.writeUTF( method.getName() );
+			output.writeByte( method.getMethodKind().ordinal() );
+			writeNullableString( typeNameOf( method ), output );
+			writeNullableString( method.resolveAttributeMethodNameStem(), output );
+			writeAnnotations( method, output );
+		}
+
+		final MemberDetails identifierMember = includeMembers ? classDetails.getIdentifierMember() : null;
+		final int identifierIndex;
+		if ( identifierMember == null ) {
+			identifierIndex = -1;
+		}
+		else if ( identifierMember.getKind() == AnnotationTarget.Kind.FIELD ) {
+			identifierIndex = fields.indexOf( identifierMember );
+		}
+		else {
+			identifierIndex = fields.size() + methods.indexOf( identifierMember );
+		}
+		output.writeInt( identifierIndex );
+
+		output.writeInt( gottenFieldNames.size() );
+		for ( Map.Entry<String, String> entry : gottenFieldNames.entrySet() ) {
+			output.writeUTF( entry.getKey() );
+			output.writeUTF( entry.getValue() );
+		}
+	}
+
+	/**
+	 * Read details written by {@link #writeClassDetails}
+	 *
+	 * @param classDetailsRegistry Registry used to resolve the super-type and member types
+	 * @param symbolTable Table providing the canonical instances of the names read
+	 */
+	public static CachedClassDetails readClassDetails(
+			String name,
+			DataInput input,
+			ClassDetailsRegistry classDetailsRegistry,
+			SymbolTable symbolTable) throws IOException {
+		final boolean isAbstract = input.readBoolean();
+		final String superTypeName = symbolTable.intern( readNullableString( input ) );
+		final int superTypeCount = input.readInt();
+		final Set<String> superTypeNames = new HashSet<>( superTypeCount * 2 );
+		for ( int i = 0; i < superTypeCount; i++ ) {
+			superTypeNames.add( symbolTable.intern( input.readUTF() ) );
+		}
+		final List<CachedAnnotation> annotations = readAnnotations( input );
+
+		final int fieldCount = input.readInt();
+		final List<FieldDetails> fields = new ArrayList<>( fieldCount );
+		for ( int i = 0; i < fieldCount; i++ ) {
+			fields.add( new CachedFieldDetails(
+					symbolTable.intern( input.readUTF() ),
+					symbolTable.intern( input.readUTF() ),
+					symbolTable.intern( readNullableString( input ) ),
+					readAnnotations( input ),
+					classDetailsRegistry
+			) );
+		}
+
+		final int methodCount = input.readInt();
+		final MethodDetails.MethodKind[] methodKinds = MethodDetails.MethodKind.values();
+		final List<MethodDetails> methods = new ArrayList<>( methodCount );
+		for ( int i = 0; i < methodCount; i++ ) {
+			final String methodName = symbolTable.intern( input.readUTF() );
+			final MethodDetails.MethodKind methodKind = methodKinds[ input.readByte() ];
+			final String methodTypeName = symbolTable.intern( readNullableString( input ) );
+			final String methodNameStem = symbolTable.intern( readNullableString( input ) );
+			methods.add( new CachedMethodDetails(
+					methodName,
+					methodKind,
+					methodTypeName,
+					methodNameStem,
+					symbolTable.attributeName( methodNameStem ),
+					readAnnotations( input ),
+					classDetailsRegistry
+			) );
+		}
+
+		final int identifierIndex = input.readInt();
+		final MemberDetails identifierMember;
+		if ( identifierIndex < 0 ) {
+			identifierMember = null;
+		}
+		else if ( identifierIndex < fieldCount ) {
+			identifierMember = fields.get( identifierIndex );
+		}
+		else {
+			identifierMember = methods.get( identifierIndex - fieldCount );
+		}
+
+		final int gottenFieldCount = input.readInt();
+		final Map<String, String> gottenFieldNames = new HashMap<>( gottenFieldCount * 2 );
+		for ( int i = 0; i < gottenFieldCount; i++ ) {
+			gottenFieldNames.put( input.readUTF(), input.readUTF() );
+		}
+
+		return new CachedClassDetails(
+				symbolTable.intern( name ),
+				isAbstract,
+				superTypeName,
+				superTypeNames,
+				annotations,
+				fields,
+				methods,
+				identifierMember,
+				gottenFieldNames,
+				classDetailsRegistry
+		);
+	}
+
+	/**
+	 * The names of all super-types (classes and interfaces) of the given type, always including {@link Object}
+	 */
+	public static Set<String> collectSuperTypeNames(ClassDetails classDetails) {
+		if ( classDetails instanceof CachedClassDetails ) {
+			return ( (CachedClassDetails) classDetails ).getSuperTypeNames();
+		}
+
+		final Set<String> superTypeNames = new LinkedHashSet<>();
+		collectSuperTypeNames( typeDescriptionOf( classDetails ), superTypeNames );
+		superTypeNames.add( OBJECT_NAME );
+		return superTypeNames;
+	}
+
+	private static void collectSuperTypeNames(TypeDescription typeDescription, Set<String> superTypeNames) {
+		final TypeDescription.Generic superClass = typeDescription.getSuperClass();
+		if ( superClass != null ) {
+			final TypeDescription superClassDescription = superClass.asErasure();
+			if ( superTypeNames.add( superClassDescription.getName() ) ) {
+				collectSuperTypeNames( superClassDescription, superTypeNames );
+			}
+		}
+		for ( TypeDescription interfaceDescription : typeDescription.getInterfaces().asErasures() ) {
+			if ( superTypeNames.add( interfaceDescription.getName() ) ) {
+				collectSuperTypeNames( interfaceDescription, superTypeNames );
+			}
+		}
+	}
+
+	private static TypeDescription typeDescriptionOf(ClassDetails classDetails) {
+		if ( classDetails instanceof ClassDetailsImpl ) {
+			return ( (ClassDetailsImpl) classDetails ).getTypeDescription();
+		}
+		if ( classDetails instanceof OpaqueClassDetails ) {
+			return ( (OpaqueClassDetails) classDetails ).getTypeDescription();
+		}
+		throw new ByteBuddyModelException( "Unsupported ClassDetails implementation : " + classDetails );
+	}
+
+	static String superTypeNameOf(ClassDetails classDetails) {
+		if ( classDetails instanceof CachedClassDetails ) {
+			return ( (CachedClassDetails) classDetails ).getSuperTypeName();
+		}
+
+		final TypeDescription.Generic superClass = typeDescriptionOf( classDetails ).getSuperClass();
+		if ( superClass == null || OBJECT_NAME.equals( superClass.asErasure().getName() ) ) {
+			return null;
+		}
+		return superClass.asErasure().getName();
+	}
+
+	static String typeNameOf(MemberDetails member) {
+		if ( member instanceof FieldDetailsImpl ) {
+			return ( (FieldDetailsImpl) member ).getTypeName();
+		}
+		if ( member instanceof MethodDetailsImpl ) {
+			return ( (MethodDetailsImpl) member ).getTypeName();
+		}
+		if ( member instanceof CachedFieldDetails ) {
+			return ( (CachedFieldDetails) member ).getTypeName();
+		}
+		if ( member instanceof CachedMethodDetails ) {
+			return ( (CachedMethodDetails) member ).getTypeName();
+		}
+		final ClassDetails type = member.getType();
+		return type == null ? null : type.getName();
+	}
+
+	private static void writeAnnotations(AnnotationTarget target, DataOutput output) throws IOException {
+		if ( target instanceof CachedAnnotationTarget ) {
+			final List<CachedAnnotation> annotations = ( (CachedAnnotationTarget) target ).getCachedAnnotations();
+			output.writeInt( annotations.size() );
+			for ( int i = 0; i < annotations.size(); i++ ) {
+				annotations.get( i ).writeTo( output );
+			}
+		}
+		else if ( target instanceof AbstractAnnotationTarget ) {
+			final AnnotationList annotationDescriptions = ( (AbstractAnnotationTarget) target ).getAnnotationAccess();
+			output.writeInt( annotationDescriptions.size() );
+			for ( int i = 0; i < annotationDescriptions.size(); i++ ) {
+				CachedAnnotation.from( annotationDescriptions.get( i ) ).writeTo( output );
+			}
+		}
+		else {
+			throw new ByteBuddyModelException( "Unsupported AnnotationTarget implementation : " + target );
+		}
+	}
+
+	private static List<CachedAnnotation> readAnnotations(DataInput input) throws IOException {
+		final int count = input.readInt();
+		final List<CachedAnnotation> annotations = new ArrayList<>( count );
+		for ( int i = 0; i < count; i++ ) {
+			annotations.add( CachedAnnotation.readFrom( input ) );
+		}
+		return annotations;
+	}
+
+	private static void writeNullableString(String value, DataOutput output) throws IOException {
+		output.writeBoolean( value != null );
+		if ( value != null ) {
+			output.writeUTF( value );
+		}
+	}
+
+	private static String readNullableString(DataInput input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+}
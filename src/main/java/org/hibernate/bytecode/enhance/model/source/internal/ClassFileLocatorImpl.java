@@ -1,6 +1,13 @@
 package org.hibernate.bytecode.enhance.model.source.internal;
 
 import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
 
 import net.bytebuddy.dynamic.ClassFileLocator;
 
@@ -8,10 +15,18 @@ import net.bytebuddy.dynamic.ClassFileLocator;
  * @author Steve Ebersole
  */
 public class ClassFileLocatorImpl extends ClassFileLocator.ForClassLoader {
-	// The name of the class to (possibly be) transformed.
-	private String className;
-	// The explicitly resolved Resolution for the class to (possibly be) transformed.
-	private Resolution resolution;
+	// Explicitly provided class bytes, keyed by class name - e.g. the class(es) to (possibly be)
+	// transformed, classes read ahead of time by an archive scan or a batch of freshly compiled
+	// classes not (yet) visible to any class loader
+	private final ConcurrentHashMap<String, Resolution> explicitResolutions = new ConcurrentHashMap<>();
+	// the class set through #setClassNameAndBytes, if any
+	private String currentClassName;
+	// Bytes read from the class loader, shared by all consumers of this locator; may be null
+	private final ClassBytesCache classBytesCache;
+	// Locator reading directly from the jars and directories of the class path, consulted
+	// before the class loader; may be null
+	private final ClassFileLocator archiveLocator;
+	private final ClassLoader classLoader;
 
 	/**
 	 * Creates a new class file locator for the given class loader.
@@ -19,39 +34,216 @@ public class ClassFileLocatorImpl extends ClassFileLocator.ForClassLoader {
 	 * @param classLoader The class loader to query which must not be the bootstrap class loader, i.e. {@code null}.
 	 */
 	public ClassFileLocatorImpl(ClassLoader classLoader) {
+		this( classLoader, null );
+	}
+
+	/**
+	 * Creates a new class file locator for the given class loader, caching the bytes read from it.
+	 *
+	 * @param classLoader The class loader to query which must not be the bootstrap class loader, i.e. {@code null}.
+	 * @param classBytesCache Cache for the bytes read from the class loader; may be {@code null}
+	 */
+	public ClassFileLocatorImpl(ClassLoader classLoader, ClassBytesCache classBytesCache) {
+		this( classLoader, classBytesCache, null );
+	}
+
+	/**
+	 * Creates a new class file locator for the given class loader, caching the bytes read from it
+	 * and reading class files directly from archives where possible.
+	 *
+	 * @param classLoader The class loader to query which must not be the bootstrap class loader, i.e. {@code null}.
+	 * @param classBytesCache Cache for the bytes read from the class loader; may be {@code null}
+	 * @param archiveLocator Locator consulted before the class loader, e.g. a
+	 * {@link MappedArchiveClassFileLocator}; may be {@code null}
+	 */
+	public ClassFileLocatorImpl(ClassLoader classLoader, ClassBytesCache classBytesCache, ClassFileLocator archiveLocator) {
 		super( classLoader );
+		this.classLoader = classLoader;
+		this.classBytesCache = classBytesCache;
+		this.archiveLocator = archiveLocator;
 	}
 
 	@Override
 	public Resolution locate(String className) throws IOException {
 		if ( ModelSourceLogging.MODEL_SOURCE_TRACE_ENABLED ) {
-			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#locate%s)", className );
+			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#locate(%s)", className );
+		}
+		final Resolution explicit = explicitResolutions.get( className );
+		if ( explicit != null ) {
+			return explicit;
+		}
+
+		if ( classBytesCache == null ) {
+			return locateFromClassPath( className );
+		}
+
+		final byte[] cached = classBytesCache.find( className );
+		if ( cached != null ) {
+			return new Resolution.Explicit( cached );
+		}
+
+		final Resolution located = locateFromClassPath( className );
+		if ( !located.isResolved() ) {
+			return located;
+		}
+		final byte[] bytes = located.resolve();
+		classBytesCache.put( className, bytes );
+		return new Resolution.Explicit( bytes );
+	}
+
+	private Resolution locateFromClassPath(String className) throws IOException {
+		if ( archiveLocator != null ) {
+			final Resolution located = archiveLocator.locate( className );
+			if ( located.isResolved() ) {
+				return located;
+			}
+		}
+		return super.locate( className );
+	}
+
+	@Override
+	public void close() {
+		if ( archiveLocator != null ) {
+			try {
+				archiveLocator.close();
+			}
+			catch (IOException e) {
+				throw new ByteBuddyModelException( "Unable to close archive locator", e );
+			}
+		}
+		super.close();
+	}
+
+	/**
+	 * Whether the named class comes from the application rather than the JDK - its bytes were
+	 * staged with this locator, are found by the archive locator or are read from a directory
+	 * or jar on the class path of the class loader.
+	 */
+	public boolean isApplicationClass(String className) {
+		if ( explicitResolutions.containsKey( className ) ) {
+			return true;
+		}
+		if ( archiveLocator != null ) {
+			try {
+				if ( archiveLocator.locate( className ).isResolved() ) {
+					return true;
+				}
+			}
+			catch (IOException e) {
+				return false;
+			}
+		}
+
+		final String resourceName = className.replace( '.', '/' ) + ".class";
+		if ( ClassLoader.getPlatformClassLoader().getResource( resourceName ) != null ) {
+			// part of the JDK runtime image
+			return false;
+		}
+		final URL resource = classLoader.getResource( resourceName );
+		return resource != null
+				&& ( "file".equals( resource.getProtocol() ) || "jar".equals( resource.getProtocol() ) );
+	}
+
+	/**
+	 * The cache for bytes read from the class loader, or {@code null} if not caching
+	 */
+	public ClassBytesCache getClassBytesCache() {
+		return classBytesCache;
+	}
+
+	/**
+	 * Drop any cached bytes for the named classes, e.g. because they were recompiled
+	 */
+	public void evictClassBytes(Collection<String> classNames) {
+		if ( classBytesCache != null ) {
+			for ( String className : classNames ) {
+				classBytesCache.evict( className );
+			}
+		}
+	}
+
+	/**
+	 * Make the already read bytes for the named class available to this locator
+	 * until {@linkplain #releaseClassBytes released}.
+	 */
+	public void stageClassBytes(String className, byte[] bytes) {
+		if ( ModelSourceLogging.MODEL_SOURCE_TRACE_ENABLED ) {
+			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#stageClassBytes(%s)", className );
 		}
-		if ( className.equals( this.className ) ) {
-			return resolution;
+		assert className != null;
+		assert bytes != null;
+		replaceCurrentClass( className, new Resolution.Explicit( bytes ) );
+	}
+
+	/**
+	 * Make the already read bytes for a batch of classes, keyed by class name, available
+	 * to this locator until {@linkplain #releaseClassBytes(Collection) released}.  Useful
+	 * for classes which are not (yet) available from any class loader, e.g. the output of
+	 * a compilation.
+	 */
+	public void stageClassBytes(Map<String, byte[]> classBytesByName) {
+		if ( ModelSourceLogging.MODEL_SOURCE_TRACE_ENABLED ) {
+			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#stageClassBytes(%s classes)", classBytesByName.size() );
 		}
-		else {
-			return super.locate( className );
+		final HashMap<String, Resolution> resolutions = new HashMap<>( (int) ( classBytesByName.size() / 0.75f ) + 1 );
+		classBytesByName.forEach( (className, bytes) -> {
+			assert className != null;
+			assert bytes != null;
+			resolutions.put( className, new Resolution.Explicit( bytes ) );
+		} );
+		explicitResolutions.putAll( resolutions );
+	}
+
+	/**
+	 * Release bytes previously {@linkplain #stageClassBytes staged} for the named class
+	 */
+	public void releaseClassBytes(String className) {
+		explicitResolutions.remove( className );
+	}
+
+	/**
+	 * Release bytes previously {@linkplain #stageClassBytes staged} for the named classes
+	 */
+	public void releaseClassBytes(Collection<String> classNames) {
+		for ( String className : classNames ) {
+			explicitResolutions.remove( className );
 		}
 	}
 
+	/**
+	 * Whether bytes are currently staged for the named class
+	 */
+	public boolean hasStagedClassBytes(String className) {
+		return explicitResolutions.containsKey( className );
+	}
+
 	void setClassNameAndBytes(String className, byte[] bytes) {
 		if ( ModelSourceLogging.MODEL_SOURCE_TRACE_ENABLED ) {
-			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#setClassNameAndBytes%s)", className );
+			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#setClassNameAndBytes(%s)", className );
 		}
 		assert className != null;
 		assert bytes != null;
-		this.className = className;
-		this.resolution = new Resolution.Explicit( bytes );
+		replaceCurrentClass( className, new Resolution.Explicit( bytes ) );
 	}
 
 	void setClassNameAndBytes(String className, Resolution resolution) {
 		if ( ModelSourceLogging.MODEL_SOURCE_TRACE_ENABLED ) {
-			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#setClassNameAndBytes%s)", className );
+			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "ClassFileLocatorImpl#setClassNameAndBytes(%s)", className );
 		}
 		assert className != null;
 		assert resolution != null;
-		this.className = className;
-		this.resolution = resolution;
+		replaceCurrentClass( className, resolution );
+	}
+
+	/**
+	 * The class being transformed occupies a single slot - setting another one releases the
+	 * previous class, unlike {@linkplain #stageClassBytes staged} classes
+	 */
+	private synchronized void replaceCurrentClass(String className, Resolution resolution) {
+		if ( currentClassName != null && !currentClassName.equals( className ) ) {
+			explicitResolutions.remove( currentClassName );
+		}
+		currentClassName = className;
+		explicitResolutions.put( className, resolution );
 	}
 }
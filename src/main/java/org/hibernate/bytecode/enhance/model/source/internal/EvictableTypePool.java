@@ -0,0 +1,62 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * A lazily resolving {@link TypePool} whose cached type descriptions can be evicted by name,
+ * so that {@linkplain ClassDetailsRegistryImpl#invalidate invalidating} recompiled classes
+ * keeps the descriptions of every other type.
+ *
+ * @author Steve Ebersole
+ */
+public class EvictableTypePool extends TypePool.Default.WithLazyResolution {
+	private final CacheProviderImpl cacheProvider;
+
+	public EvictableTypePool(ClassFileLocator classFileLocator) {
+		this( new CacheProviderImpl(), classFileLocator );
+	}
+
+	private EvictableTypePool(CacheProviderImpl cacheProvider, ClassFileLocator classFileLocator) {
+		super( cacheProvider, classFileLocator, ReaderMode.FAST );
+		this.cacheProvider = cacheProvider;
+	}
+
+	/**
+	 * Drop the cached descriptions of the named types; they are described anew when next requested
+	 */
+	public void evict(Collection<String> names) {
+		for ( String name : names ) {
+			cacheProvider.resolutions.remove( name );
+		}
+	}
+
+	private static class CacheProviderImpl implements TypePool.CacheProvider {
+		private final ConcurrentHashMap<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+		@Override
+		public Resolution find(String name) {
+			return resolutions.get( name );
+		}
+
+		@Override
+		public Resolution register(String name, Resolution resolution) {
+			final Resolution cached = resolutions.putIfAbsent( name, resolution );
+			return cached == null ? resolution : cached;
+		}
+
+		@Override
+		public void clear() {
+			resolutions.clear();
+		}
+	}
+}
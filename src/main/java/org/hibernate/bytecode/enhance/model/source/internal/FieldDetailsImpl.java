@@ -9,67 +9,107 @@ package org.hibernate.bytecode.enhance.model.source.internal;
 import java.util.Locale;
 
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
 import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
 
 import net.bytebuddy.description.field.FieldDescription;
 
+import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_DEBUG_ENABLED;
 import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_LOGGER;
 import static org.hibernate.internal.util.StringHelper.isEmpty;
 
 /**
+ * FieldDetails backed by a ByteBuddy {@link FieldDescription}.
+ * <p/>
+ * Built for every persistent field of every class, so only the state needed by the model
+ * itself is kept - the {@linkplain #resolveAttributeMethodNameStem() name stem} and the
+ * {@linkplain #toString() description} are derived on request.
+ *
  * @author Steve Ebersole
  */
 public class FieldDetailsImpl extends AbstractAnnotationTarget implements FieldDetails {
 	private final FieldDescription fieldDescriptor;
-	private final ClassDetails type;
+	private final String name;
+	private final String typeName;
+	private final ClassDetailsRegistry classDetailsRegistry;
+	private volatile ClassDetails type;
+
+	public FieldDetailsImpl(FieldDescription fieldDescriptor, ClassDetails type, SymbolTable symbolTable) {
+		this( fieldDescriptor, type.getName(), type, null, symbolTable );
+	}
 
-	private final String methodNameStem;
-	private final String toString;
+	/**
+	 * Form deferring resolution of the {@linkplain #getType() type details} until first requested
+	 */
+	public FieldDetailsImpl(
+			FieldDescription fieldDescriptor,
+			String typeName,
+			ClassDetailsRegistry classDetailsRegistry,
+			SymbolTable symbolTable) {
+		this( fieldDescriptor, typeName, null, classDetailsRegistry, symbolTable );
+	}
 
-	public FieldDetailsImpl(FieldDescription fieldDescriptor, ClassDetails type) {
+	private FieldDetailsImpl(
+			FieldDescription fieldDescriptor,
+			String typeName,
+			ClassDetails type,
+			ClassDetailsRegistry classDetailsRegistry,
+			SymbolTable symbolTable) {
 		super( fieldDescriptor.getDeclaredAnnotations() );
 
-		MODEL_SOURCE_LOGGER.debugf( "Creating FieldDetails(%s#%s)", fieldDescriptor.getDeclaringType().getActualName(), fieldDescriptor.getName() );
+		if ( MODEL_SOURCE_DEBUG_ENABLED ) {
+			MODEL_SOURCE_LOGGER.debugf( "Creating FieldDetails(%s#%s)", fieldDescriptor.getDeclaringType().getActualName(), fieldDescriptor.getName() );
+		}
 
 		this.fieldDescriptor = fieldDescriptor;
+		this.name = symbolTable.intern( fieldDescriptor.getName() );
+		this.typeName = symbolTable.intern( typeName );
 		this.type = type;
-
-		this.toString = String.format(
-				Locale.ROOT,
-				"MethodDetails(%s#%s : %s)",
-				fieldDescriptor.getDeclaringType().getActualName(),
-				fieldDescriptor.getName(),
-				type.getName()
-		);
-		this.methodNameStem = capitalizeFirst( fieldDescriptor.getName() );
+		this.classDetailsRegistry = classDetailsRegistry;
 	}
 
-	private String capitalizeFirst(String text) {
+	static String capitalizeFirst(String text) {
 		if ( isEmpty( text ) ) {
 			return null;
 		}
 
-		return Character.isUpperCase( text.charAt( 0 ) )
-				+ text.substring( 1, text.length() - 1 );
+		return Character.toUpperCase( text.charAt( 0 ) ) + text.substring( 1 );
 	}
 
 	@Override
 	public String getName() {
-		return fieldDescriptor.getName();
+		return name;
+	}
+
+	String getTypeName() {
+		return typeName;
 	}
 
 	@Override
 	public ClassDetails getType() {
-		return type;
+		ClassDetails local = type;
+		if ( local == null ) {
+			// resolution is single-flight, so racing here still leads to the same reference
+			local = classDetailsRegistry.resolveClassDetails( typeName );
+			type = local;
+		}
+		return local;
 	}
 
 	@Override
 	public String resolveAttributeMethodNameStem() {
-		return methodNameStem;
+		// only needed when writing the details out, so not worth keeping
+		return capitalizeFirst( name );
 	}
 
 	@Override
 	public String toString() {
-		return toString;
+		return String.format(
+				Locale.ROOT,
+				"FieldDetails(%s#%s : %s)",
+				fieldDescriptor.getDeclaringType().getActualName(),
+				name,
+				typeName
+		);
 	}
 }
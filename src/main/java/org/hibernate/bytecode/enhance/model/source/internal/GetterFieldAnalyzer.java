@@ -0,0 +1,145 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+import net.bytebuddy.dynamic.ClassFileLocator;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Determines the field returned by getter methods from their bytecode.  Only the bodies of the
+ * requested getters are visited; debug information and frames are skipped entirely.
+ *
+ * @author Steve Ebersole
+ */
+public class GetterFieldAnalyzer {
+	/**
+	 * For each getter of the class which cannot be matched to a field by name, the name of the field
+	 * it returns.  The class file is only located, and only read, if there are such getters.
+	 */
+	public static Map<String, String> determineGottenFields(ClassDetails classDetails, ClassFileLocator classFileLocator) {
+		final Set<String> unmatchedGetterNames = collectUnmatchedGetterNames( classDetails );
+		if ( unmatchedGetterNames.isEmpty() ) {
+			return Collections.emptyMap();
+		}
+
+		try {
+			final ClassFileLocator.Resolution resolution = classFileLocator.locate( classDetails.getClassName() );
+			if ( !resolution.isResolved() ) {
+				throw new ByteBuddyModelException( "Unable to locate class file : " + classDetails.getClassName() );
+			}
+			return determineGottenFields( resolution.resolve(), unmatchedGetterNames );
+		}
+		catch (IOException e) {
+			throw new ByteBuddyModelException( "Unable to locate class file : " + classDetails.getClassName(), e );
+		}
+	}
+
+	/**
+	 * For each getter of the class which cannot be matched to a field by name, the name of the field
+	 * it returns
+	 */
+	public static Map<String, String> determineGottenFields(byte[] classBytes, ClassDetails classDetails) {
+		return determineGottenFields( classBytes, collectUnmatchedGetterNames( classDetails ) );
+	}
+
+	private static Set<String> collectUnmatchedGetterNames(ClassDetails classDetails) {
+		final List<FieldDetails> fields = classDetails.getFields();
+		final Set<String> fieldNames = new HashSet<>();
+		for ( int i = 0; i < fields.size(); i++ ) {
+			fieldNames.add( fields.get( i ).getName() );
+		}
+
+		final List<MethodDetails> methods = classDetails.getMethods();
+		Set<String> unmatchedGetterNames = null;
+		for ( int i = 0; i < methods.size(); i++ ) {
+			final MethodDetails method = methods.get( i );
+			if ( method.getMethodKind() == MethodDetails.MethodKind.GETTER
+					&& !fieldNames.contains( method.getSimpleMatchFieldName() ) ) {
+				if ( unmatchedGetterNames == null ) {
+					unmatchedGetterNames = new HashSet<>();
+				}
+				unmatchedGetterNames.add( method.getName() );
+			}
+		}
+		return unmatchedGetterNames == null ? Collections.emptySet() : unmatchedGetterNames;
+	}
+
+	/**
+	 * For each of the named getters, the name of the field read by the last {@code GETFIELD}
+	 * instruction in its body.  Getters without any {@code GETFIELD} are not included.
+	 */
+	public static Map<String, String> determineGottenFields(byte[] classBytes, Set<String> getterNames) {
+		final Map<String, String> gottenFields = new HashMap<>();
+		if ( getterNames.isEmpty() ) {
+			return gottenFields;
+		}
+
+		final ClassReader classReader = new ClassReader( classBytes );
+		classReader.accept(
+				new ClassVisitor( Opcodes.ASM9 ) {
+					@Override
+					public MethodVisitor visitMethod(
+							int access,
+							String name,
+							String descriptor,
+							String signature,
+							String[] exceptions) {
+						if ( !descriptor.startsWith( "()" ) || !getterNames.contains( name ) ) {
+							return null;
+						}
+						return new GottenFieldVisitor( name, gottenFields );
+					}
+				},
+				ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES
+		);
+		return gottenFields;
+	}
+
+	private static class GottenFieldVisitor extends MethodVisitor {
+		private final String getterName;
+		private final Map<String, String> gottenFields;
+
+		private String lastGottenField;
+
+		private GottenFieldVisitor(String getterName, Map<String, String> gottenFields) {
+			super( Opcodes.ASM9 );
+			this.getterName = getterName;
+			this.gottenFields = gottenFields;
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+			if ( opcode == Opcodes.GETFIELD ) {
+				lastGottenField = name;
+			}
+		}
+
+		@Override
+		public void visitEnd() {
+			if ( lastGottenField != null ) {
+				gottenFields.put( getterName, lastGottenField );
+			}
+		}
+	}
+}
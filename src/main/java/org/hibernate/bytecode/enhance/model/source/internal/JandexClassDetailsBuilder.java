@@ -0,0 +1,247 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsBuilder;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.jandex.Type;
+
+/**
+ * ClassDetailsBuilder building {@link AsmClassDetails} from a pre-built Jandex index rather than
+ * from bytecode.  Classes not covered by the index, as well as primitive, array and
+ * {@linkplain org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#getOpaqueTypePrefixes() opaque}
+ * types, are delegated to the configured {@linkplain org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#getClassDetailsBackend() backend}.
+ * <p/>
+ * The index carries no method bodies, so getter-to-field resolutions are not known up front - the
+ * class file is only read if {@linkplain org.hibernate.bytecode.enhance.model.interp.internal.ModelSourceHelper}
+ * needs to analyze a getter whose name does not match its field.
+ *
+ * @see org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#getJandexIndex()
+ *
+ * @author Steve Ebersole
+ */
+public class JandexClassDetailsBuilder implements ClassDetailsBuilder {
+	private static final int SYNTHETIC = 0x1000;
+	private static final int BRIDGE = 0x0040;
+
+	private final IndexView index;
+	private final ModelProcessingContextImpl modelProcessingContext;
+	private final ClassDetailsBuilder fallbackBuilder;
+
+	public JandexClassDetailsBuilder(
+			IndexView index,
+			ModelProcessingContextImpl modelProcessingContext,
+			ClassDetailsBuilder fallbackBuilder) {
+		this.index = index;
+		this.modelProcessingContext = modelProcessingContext;
+		this.fallbackBuilder = fallbackBuilder;
+	}
+
+	@Override
+	public ClassDetails buildClassDetails(String name, ModelProcessingContext processingContext) {
+		if ( isOpaque( name, processingContext.getOptions().getOpaqueTypePrefixes() ) ) {
+			return fallbackBuilder.buildClassDetails( name, processingContext );
+		}
+
+		final ClassInfo classInfo = index.getClassByName( DotName.createSimple( name ) );
+		if ( classInfo == null ) {
+			return fallbackBuilder.buildClassDetails( name, processingContext );
+		}
+
+		return buildClassDetails( name, classInfo );
+	}
+
+	@Override
+	public void afterRegistration(ClassDetails classDetails, ModelProcessingContext processingContext) {
+		final String name = classDetails.getName();
+		if ( isOpaque( name, processingContext.getOptions().getOpaqueTypePrefixes() )
+				|| index.getClassByName( DotName.createSimple( name ) ) == null ) {
+			fallbackBuilder.afterRegistration( classDetails, processingContext );
+		}
+	}
+
+	private static boolean isOpaque(String name, Collection<String> opaqueTypePrefixes) {
+		for ( String prefix : opaqueTypePrefixes ) {
+			if ( name.startsWith( prefix ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private AsmClassDetails buildClassDetails(String name, ClassInfo classInfo) {
+		ModelSourceLogging.MODEL_SOURCE_LOGGER.debugf( "Creating ClassDetails(%s) [Jandex]", name );
+
+		final ClassDetailsRegistryImpl classDetailsRegistry = modelProcessingContext.getClassDetailsRegistry();
+		final SymbolTable symbolTable = modelProcessingContext.getSymbolTable();
+
+		String superTypeName = null;
+		final Set<String> directSuperTypeNames = new LinkedHashSet<>();
+		if ( classInfo.superName() != null ) {
+			final String superClassName = symbolTable.intern( classInfo.superName().toString() );
+			directSuperTypeNames.add( superClassName );
+			if ( !Object.class.getName().equals( superClassName ) ) {
+				superTypeName = superClassName;
+			}
+		}
+		for ( DotName interfaceName : classInfo.interfaceNames() ) {
+			directSuperTypeNames.add( symbolTable.intern( interfaceName.toString() ) );
+		}
+
+		final List<FieldDetails> fields = new ArrayList<>( classInfo.unsortedFields().size() );
+		for ( FieldInfo fieldInfo : classInfo.unsortedFields() ) {
+			if ( ( fieldInfo.flags() & ( Modifier.STATIC | Modifier.TRANSIENT | SYNTHETIC ) ) != 0 ) {
+				continue;
+			}
+			final String fieldName = symbolTable.intern( fieldInfo.name() );
+			fields.add( new CachedFieldDetails(
+					fieldName,
+					typeName( fieldInfo.type(), symbolTable ),
+					symbolTable.intern( FieldDetailsImpl.capitalizeFirst( fieldName ) ),
+					toCachedAnnotations( fieldInfo.declaredAnnotations() ),
+					classDetailsRegistry
+			) );
+		}
+
+		final List<MethodDetails> methods = new ArrayList<>( classInfo.unsortedMethods().size() );
+		for ( MethodInfo methodInfo : classInfo.unsortedMethods() ) {
+			if ( ( methodInfo.flags() & ( Modifier.STATIC | SYNTHETIC | BRIDGE ) ) != 0
+					|| "<init>".equals( methodInfo.name() ) ) {
+				continue;
+			}
+			methods.add( buildMethodDetails( methodInfo, classDetailsRegistry, symbolTable ) );
+		}
+
+		return new AsmClassDetails(
+				symbolTable.intern( name ),
+				Modifier.isAbstract( classInfo.flags() ),
+				superTypeName,
+				directSuperTypeNames,
+				toCachedAnnotations( classInfo.declaredAnnotations() ),
+				fields,
+				methods,
+				AsmClassDetailsBuilder.determineIdentifierMember( name, fields, methods ),
+				// the getter bodies are analyzed from the class file if (and when) needed
+				modelProcessingContext.getClassFileLocator(),
+				classDetailsRegistry
+		);
+	}
+
+	private static MethodDetails buildMethodDetails(
+			MethodInfo methodInfo,
+			ClassDetailsRegistryImpl classDetailsRegistry,
+			SymbolTable symbolTable) {
+		// same signature-based categorization as ClassDetailsImpl
+		final String name = symbolTable.intern( methodInfo.name() );
+		final MethodDetails.MethodKind methodKind;
+		final String methodTypeName;
+		if ( methodInfo.parametersCount() == 1
+				&& "void".equals( methodInfo.returnType().name().toString() )
+				&& name.startsWith( "set" ) ) {
+			methodKind = MethodDetails.MethodKind.SETTER;
+			methodTypeName = typeName( methodInfo.parameterType( 0 ), symbolTable );
+		}
+		else if ( methodInfo.parametersCount() == 0 && ( name.startsWith( "get" ) || name.startsWith( "is" ) ) ) {
+			methodKind = MethodDetails.MethodKind.GETTER;
+			methodTypeName = typeName( methodInfo.returnType(), symbolTable );
+		}
+		else {
+			methodKind = MethodDetails.MethodKind.OTHER;
+			methodTypeName = null;
+		}
+
+		final String methodNameStem = symbolTable.intern( MethodDetailsImpl.resolveMethodNameStem( name, methodKind ) );
+		return new CachedMethodDetails(
+				name,
+				methodKind,
+				methodTypeName,
+				methodNameStem,
+				symbolTable.attributeName( methodNameStem ),
+				toCachedAnnotations( methodInfo.declaredAnnotations() ),
+				classDetailsRegistry
+		);
+	}
+
+	/**
+	 * The (erased) type name in the form ByteBuddy (and {@link Class#getName()}) uses - which is
+	 * also how Jandex names array types
+	 */
+	private static String typeName(Type type, SymbolTable symbolTable) {
+		return symbolTable.intern( type.name().toString() );
+	}
+
+	private static List<CachedAnnotation> toCachedAnnotations(Collection<AnnotationInstance> annotationInstances) {
+		if ( annotationInstances.isEmpty() ) {
+			return Collections.emptyList();
+		}
+		final List<CachedAnnotation> annotations = new ArrayList<>( annotationInstances.size() );
+		for ( AnnotationInstance annotationInstance : annotationInstances ) {
+			annotations.add( toCachedAnnotation( annotationInstance ) );
+		}
+		return annotations;
+	}
+
+	private static CachedAnnotation toCachedAnnotation(AnnotationInstance annotationInstance) {
+		// only explicitly specified values are indexed; CachedAnnotation falls back to the defaults
+		final List<AnnotationValue> annotationValues = annotationInstance.values();
+		final Map<String, Object> values = new LinkedHashMap<>();
+		for ( int i = 0; i < annotationValues.size(); i++ ) {
+			final AnnotationValue annotationValue = annotationValues.get( i );
+			values.put( annotationValue.name(), toCachedValue( annotationValue ) );
+		}
+		return new CachedAnnotation( annotationInstance.name().toString(), values );
+	}
+
+	private static Object toCachedValue(AnnotationValue annotationValue) {
+		switch ( annotationValue.kind() ) {
+			case ENUM: {
+				return new CachedAnnotation.EnumValue( annotationValue.asEnumType().toString(), annotationValue.asEnum() );
+			}
+			case CLASS: {
+				return new CachedAnnotation.ClassValue( annotationValue.asClass().name().toString() );
+			}
+			case NESTED: {
+				return toCachedAnnotation( annotationValue.asNested() );
+			}
+			case ARRAY:
+			case UNKNOWN: {
+				// UNKNOWN is used for empty arrays
+				final AnnotationValue[] elements = (AnnotationValue[]) annotationValue.value();
+				final List<Object> values = new ArrayList<>( elements.length );
+				for ( AnnotationValue element : elements ) {
+					values.add( toCachedValue( element ) );
+				}
+				return values;
+			}
+			default: {
+				// String and the boxed primitives
+				return annotationValue.value();
+			}
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry assigning a stable bit index to each "known" annotation type - all of the
+ * {@code jakarta.persistence} annotations plus any {@linkplain #register registered} ones -
+ * for use by {@link AnnotationPresence}.
+ * <p/>
+ * The registry is append-only.  Registration should happen before models are built; targets
+ * whose presence was computed earlier still answer correctly for the newly registered type,
+ * just through the slower name-based path.
+ *
+ * @author Steve Ebersole
+ */
+public final class KnownAnnotations {
+	/**
+	 * Indexed first (and so in the first word of the bitset) since these are checked for on
+	 * every member
+	 */
+	private static final String[] MOST_CHECKED = {
+			"jakarta.persistence.Id",
+			"jakarta.persistence.EmbeddedId",
+			"jakarta.persistence.Transient",
+			"jakarta.persistence.Access",
+			"jakarta.persistence.Entity",
+			"jakarta.persistence.MappedSuperclass",
+			"jakarta.persistence.Embeddable",
+			"jakarta.persistence.Embedded",
+	};
+
+	private static final String[] JAKARTA_PERSISTENCE = {
+			"jakarta.persistence.AssociationOverride",
+			"jakarta.persistence.AssociationOverrides",
+			"jakarta.persistence.AttributeOverride",
+			"jakarta.persistence.AttributeOverrides",
+			"jakarta.persistence.Basic",
+			"jakarta.persistence.Cacheable",
+			"jakarta.persistence.CollectionTable",
+			"jakarta.persistence.Column",
+			"jakarta.persistence.ColumnResult",
+			"jakarta.persistence.ConstructorResult",
+			"jakarta.persistence.Convert",
+			"jakarta.persistence.Converter",
+			"jakarta.persistence.Converts",
+			"jakarta.persistence.DiscriminatorColumn",
+			"jakarta.persistence.DiscriminatorValue",
+			"jakarta.persistence.ElementCollection",
+			"jakarta.persistence.EntityListeners",
+			"jakarta.persistence.EntityResult",
+			"jakarta.persistence.Enumerated",
+			"jakarta.persistence.ExcludeDefaultListeners",
+			"jakarta.persistence.ExcludeSuperclassListeners",
+			"jakarta.persistence.FieldResult",
+			"jakarta.persistence.ForeignKey",
+			"jakarta.persistence.GeneratedValue",
+			"jakarta.persistence.IdClass",
+			"jakarta.persistence.Index",
+			"jakarta.persistence.Inheritance",
+			"jakarta.persistence.JoinColumn",
+			"jakarta.persistence.JoinColumns",
+			"jakarta.persistence.JoinTable",
+			"jakarta.persistence.Lob",
+			"jakarta.persistence.ManyToMany",
+			"jakarta.persistence.ManyToOne",
+			"jakarta.persistence.MapKey",
+			"jakarta.persistence.MapKeyClass",
+			"jakarta.persistence.MapKeyColumn",
+			"jakarta.persistence.MapKeyEnumerated",
+			"jakarta.persistence.MapKeyJoinColumn",
+			"jakarta.persistence.MapKeyJoinColumns",
+			"jakarta.persistence.MapKeyTemporal",
+			"jakarta.persistence.MapsId",
+			"jakarta.persistence.NamedAttributeNode",
+			"jakarta.persistence.NamedEntityGraph",
+			"jakarta.persistence.NamedEntityGraphs",
+			"jakarta.persistence.NamedNativeQueries",
+			"jakarta.persistence.NamedNativeQuery",
+			"jakarta.persistence.NamedQueries",
+			"jakarta.persistence.NamedQuery",
+			"jakarta.persistence.NamedStoredProcedureQueries",
+			"jakarta.persistence.NamedStoredProcedureQuery",
+			"jakarta.persistence.NamedSubgraph",
+			"jakarta.persistence.OneToMany",
+			"jakarta.persistence.OneToOne",
+			"jakarta.persistence.OrderBy",
+			"jakarta.persistence.OrderColumn",
+			"jakarta.persistence.PersistenceContext",
+			"jakarta.persistence.PersistenceContexts",
+			"jakarta.persistence.PersistenceProperty",
+			"jakarta.persistence.PersistenceUnit",
+			"jakarta.persistence.PersistenceUnits",
+			"jakarta.persistence.PostLoad",
+			"jakarta.persistence.PostPersist",
+			"jakarta.persistence.PostRemove",
+			"jakarta.persistence.PostUpdate",
+			"jakarta.persistence.PrePersist",
+			"jakarta.persistence.PreRemove",
+			"jakarta.persistence.PreUpdate",
+			"jakarta.persistence.PrimaryKeyJoinColumn",
+			"jakarta.persistence.PrimaryKeyJoinColumns",
+			"jakarta.persistence.QueryHint",
+			"jakarta.persistence.SecondaryTable",
+			"jakarta.persistence.SecondaryTables",
+			"jakarta.persistence.SequenceGenerator",
+			"jakarta.persistence.SqlResultSetMapping",
+			"jakarta.persistence.SqlResultSetMappings",
+			"jakarta.persistence.StoredProcedureParameter",
+			"jakarta.persistence.Table",
+			"jakarta.persistence.TableGenerator",
+			"jakarta.persistence.Temporal",
+			"jakarta.persistence.UniqueConstraint",
+			"jakarta.persistence.Version",
+	};
+
+	private static final ConcurrentHashMap<String, Integer> INDEXES = new ConcurrentHashMap<>();
+	private static volatile int count;
+
+	// per-Class memo of the index, sparing the name hashing on the hot path
+	private static final ClassValue<Integer> CLASS_INDEXES = new ClassValue<>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			final Integer index = INDEXES.get( type.getName() );
+			return index == null ? -1 : index;
+		}
+	};
+
+	static {
+		for ( String name : MOST_CHECKED ) {
+			register( name );
+		}
+		for ( String name : JAKARTA_PERSISTENCE ) {
+			register( name );
+		}
+	}
+
+	private KnownAnnotations() {
+	}
+
+	/**
+	 * Register an additional known annotation type, e.g. a custom mapping annotation
+	 * checked for on many members
+	 */
+	public static void register(Class<? extends Annotation> annotationType) {
+		register( annotationType.getName() );
+		CLASS_INDEXES.remove( annotationType );
+	}
+
+	private static synchronized void register(String annotationTypeName) {
+		if ( !INDEXES.containsKey( annotationTypeName ) ) {
+			INDEXES.put( annotationTypeName, count );
+			count = count + 1;
+		}
+	}
+
+	/**
+	 * The number of known annotation types
+	 */
+	static int count() {
+		return count;
+	}
+
+	/**
+	 * The index of the named annotation type, or -1 if not known
+	 */
+	static int indexOf(String annotationTypeName) {
+		final Integer index = INDEXES.get( annotationTypeName );
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * The index of the annotation type, or -1 if not known
+	 */
+	static int indexOf(Class<? extends Annotation> annotationType) {
+		return CLASS_INDEXES.get( annotationType );
+	}
+}
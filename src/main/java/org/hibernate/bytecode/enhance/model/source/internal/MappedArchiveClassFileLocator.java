@@ -0,0 +1,296 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+
+import net.bytebuddy.dynamic.ClassFileLocator;
+
+/**
+ * ClassFileLocator reading class files directly from jars and class directories, rather than
+ * through {@link ClassLoader#getResourceAsStream} which copies the bytes through several
+ * buffers per class.
+ * <p/>
+ * Each jar is memory-mapped and its central directory is indexed by class name once, up front.
+ * Entries are then read (stored) or inflated (deflated) straight from the mapped region.
+ * Roots are consulted in the order given, like a class path.
+ * <p/>
+ * Limitations : Zip64 archives, archives larger than 2GB and multi-release entries are not
+ * supported.
+ *
+ * @author Steve Ebersole
+ */
+public class MappedArchiveClassFileLocator implements ClassFileLocator {
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+	private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+
+	private static final String CLASS_FILE_EXTENSION = ".class";
+
+	private final List<Root> roots;
+
+	private MappedArchiveClassFileLocator(List<Root> roots) {
+		this.roots = roots;
+	}
+
+	/**
+	 * Create a locator over the given jars and class directories
+	 */
+	public static MappedArchiveClassFileLocator of(Path... roots) {
+		return of( List.of( roots ) );
+	}
+
+	/**
+	 * Create a locator over the given jars and class directories
+	 */
+	public static MappedArchiveClassFileLocator of(Collection<Path> roots) {
+		final List<Root> resolvedRoots = new ArrayList<>( roots.size() );
+		for ( Path root : roots ) {
+			if ( Files.isDirectory( root ) ) {
+				resolvedRoots.add( new DirectoryRoot( root ) );
+			}
+			else {
+				resolvedRoots.add( JarRoot.open( root ) );
+			}
+		}
+		return new MappedArchiveClassFileLocator( resolvedRoots );
+	}
+
+	@Override
+	public Resolution locate(String name) throws IOException {
+		if ( ModelSourceLogging.MODEL_SOURCE_TRACE_ENABLED ) {
+			ModelSourceLogging.MODEL_SOURCE_LOGGER.tracef( "MappedArchiveClassFileLocator#locate(%s)", name );
+		}
+
+		for ( int i = 0; i < roots.size(); i++ ) {
+			final byte[] bytes = roots.get( i ).read( name );
+			if ( bytes != null ) {
+				return new Resolution.Explicit( bytes );
+			}
+		}
+		return new Resolution.Illegal( name );
+	}
+
+	/**
+	 * The number of class files indexed from the jars
+	 */
+	public int getIndexedClassCount() {
+		int count = 0;
+		for ( Root root : roots ) {
+			if ( root instanceof JarRoot ) {
+				count += ( (JarRoot) root ).entries.size();
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void close() {
+		// mapped regions are released once no longer referenced
+		roots.clear();
+	}
+
+	private interface Root {
+		byte[] read(String className) throws IOException;
+	}
+
+	private static class DirectoryRoot implements Root {
+		private final Path directory;
+
+		private DirectoryRoot(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		public byte[] read(String className) throws IOException {
+			final Path classFile = directory.resolve( className.replace( '.', '/' ) + CLASS_FILE_EXTENSION );
+			if ( !Files.isRegularFile( classFile ) ) {
+				return null;
+			}
+			return Files.readAllBytes( classFile );
+		}
+	}
+
+	private static class JarRoot implements Root {
+		private final Path jar;
+		private final ByteBuffer mapped;
+		private final Map<String, Entry> entries;
+
+		private JarRoot(Path jar, ByteBuffer mapped, Map<String, Entry> entries) {
+			this.jar = jar;
+			this.mapped = mapped;
+			this.entries = entries;
+		}
+
+		private static JarRoot open(Path jar) {
+			final MappedByteBuffer mapped;
+			try ( FileChannel channel = FileChannel.open( jar, StandardOpenOption.READ ) ) {
+				if ( channel.size() > Integer.MAX_VALUE ) {
+					throw new ByteBuddyModelException( "Archive is too large to be memory-mapped : " + jar );
+				}
+				mapped = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+			}
+			catch (IOException e) {
+				throw new ByteBuddyModelException( "Unable to map archive : " + jar, e );
+			}
+
+			final ByteBuffer buffer = mapped.order( ByteOrder.LITTLE_ENDIAN );
+			return new JarRoot( jar, buffer, indexCentralDirectory( jar, buffer ) );
+		}
+
+		private static Map<String, Entry> indexCentralDirectory(Path jar, ByteBuffer buffer) {
+			final int endOfCentralDirectory = findEndOfCentralDirectory( jar, buffer );
+			final int entryCount = buffer.getShort( endOfCentralDirectory + 10 ) & 0xFFFF;
+			final long centralDirectoryOffset = buffer.getInt( endOfCentralDirectory + 16 ) & 0xFFFFFFFFL;
+			if ( entryCount == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFFL ) {
+				throw new ByteBuddyModelException( "Zip64 archives are not supported : " + jar );
+			}
+
+			final Map<String, Entry> entries = new HashMap<>( (int) ( entryCount / 0.75f ) + 1 );
+			int position = (int) centralDirectoryOffset;
+			for ( int i = 0; i < entryCount; i++ ) {
+				if ( buffer.getInt( position ) != CENTRAL_DIRECTORY_SIGNATURE ) {
+					throw new ByteBuddyModelException( "Malformed central directory in archive : " + jar );
+				}
+
+				final int method = buffer.getShort( position + 10 ) & 0xFFFF;
+				final long compressedSize = buffer.getInt( position + 20 ) & 0xFFFFFFFFL;
+				final long size = buffer.getInt( position + 24 ) & 0xFFFFFFFFL;
+				final int nameLength = buffer.getShort( position + 28 ) & 0xFFFF;
+				final int extraLength = buffer.getShort( position + 30 ) & 0xFFFF;
+				final int commentLength = buffer.getShort( position + 32 ) & 0xFFFF;
+				final long localHeaderOffset = buffer.getInt( position + 42 ) & 0xFFFFFFFFL;
+
+				final String entryName = readName( buffer, position + 46, nameLength );
+				if ( entryName.endsWith( CLASS_FILE_EXTENSION ) && !entryName.startsWith( "META-INF/" ) ) {
+					final String className = entryName
+							.substring( 0, entryName.length() - CLASS_FILE_EXTENSION.length() )
+							.replace( '/', '.' );
+					entries.put( className, new Entry( method, (int) compressedSize, (int) size, (int) localHeaderOffset ) );
+				}
+
+				position += 46 + nameLength + extraLength + commentLength;
+			}
+			return entries;
+		}
+
+		private static int findEndOfCentralDirectory(Path jar, ByteBuffer buffer) {
+			final int lowest = Math.max( 0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE );
+			for ( int position = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= lowest; position-- ) {
+				if ( buffer.getInt( position ) == END_OF_CENTRAL_DIRECTORY_SIGNATURE ) {
+					return position;
+				}
+			}
+			throw new ByteBuddyModelException( "Not a zip archive : " + jar );
+		}
+
+		private static String readName(ByteBuffer buffer, int position, int length) {
+			final byte[] nameBytes = new byte[length];
+			buffer.get( position, nameBytes );
+			return new String( nameBytes, StandardCharsets.UTF_8 );
+		}
+
+		@Override
+		public byte[] read(String className) {
+			final Entry entry = entries.get( className );
+			if ( entry == null ) {
+				return null;
+			}
+
+			if ( mapped.getInt( entry.localHeaderOffset ) != LOCAL_HEADER_SIGNATURE ) {
+				throw new ByteBuddyModelException( "Malformed local header for `" + className + "` in archive : " + jar );
+			}
+			// the local name and extra lengths may differ from those in the central directory
+			final int dataOffset = entry.localHeaderOffset
+					+ 30
+					+ ( mapped.getShort( entry.localHeaderOffset + 26 ) & 0xFFFF )
+					+ ( mapped.getShort( entry.localHeaderOffset + 28 ) & 0xFFFF );
+
+			final byte[] bytes = new byte[entry.size];
+			if ( entry.method == STORED ) {
+				mapped.get( dataOffset, bytes );
+				return bytes;
+			}
+			if ( entry.method == DEFLATED ) {
+				inflate( className, dataOffset, entry, bytes );
+				return bytes;
+			}
+			throw new ByteBuddyModelException(
+					"Unsupported compression method (" + entry.method + ") for `" + className + "` in archive : " + jar
+			);
+		}
+
+		private void inflate(String className, int dataOffset, Entry entry, byte[] bytes) {
+			final Inflater inflater = new Inflater( true );
+			try {
+				inflater.setInput( mapped.slice( dataOffset, entry.compressedSize ) );
+				boolean paddedInput = false;
+				int inflated = 0;
+				while ( inflated < bytes.length ) {
+					final int count = inflater.inflate( bytes, inflated, bytes.length - inflated );
+					if ( count == 0 ) {
+						if ( inflater.finished() || inflater.needsDictionary() || paddedInput ) {
+							break;
+						}
+						if ( inflater.needsInput() ) {
+							// "nowrap" inflation may need an extra, dummy byte to complete
+							inflater.setInput( new byte[1] );
+							paddedInput = true;
+						}
+					}
+					inflated += count;
+				}
+				if ( inflated != bytes.length ) {
+					throw new ByteBuddyModelException( "Truncated entry for `" + className + "` in archive : " + jar );
+				}
+			}
+			catch (DataFormatException e) {
+				throw new ByteBuddyModelException( "Unable to inflate `" + className + "` in archive : " + jar, e );
+			}
+			finally {
+				inflater.end();
+			}
+		}
+	}
+
+	private static class Entry {
+		private final int method;
+		private final int compressedSize;
+		private final int size;
+		private final int localHeaderOffset;
+
+		private Entry(int method, int compressedSize, int size, int localHeaderOffset) {
+			this.method = method;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.localHeaderOffset = localHeaderOffset;
+		}
+	}
+}
@@ -10,80 +10,120 @@ import java.util.Locale;
 
 import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
 import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
 
 import net.bytebuddy.description.method.MethodDescription;
 
+import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_DEBUG_ENABLED;
 import static org.hibernate.bytecode.enhance.model.source.internal.ModelSourceLogging.MODEL_SOURCE_LOGGER;
 
 /**
+ * MethodDetails backed by a ByteBuddy {@link MethodDescription}.
+ * <p/>
+ * Built for every getter, setter and other method of every class, so only the state needed
+ * by the model itself is kept - the attribute name of getters and setters.  The
+ * {@linkplain #resolveAttributeMethodNameStem() name stem} and the {@linkplain #toString() description}
+ * are derived on request.
+ *
  * @author Steve Ebersole
  */
 public class MethodDetailsImpl extends AbstractAnnotationTarget implements MethodDetails {
 	private final MethodDescription methodDescriptor;
-	private final ClassDetails type;
+	private final String name;
+	private final String typeName;
+	private final ClassDetailsRegistry classDetailsRegistry;
+	private volatile ClassDetails type;
 	private final MethodKind methodKind;
 
-	private final String methodNameStem;
-	private final String toString;
+	// canonical, for getters and setters only
+	private final String attributeName;
 
-	public MethodDetailsImpl(MethodDescription methodDescriptor, MethodKind methodKind) {
-		this( methodDescriptor, null, methodKind );
+	public MethodDetailsImpl(MethodDescription methodDescriptor, MethodKind methodKind, SymbolTable symbolTable) {
+		this( methodDescriptor, null, methodKind, symbolTable );
 	}
 
 	public MethodDetailsImpl(
 			MethodDescription methodDescriptor,
 			ClassDetails type,
-			MethodDetails.MethodKind methodKind) {
+			MethodDetails.MethodKind methodKind,
+			SymbolTable symbolTable) {
+		this( methodDescriptor, type == null ? null : type.getName(), type, null, methodKind, symbolTable );
+	}
+
+	/**
+	 * Form deferring resolution of the {@linkplain #getType() type details} until first requested
+	 */
+	public MethodDetailsImpl(
+			MethodDescription methodDescriptor,
+			String typeName,
+			ClassDetailsRegistry classDetailsRegistry,
+			MethodDetails.MethodKind methodKind,
+			SymbolTable symbolTable) {
+		this( methodDescriptor, typeName, null, classDetailsRegistry, methodKind, symbolTable );
+	}
+
+	private MethodDetailsImpl(
+			MethodDescription methodDescriptor,
+			String typeName,
+			ClassDetails type,
+			ClassDetailsRegistry classDetailsRegistry,
+			MethodDetails.MethodKind methodKind,
+			SymbolTable symbolTable) {
 		super( methodDescriptor.getDeclaredAnnotations() );
 
-		MODEL_SOURCE_LOGGER.debugf( "Creating MethodDetails(%s#%s)", methodDescriptor.getDeclaringType().getActualName(), methodDescriptor.getName() );
+		if ( MODEL_SOURCE_DEBUG_ENABLED ) {
+			MODEL_SOURCE_LOGGER.debugf( "Creating MethodDetails(%s#%s)", methodDescriptor.getDeclaringType().getActualName(), methodDescriptor.getName() );
+		}
 
 		this.methodDescriptor = methodDescriptor;
+		this.name = symbolTable.intern( methodDescriptor.getName() );
+		this.typeName = symbolTable.intern( typeName );
 		this.type = type;
+		this.classDetailsRegistry = classDetailsRegistry;
 		this.methodKind = methodKind;
+		this.attributeName = methodKind == MethodKind.OTHER
+				? null
+				: symbolTable.accessorAttributeName( name, methodKind );
+	}
 
-		this.toString = String.format(
-				Locale.ROOT,
-				"MethodDetails(%s#%s : %s)",
-				methodDescriptor.getDeclaringType().getActualName(),
-				methodDescriptor.getName(),
-				type == null ? "???" : type.getName()
-		);
-
+	static String resolveMethodNameStem(String methodName, MethodKind methodKind) {
 		if ( methodKind == MethodKind.GETTER ) {
-			if ( methodDescriptor.getName().startsWith( "get" )
-					|| methodDescriptor.getName().startsWith( "has" ) ) {
-				methodNameStem = methodDescriptor.getName().substring( 3 );
+			if ( methodName.startsWith( "get" ) || methodName.startsWith( "has" ) ) {
+				return methodName.substring( 3 );
 			}
-			else if ( methodDescriptor.getName().startsWith( "is" ) ) {
-				methodNameStem = methodDescriptor.getName().substring( 2 );
-			}
-			else {
-				throw new ByteBuddyModelException( "Could not determine attribute method name stem for getter method - " + methodDescriptor.getName() );
+			else if ( methodName.startsWith( "is" ) ) {
+				return methodName.substring( 2 );
 			}
+			throw new ByteBuddyModelException( "Could not determine attribute method name stem for getter method - " + methodName );
 		}
 		else if ( methodKind == MethodKind.SETTER ) {
-			if ( methodDescriptor.getName().startsWith( "set" ) ) {
-				methodNameStem = methodDescriptor.getName().substring( 3 );
-			}
-			else {
-				throw new ByteBuddyModelException( "Could not determine attribute method name stem for setter method - " + methodDescriptor.getName() );
+			if ( methodName.startsWith( "set" ) ) {
+				return methodName.substring( 3 );
 			}
+			throw new ByteBuddyModelException( "Could not determine attribute method name stem for setter method - " + methodName );
 		}
-		else {
-			methodNameStem = null;
-		}
+		return null;
 	}
 
 	@Override
 	public String getName() {
-		return methodDescriptor.getName();
+		return name;
+	}
+
+	String getTypeName() {
+		return typeName;
 	}
 
 	@Override
 	public ClassDetails getType() {
-		return type;
+		ClassDetails local = type;
+		if ( local == null && typeName != null ) {
+			// resolution is single-flight, so racing here still leads to the same reference
+			local = classDetailsRegistry.resolveClassDetails( typeName );
+			type = local;
+		}
+		return local;
 	}
 
 	@Override
@@ -93,11 +133,41 @@ public class MethodDetailsImpl extends AbstractAnnotationTarget implements Metho
 
 	@Override
 	public String resolveAttributeMethodNameStem() {
-		return methodNameStem;
+		// only needed when writing the details out, so not worth keeping
+		return resolveMethodNameStem( name, methodKind );
+	}
+
+	@Override
+	public String resolveAttributeName() {
+		return attributeName;
+	}
+
+	@Override
+	public String getSimpleMatchFieldName() {
+		if ( isSimpleGetter( name, methodKind ) ) {
+			return attributeName;
+		}
+		// let the default report the problem
+		return MethodDetails.super.getSimpleMatchFieldName();
+	}
+
+	/**
+	 * Whether the method is a {@code get*} or {@code is*} getter, whose simple-match field name
+	 * is the same as its attribute name
+	 */
+	static boolean isSimpleGetter(String methodName, MethodKind methodKind) {
+		return methodKind == MethodKind.GETTER
+				&& ( methodName.startsWith( "get" ) || methodName.startsWith( "is" ) );
 	}
 
 	@Override
 	public String toString() {
-		return toString;
+		return String.format(
+				Locale.ROOT,
+				"MethodDetails(%s#%s : %s)",
+				methodDescriptor.getDeclaringType().getActualName(),
+				name,
+				typeName == null ? "???" : typeName
+		);
 	}
 }
@@ -6,32 +6,14 @@
  */
 package org.hibernate.bytecode.enhance.model.source.internal;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.net.URL;
-import java.sql.Blob;
-import java.sql.Clob;
-import java.sql.NClob;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.OffsetDateTime;
-import java.time.OffsetTime;
-import java.time.ZonedDateTime;
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.SortedMap;
-import java.util.SortedSet;
-
 import jakarta.persistence.AttributeConverter;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
 
+import org.hibernate.bytecode.enhance.model.ByteBuddyModelException;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsBuilder;
 import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
 
 /**
  * @author Steve Ebersole
@@ -40,55 +22,57 @@ public class ModelProcessingContextImpl implements ModelProcessingContext {
 	private final ClassDetailsRegistryImpl classDetailsRegistry;
 	private final ClassFileLocatorImpl classFileLocator;
 	private final TypePool typePool;
+	private final ModelProcessingOptions options;
+	private final ClassDetailsCache classDetailsCache;
+	private final SymbolTable symbolTable = new SymbolTable();
 
 	public ModelProcessingContextImpl(
 			ClassFileLocatorImpl classFileLocator,
 			TypePool typePool) {
-		this.classFileLocator = classFileLocator;
-		this.typePool = typePool;
-		final ClassDetailsBuilderImpl classDetailsBuilder = new ClassDetailsBuilderImpl( this );
-		this.classDetailsRegistry = new ClassDetailsRegistryImpl( classDetailsBuilder, this );
-
-		primeClassDetails( String.class );
-		primeClassDetails( Boolean.class );
-		primeClassDetails( Enum.class );
-		primeClassDetails( Byte.class );
-		primeClassDetails( Short.class );
-		primeClassDetails( Integer.class );
-		primeClassDetails( Long.class );
-		primeClassDetails( Double.class );
-		primeClassDetails( Float.class );
-		primeClassDetails( BigInteger.class );
-		primeClassDetails( BigDecimal.class );
-		primeClassDetails( Blob.class );
-		primeClassDetails( Clob.class );
-		primeClassDetails( NClob.class );
-		primeClassDetails( Instant.class );
-		primeClassDetails( LocalDate.class );
-		primeClassDetails( LocalTime.class );
-		primeClassDetails( LocalDateTime.class );
-		primeClassDetails( OffsetTime.class );
-		primeClassDetails( OffsetDateTime.class );
-		primeClassDetails( ZonedDateTime.class );
-		primeClassDetails( java.util.Date.class );
-		primeClassDetails( java.sql.Date.class );
-		primeClassDetails( java.sql.Time.class );
-		primeClassDetails( java.sql.Timestamp.class );
-		primeClassDetails( URL.class );
-		primeClassDetails( Collection.class );
-		primeClassDetails( Set.class );
-		primeClassDetails( List.class );
-		primeClassDetails( Map.class );
-		primeClassDetails( Comparator.class );
-		primeClassDetails( Comparable.class );
-		primeClassDetails( SortedSet.class );
-		primeClassDetails( SortedMap.class );
+		this( classFileLocator, typePool, new ModelProcessingOptionsImpl() );
+	}
 
-		primeClassDetails( AttributeConverter.class );
+	public ModelProcessingContextImpl(
+			ClassFileLocatorImpl classFileLocator,
+			TypePool typePool,
+			ModelProcessingOptions options) {
+		this( classFileLocator, typePool, options, null );
 	}
 
-	private void primeClassDetails(Class<?> javaType) {
-		classDetailsRegistry.resolveClassDetails( javaType.getName() );
+	/**
+	 * @param sharedCatalog The catalog of primed types to consult before this context's own
+	 * registrations, or {@code null} to prime this context itself.  Must have been built
+	 * for options {@linkplain SharedClassDetailsCatalog#isCompatibleWith compatible} with {@code options}
+	 */
+	public ModelProcessingContextImpl(
+			ClassFileLocatorImpl classFileLocator,
+			TypePool typePool,
+			ModelProcessingOptions options,
+			SharedClassDetailsCatalog sharedCatalog) {
+		if ( sharedCatalog != null && !sharedCatalog.isCompatibleWith( options ) ) {
+			throw new ByteBuddyModelException( "Shared ClassDetails catalog was built for incompatible options" );
+		}
+		this.classFileLocator = classFileLocator;
+		this.typePool = typePool;
+		this.options = options;
+		this.classDetailsCache = options.getCacheDirectory() == null
+				? null
+				: new ClassDetailsCache( options.getCacheDirectory(), this );
+		final ClassDetailsBuilder backendBuilder = options.getClassDetailsBackend() == ModelProcessingOptions.ClassDetailsBackend.ASM
+				? new AsmClassDetailsBuilder( this )
+				: new ClassDetailsBuilderImpl( this );
+		final ClassDetailsBuilder classDetailsBuilder = options.getJandexIndex() == null
+				? backendBuilder
+				: new JandexClassDetailsBuilder( options.getJandexIndex(), this, backendBuilder );
+		this.classDetailsRegistry = new ClassDetailsRegistryImpl( classDetailsBuilder, this, sharedCatalog );
+
+		if ( sharedCatalog == null ) {
+			for ( int i = 0; i < SharedClassDetailsCatalog.PRIMED_TYPES.length; i++ ) {
+				classDetailsRegistry.resolveClassDetails( SharedClassDetailsCatalog.PRIMED_TYPES[i].getName() );
+			}
+		}
+		// not a JDK type, so never part of the shared catalog
+		classDetailsRegistry.resolveClassDetails( AttributeConverter.class.getName() );
 	}
 
 	@Override
@@ -105,4 +89,23 @@ public class ModelProcessingContextImpl implements ModelProcessingContext {
 	public ClassFileLocator getClassFileLocator() {
 		return classFileLocator;
 	}
+
+	@Override
+	public ModelProcessingOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * The canonical names of this context's model
+	 */
+	public SymbolTable getSymbolTable() {
+		return symbolTable;
+	}
+
+	/**
+	 * The persistent ClassDetails cache, or {@code null} if none is configured
+	 */
+	public ClassDetailsCache getClassDetailsCache() {
+		return classDetailsCache;
+	}
 }
@@ -0,0 +1,89 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.jboss.jandex.IndexView;
+
+/**
+ * ModelProcessingOptions implementation
+ *
+ * @author Steve Ebersole
+ */
+public class ModelProcessingOptionsImpl implements ModelProcessingOptions {
+	/**
+	 * Prefixes covering the JDK and Jakarta types, for use with {@link #setOpaqueTypePrefixes}
+	 */
+	public static final List<String> JDK_TYPE_PREFIXES = List.of( "java.", "javax.", "jdk.", "sun.", "com.sun.", "jakarta." );
+
+	private boolean lazyMemberResolution;
+	private boolean deferredMemberTypeResolution;
+	private Collection<String> opaqueTypePrefixes = Collections.emptyList();
+	private Path cacheDirectory;
+	private ClassDetailsBackend classDetailsBackend = ClassDetailsBackend.BYTE_BUDDY;
+	private IndexView jandexIndex;
+
+	@Override
+	public boolean isLazyMemberResolution() {
+		return lazyMemberResolution;
+	}
+
+	public void setLazyMemberResolution(boolean lazyMemberResolution) {
+		this.lazyMemberResolution = lazyMemberResolution;
+	}
+
+	@Override
+	public boolean isDeferredMemberTypeResolution() {
+		return deferredMemberTypeResolution;
+	}
+
+	public void setDeferredMemberTypeResolution(boolean deferredMemberTypeResolution) {
+		this.deferredMemberTypeResolution = deferredMemberTypeResolution;
+	}
+
+	@Override
+	public Collection<String> getOpaqueTypePrefixes() {
+		return opaqueTypePrefixes;
+	}
+
+	public void setOpaqueTypePrefixes(Collection<String> opaqueTypePrefixes) {
+		this.opaqueTypePrefixes = opaqueTypePrefixes == null ? Collections.emptyList() : opaqueTypePrefixes;
+	}
+
+	@Override
+	public Path getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	public void setCacheDirectory(Path cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	@Override
+	public IndexView getJandexIndex() {
+		return jandexIndex;
+	}
+
+	public void setJandexIndex(IndexView jandexIndex) {
+		this.jandexIndex = jandexIndex;
+	}
+
+	@Override
+	public ClassDetailsBackend getClassDetailsBackend() {
+		return classDetailsBackend;
+	}
+
+	public void setClassDetailsBackend(ClassDetailsBackend classDetailsBackend) {
+		this.classDetailsBackend = classDetailsBackend;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingContext;
+
+import net.bytebuddy.description.type.TypeDescription;
+
+/**
+ * ClassDetails for {@linkplain org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions#getOpaqueTypePrefixes() opaque}
+ * types - basic, JDK and library types we only care about as the type of some member.  Records
+ * the name, abstractness and assignability of the type, but never enumerates its members.
+ *
+ * @author Steve Ebersole
+ */
+public class OpaqueClassDetails extends AbstractAnnotationTarget implements ClassDetails {
+	private final String name;
+	private final TypeDescription typeDescription;
+	private final ClassDetailsRegistryImpl classDetailsRegistry;
+
+	private ClassDetails superType;
+	private volatile boolean superTypeResolved;
+
+	public OpaqueClassDetails(String name, TypeDescription typeDescription, ModelProcessingContext processingContext) {
+		// NOTE: the annotations are located on first use
+		super( typeDescription::getDeclaredAnnotations );
+
+		ModelSourceLogging.MODEL_SOURCE_LOGGER.debugf( "Creating opaque ClassDetails(%s)", name );
+
+		this.name = name;
+		this.typeDescription = typeDescription;
+		this.classDetailsRegistry = ( (ModelProcessingContextImpl) processingContext ).getClassDetailsRegistry();
+	}
+
+	TypeDescription getTypeDescription() {
+		return typeDescription;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getClassName() {
+		return name;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return typeDescription.isAbstract();
+	}
+
+	@Override
+	public ClassDetails getSuperType() {
+		if ( !superTypeResolved ) {
+			// resolution is single-flight, so racing here still leads to the same reference
+			superType = interpretSuperType();
+			superTypeResolved = true;
+		}
+		return superType;
+	}
+
+	private ClassDetails interpretSuperType() {
+		final TypeDescription.Generic superClassGeneric = typeDescription.getSuperClass();
+		if ( superClassGeneric == null ) {
+			return null;
+		}
+
+		final TypeDescription superTypeDescription = superClassGeneric.asErasure();
+		if ( TypeDescription.OBJECT.equals( superTypeDescription ) ) {
+			return null;
+		}
+
+		return classDetailsRegistry.resolveClassDetails( superTypeDescription.getName(), superTypeDescription );
+	}
+
+	@Override
+	public List<FieldDetails> getFields() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public List<MethodDetails> getMethods() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public MemberDetails getIdentifierMember() {
+		return null;
+	}
+
+	@Override
+	public boolean isImplementorOf(Class<?> checkType) {
+		return typeDescription.isAssignableTo( checkType );
+	}
+
+	@Override
+	public boolean isImplementorOf(TypeDescription checkType) {
+		return typeDescription.isAssignableTo( checkType.asErasure() );
+	}
+
+	@Override
+	public String toString() {
+		return "OpaqueClassDetails(" + name + ")";
+	}
+}
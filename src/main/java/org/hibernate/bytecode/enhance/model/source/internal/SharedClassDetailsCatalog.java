@@ -0,0 +1,157 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.NClob;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import net.bytebuddy.pool.TypePool;
+
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+/**
+ * Immutable catalog of the {@link ClassDetails} for commonly used JDK types, shareable between
+ * {@link ModelProcessingContextImpl contexts} which are built with matching options.
+ * <p/>
+ * Callers creating many contexts build a catalog once and pass it to each of them - the context
+ * then consults it before its own registrations rather than rebuilding the details for these types.
+ * Members are resolved under the lock of their entry when lazy, so the entries are safe to share
+ * across contexts and threads.
+ * The catalog (and the registry its entries were built by) lives as long as the caller holds it.
+ * <p/>
+ * Only {@code java.*} types are shared.  They come from the JDK runtime image and are the
+ * same for every class loader, so the catalog is independent of a context's class loader;
+ * it does depend on the options shaping the entries though - see {@link #isCompatibleWith}.
+ * Other primed types, such as {@code AttributeConverter}, are primed by each context itself.
+ *
+ * @author Steve Ebersole
+ */
+public class SharedClassDetailsCatalog {
+	/**
+	 * The types primed into the catalog
+	 */
+	static final Class<?>[] PRIMED_TYPES = new Class<?>[] {
+			String.class,
+			Boolean.class,
+			Enum.class,
+			Byte.class,
+			Short.class,
+			Integer.class,
+			Long.class,
+			Double.class,
+			Float.class,
+			BigInteger.class,
+			BigDecimal.class,
+			Blob.class,
+			Clob.class,
+			NClob.class,
+			Instant.class,
+			LocalDate.class,
+			LocalTime.class,
+			LocalDateTime.class,
+			OffsetTime.class,
+			OffsetDateTime.class,
+			ZonedDateTime.class,
+			java.util.Date.class,
+			java.sql.Date.class,
+			java.sql.Time.class,
+			java.sql.Timestamp.class,
+			URL.class,
+			Collection.class,
+			Set.class,
+			List.class,
+			Map.class,
+			Comparator.class,
+			Comparable.class,
+			SortedSet.class,
+			SortedMap.class
+	};
+
+	private final ModelProcessingOptions.ClassDetailsBackend classDetailsBackend;
+	private final boolean lazyMemberResolution;
+	private final boolean deferredMemberTypeResolution;
+	private final Set<String> opaqueTypePrefixes;
+	private final Map<String, ClassDetails> classDetailsMap;
+
+	/**
+	 * Build a catalog for contexts using the given options
+	 */
+	public SharedClassDetailsCatalog(ModelProcessingOptions options) {
+		this.classDetailsBackend = options.getClassDetailsBackend();
+		this.lazyMemberResolution = options.isLazyMemberResolution();
+		this.deferredMemberTypeResolution = options.isDeferredMemberTypeResolution();
+		this.opaqueTypePrefixes = new HashSet<>( options.getOpaqueTypePrefixes() );
+
+		// the options shaping the entries, but never a cache or index - neither applies to JDK types
+		final ModelProcessingOptionsImpl primingOptions = new ModelProcessingOptionsImpl();
+		primingOptions.setClassDetailsBackend( classDetailsBackend );
+		primingOptions.setLazyMemberResolution( lazyMemberResolution );
+		primingOptions.setDeferredMemberTypeResolution( deferredMemberTypeResolution );
+		primingOptions.setOpaqueTypePrefixes( opaqueTypePrefixes );
+
+		// the priming context also resolves AttributeConverter, which needs the persistence API on the class path
+		final ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl( SharedClassDetailsCatalog.class.getClassLoader() );
+		final ModelProcessingContextImpl primingContext = new ModelProcessingContextImpl(
+				classFileLocator,
+				TypePool.Default.WithLazyResolution.of( classFileLocator ),
+				primingOptions,
+				null
+		);
+		final Map<String, ClassDetails> registrations = primingContext.getClassDetailsRegistry().copyRegistrations();
+		this.classDetailsMap = new HashMap<>();
+		registrations.forEach( (name, classDetails) -> {
+			if ( name.startsWith( "java." ) ) {
+				classDetailsMap.put( name, classDetails );
+			}
+		} );
+
+		ModelSourceLogging.MODEL_SOURCE_LOGGER.debugf( "Built shared ClassDetails catalog - %s entries", classDetailsMap.size() );
+	}
+
+	/**
+	 * Whether the entries of this catalog match what a context with the given options would
+	 * build itself - same backend, same member resolution and same opaque types
+	 */
+	public boolean isCompatibleWith(ModelProcessingOptions options) {
+		return classDetailsBackend == options.getClassDetailsBackend()
+				&& lazyMemberResolution == options.isLazyMemberResolution()
+				&& deferredMemberTypeResolution == options.isDeferredMemberTypeResolution()
+				&& opaqueTypePrefixes.equals( new HashSet<>( options.getOpaqueTypePrefixes() ) );
+	}
+
+	/**
+	 * Find the catalog entry for the given class name, or {@code null}
+	 */
+	public ClassDetails findClassDetails(String name) {
+		return classDetailsMap.get( name );
+	}
+
+	public int size() {
+		return classDetailsMap.size();
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.internal;
+
+import java.beans.Introspector;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+/**
+ * Canonical instances of the names used throughout a model - class names (binary as well as
+ * internal form), member names, method name stems and attribute names.
+ * <p/>
+ * The same names otherwise exist as many separate copies - one per class file constant pool
+ * read, per {@code substring} of a method name and per {@linkplain Introspector#decapitalize decapitalization}.
+ * Interning them here keeps a single copy of each, and lets map lookups keyed by them (such as
+ * the {@linkplain ClassDetailsRegistryImpl registry}) succeed on identity, before ever comparing
+ * characters.
+ * <p/>
+ * Scoped to a {@linkplain ModelProcessingContextImpl processing context}, so the names of a
+ * model are released together with it.  Safe for use from multiple threads.
+ *
+ * @author Steve Ebersole
+ */
+public final class SymbolTable {
+	private final ConcurrentHashMap<String, String> symbols = new ConcurrentHashMap<>();
+	// canonical binary name -> canonical internal name, and the reverse
+	private final ConcurrentHashMap<String, String> internalNames = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, String> classNames = new ConcurrentHashMap<>();
+	// method name stem -> attribute name
+	private final ConcurrentHashMap<String, String> attributeNames = new ConcurrentHashMap<>();
+	// getter/setter name -> attribute name
+	private final ConcurrentHashMap<String, String> accessorAttributeNames = new ConcurrentHashMap<>();
+
+	/**
+	 * The canonical instance of the given name
+	 */
+	public String intern(String name) {
+		if ( name == null ) {
+			return null;
+		}
+		final String existing = symbols.get( name );
+		if ( existing != null ) {
+			return existing;
+		}
+		final String raced = symbols.putIfAbsent( name, name );
+		return raced == null ? name : raced;
+	}
+
+	/**
+	 * The canonical internal form ({@code org/hibernate/Thing}) of the given binary class name ({@code org.hibernate.Thing})
+	 */
+	public String internalName(String className) {
+		final String existing = internalNames.get( className );
+		if ( existing != null ) {
+			return existing;
+		}
+		return internalNames.computeIfAbsent( intern( className ), (key) -> intern( key.replace( '.', '/' ) ) );
+	}
+
+	/**
+	 * The canonical binary class name ({@code org.hibernate.Thing}) for the given internal form ({@code org/hibernate/Thing})
+	 */
+	public String className(String internalName) {
+		final String existing = classNames.get( internalName );
+		if ( existing != null ) {
+			return existing;
+		}
+		return classNames.computeIfAbsent( intern( internalName ), (key) -> intern( key.replace( '/', '.' ) ) );
+	}
+
+	/**
+	 * The canonical attribute name for the given method name stem, e.g. {@code name} for {@code Name}
+	 */
+	public String attributeName(String methodNameStem) {
+		if ( methodNameStem == null ) {
+			return null;
+		}
+		final String existing = attributeNames.get( methodNameStem );
+		if ( existing != null ) {
+			return existing;
+		}
+		return attributeNames.computeIfAbsent( intern( methodNameStem ), (key) -> intern( Introspector.decapitalize( key ) ) );
+	}
+
+	/**
+	 * The canonical attribute name for the given getter or setter name, e.g. {@code name} for
+	 * {@code getName}.  Unlike {@link #attributeName(String)} no name stem is needed, so nothing
+	 * is allocated once the accessor name is known.
+	 *
+	 * @param methodKind Either {@link MethodDetails.MethodKind#GETTER GETTER} or
+	 * {@link MethodDetails.MethodKind#SETTER SETTER} - which the accessor name itself implies
+	 */
+	public String accessorAttributeName(String accessorName, MethodDetails.MethodKind methodKind) {
+		final String existing = accessorAttributeNames.get( accessorName );
+		if ( existing != null ) {
+			return existing;
+		}
+		return accessorAttributeNames.computeIfAbsent(
+				intern( accessorName ),
+				(key) -> attributeName( MethodDetailsImpl.resolveMethodNameStem( key, methodKind ) )
+		);
+	}
+
+	/**
+	 * The number of distinct names interned so far
+	 */
+	public int size() {
+		return symbols.size();
+	}
+}
@@ -24,6 +24,19 @@ public interface AnnotationTarget {
 	 */
 	<A extends Annotation> A getAnnotation(Class<A> type);
 
+	/**
+	 * Get the usage of the given annotation type, or null.  Unlike {@link #getAnnotation}, the
+	 * attribute values are read without loading the annotation type or creating an instance.
+	 */
+	AnnotationUsage getAnnotationUsage(Class<? extends Annotation> type);
+
+	/**
+	 * Get the usage of the named annotation type, or null.
+	 *
+	 * @see #getAnnotationUsage(Class)
+	 */
+	AnnotationUsage getAnnotationUsage(String annotationTypeName);
+
 
 	/**
 	 * Subset of {@linkplain java.lang.annotation.ElementType annotation targets} supported for mapping annotations
@@ -0,0 +1,66 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.spi;
+
+import java.util.List;
+
+/**
+ * The usage of an annotation on some {@linkplain AnnotationTarget target}, giving access to its
+ * attribute values as read from the class file - without loading the annotation type or creating
+ * an annotation instance.
+ * <p/>
+ * Whether attributes which were not explicitly specified report their default value depends
+ * on the source of the model; callers needing the default should treat {@code null} as such.
+ *
+ * @author Steve Ebersole
+ */
+public interface AnnotationUsage {
+	/**
+	 * The name of the annotation type
+	 */
+	String getAnnotationTypeName();
+
+	/**
+	 * The raw value of the named attribute, or {@code null}.  Strings and primitives are
+	 * reported as such (boxed), arrays as {@link List}; enum, class and annotation values are
+	 * best read through the typed accessors.
+	 */
+	Object findAttributeValue(String attributeName);
+
+	/**
+	 * The value of the named {@code String} attribute, or {@code null}
+	 */
+	String getString(String attributeName);
+
+	/**
+	 * The constant name of the named enum attribute, or {@code null}
+	 */
+	String getEnumConstantName(String attributeName);
+
+	/**
+	 * The value of the named enum attribute, or {@code null}
+	 */
+	default <E extends Enum<E>> E getEnum(String attributeName, Class<E> enumType) {
+		final String constantName = getEnumConstantName( attributeName );
+		return constantName == null ? null : Enum.valueOf( enumType, constantName );
+	}
+
+	/**
+	 * The name of the class referenced by the named {@code Class} attribute, or {@code null}
+	 */
+	String getClassName(String attributeName);
+
+	/**
+	 * The nested annotation of the named attribute, or {@code null}
+	 */
+	AnnotationUsage getNestedUsage(String attributeName);
+
+	/**
+	 * The nested annotations of the named (annotation array) attribute; empty if none
+	 */
+	List<AnnotationUsage> getNestedUsages(String attributeName);
+}
@@ -2,6 +2,8 @@ package org.hibernate.bytecode.enhance.model.source.spi;
 
 import java.util.List;
 
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
 import net.bytebuddy.description.type.TypeDescription;
 
 /**
@@ -58,6 +60,49 @@ public interface ClassDetails extends AnnotationTarget {
 	 */
 	MemberDetails getIdentifierMember();
 
+	/**
+	 * The access type defined for this class by its own {@code @Access} or implied by its
+	 * super-types, or {@code null} if that cannot be determined from the hierarchy alone (and
+	 * instead depends on the identifier placement or context).  Implementations memoize this, so
+	 * each node of a hierarchy is only resolved once regardless of the number of sub-types.
+	 */
+	default AccessType getHierarchyAccessType() {
+		final AnnotationUsage access = getAnnotationUsage( Access.class );
+		if ( access != null ) {
+			return access.getEnum( "value", AccessType.class );
+		}
+
+		final ClassDetails superType = getSuperType();
+		if ( superType == null ) {
+			return null;
+		}
+
+		// relies on the super-type's (memoized) resolution
+		final AccessType superAccessType = superType.getHierarchyAccessType();
+		if ( superAccessType != null ) {
+			return superAccessType;
+		}
+
+		// the root of the hierarchy defines no access type - fall back to the placement of our identifier
+		final MemberDetails identifierMember = getIdentifierMember();
+		if ( identifierMember != null ) {
+			return identifierMember.getKind() == Kind.FIELD ? AccessType.FIELD : AccessType.PROPERTY;
+		}
+		return AccessType.PROPERTY;
+	}
+
+	/**
+	 * For a getter whose backing field cannot be matched by name, the name of the field it returns -
+	 * i.e. the field read by the last {@code GETFIELD} in its body.  Implementations determine this
+	 * for all such getters in a single pass over the class file (unless already known, e.g. from
+	 * a cache) and memoize the results.
+	 *
+	 * @return The field name, or {@code null} if the getter reads no field
+	 */
+	default String findGottenFieldName(String getterName) {
+		return null;
+	}
+
 	boolean isImplementorOf(Class<?> checkType);
 
 	default boolean isImplementorOf(TypeDescription.Generic checkType) {
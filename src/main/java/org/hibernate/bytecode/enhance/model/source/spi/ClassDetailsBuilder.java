@@ -19,4 +19,12 @@ public interface ClassDetailsBuilder {
 	 * Build a ClassDetails descriptor for a class with the given name
 	 */
 	ClassDetails buildClassDetails(String name, ModelProcessingContext processingContext);
+
+	/**
+	 * Called once details built by this builder are registered and visible to other resolutions.
+	 * Work which resolves other types through the registry, such as writing a cache entry,
+	 * belongs here rather than in {@link #buildClassDetails}.
+	 */
+	default void afterRegistration(ClassDetails classDetails, ModelProcessingContext processingContext) {
+	}
 }
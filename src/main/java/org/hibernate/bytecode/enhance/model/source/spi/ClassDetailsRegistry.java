@@ -32,6 +32,9 @@ public interface ClassDetailsRegistry {
 	/**
 	 * Resolves a managed-class by name.  If there is currently no such registration,
 	 * one is created and registered.
+	 * <p/>
+	 * May be called concurrently; each name is created at most once and racing
+	 * callers share that one reference.
 	 */
 	ClassDetails resolveClassDetails(String name);
 }
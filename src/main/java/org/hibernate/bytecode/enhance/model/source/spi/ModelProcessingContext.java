@@ -22,4 +22,9 @@ public interface ModelProcessingContext {
 	TypePool getTypePool();
 
 	ClassFileLocator getClassFileLocator();
+
+	/**
+	 * Options controlling how the model is built
+	 */
+	ModelProcessingOptions getOptions();
 }
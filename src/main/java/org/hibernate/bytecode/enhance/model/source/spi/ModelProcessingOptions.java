@@ -0,0 +1,77 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model.source.spi;
+
+import java.nio.file.Path;
+import java.util.Collection;
+
+import org.jboss.jandex.IndexView;
+
+/**
+ * Options controlling how the source model is built
+ *
+ * @author Steve Ebersole
+ */
+public interface ModelProcessingOptions {
+	/**
+	 * Whether the members of a {@link ClassDetails} (super-type, fields, methods and identifier)
+	 * are resolved on first access rather than as soon as the ClassDetails is created.
+	 * <p/>
+	 * With lazy resolution, types only reached as the type of some member cost little more
+	 * than a name lookup unless their members are actually accessed.
+	 */
+	boolean isLazyMemberResolution();
+
+	/**
+	 * Whether {@linkplain MemberDetails members} keep just the name of their type, resolving the
+	 * {@linkplain MemberDetails#getType() type details} on first access, rather than resolving
+	 * the type as the member is created.
+	 */
+	boolean isDeferredMemberTypeResolution();
+
+	/**
+	 * Class-name prefixes (generally package names) of types to model as opaque - just their name,
+	 * abstractness and assignability, without ever enumerating their members.  Intended for JDK and
+	 * library types which are only ever interesting as the type of some member.
+	 * <p/>
+	 * When non-empty, primitive and array types are modeled as opaque as well.
+	 */
+	Collection<String> getOpaqueTypePrefixes();
+
+	/**
+	 * Directory for the persistent ClassDetails cache, or {@code null} (the default) to not
+	 * use the cache.  Entries are keyed by the content of the class file plus that of its
+	 * super-types, so unchanged classes are served from the cache without parsing.
+	 */
+	Path getCacheDirectory();
+
+	/**
+	 * A pre-built Jandex index to build {@link ClassDetails} from, rather than parsing class files,
+	 * or {@code null} (the default).  Classes not covered by the index are built by the
+	 * {@linkplain #getClassDetailsBackend() backend}.
+	 */
+	IndexView getJandexIndex();
+
+	/**
+	 * The backend used to build {@link ClassDetails} from class files
+	 */
+	ClassDetailsBackend getClassDetailsBackend();
+
+	enum ClassDetailsBackend {
+		/**
+		 * ClassDetails are backed by ByteBuddy {@code TypeDescription}s; getter bodies are analyzed
+		 * by a separate ASM pass when needed.  The default.
+		 */
+		BYTE_BUDDY,
+		/**
+		 * ClassDetails are built from a single ASM pass over the class file, capturing declarations,
+		 * annotations and getter-to-field resolutions together.  Primitive, array and
+		 * {@linkplain #getOpaqueTypePrefixes() opaque} types are still handled by ByteBuddy.
+		 */
+		ASM
+	}
+}
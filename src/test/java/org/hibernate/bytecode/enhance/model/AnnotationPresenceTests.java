@@ -0,0 +1,91 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import org.hibernate.bytecode.enhance.model.source.internal.KnownAnnotations;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class AnnotationPresenceTests {
+	@Test
+	void testByteBuddyBackend() {
+		Helper.withProcessingContext( (processingContext) -> verify(
+				processingContext.getClassDetailsRegistry().resolveClassDetails( MarkedEntity.class.getName() )
+		) );
+	}
+
+	@Test
+	void testAsmBackend() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+		Helper.withProcessingContext( options, (processingContext) -> verify(
+				processingContext.getClassDetailsRegistry().resolveClassDetails( MarkedEntity.class.getName() )
+		) );
+	}
+
+	private static void verify(ClassDetails classDetails) {
+		assertThat( classDetails.hasAnnotation( Entity.class ) ).isTrue();
+		assertThat( classDetails.hasAnnotation( Table.class ) ).isFalse();
+		// not known (yet)
+		assertThat( classDetails.hasAnnotation( Marker.class ) ).isTrue();
+		assertThat( classDetails.hasAnnotation( Unused.class ) ).isFalse();
+
+		// registering after the presence was computed still answers correctly
+		KnownAnnotations.register( Marker.class );
+		assertThat( classDetails.hasAnnotation( Marker.class ) ).isTrue();
+		assertThat( classDetails.getAnnotation( Marker.class ) ).isNotNull();
+
+		for ( FieldDetails field : classDetails.getFields() ) {
+			if ( "id".equals( field.getName() ) ) {
+				assertThat( field.hasAnnotation( Id.class ) ).isTrue();
+				assertThat( field.hasAnnotation( Transient.class ) ).isFalse();
+				assertThat( field.getAnnotation( Basic.class ) ).isNull();
+			}
+			else {
+				assertThat( field.hasAnnotation( Id.class ) ).isFalse();
+				assertThat( field.hasAnnotation( Transient.class ) ).isTrue();
+				assertThat( field.hasAnnotation( Marker.class ) ).isTrue();
+			}
+		}
+	}
+
+	@Retention( RetentionPolicy.RUNTIME )
+	public @interface Marker {
+	}
+
+	@Retention( RetentionPolicy.RUNTIME )
+	public @interface Unused {
+	}
+
+	@Entity
+	@Marker
+	public static class MarkedEntity {
+		@Id
+		private Integer id;
+		@Transient
+		@Marker
+		private String name;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationUsage;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class AnnotationUsageTests {
+	@Test
+	void testByteBuddyBackend() {
+		Helper.withProcessingContext( (processingContext) -> verify(
+				processingContext.getClassDetailsRegistry().resolveClassDetails( UsageEntity.class.getName() )
+		) );
+	}
+
+	@Test
+	void testAsmBackend() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+		Helper.withProcessingContext( options, (processingContext) -> verify(
+				processingContext.getClassDetailsRegistry().resolveClassDetails( UsageEntity.class.getName() )
+		) );
+	}
+
+	@Test
+	void testLoadedAnnotationMatchesReflection() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext.getClassDetailsRegistry()
+					.resolveClassDetails( UsageEntity.class.getName() );
+
+			// array valued attributes (uniqueConstraints, indexes, columnNames) and defaults
+			final Table loaded = classDetails.getAnnotation( Table.class );
+			final Table reflected = UsageEntity.class.getAnnotation( Table.class );
+			assertThat( loaded ).isNotSameAs( reflected );
+			assertThat( loaded.equals( reflected ) ).isTrue();
+			assertThat( reflected.equals( loaded ) ).isTrue();
+			assertThat( loaded.hashCode() ).isEqualTo( reflected.hashCode() );
+			assertThat( loaded.toString() ).contains( "columnNames={name}" );
+
+			final Access loadedAccess = classDetails.getAnnotation( Access.class );
+			final Access reflectedAccess = UsageEntity.class.getAnnotation( Access.class );
+			assertThat( loadedAccess.equals( reflectedAccess ) ).isTrue();
+			assertThat( reflectedAccess.equals( loadedAccess ) ).isTrue();
+			assertThat( loadedAccess.hashCode() ).isEqualTo( reflectedAccess.hashCode() );
+		} );
+	}
+
+	private static void verify(ClassDetails classDetails) {
+		final AnnotationUsage access = classDetails.getAnnotationUsage( Access.class );
+		assertThat( access.getAnnotationTypeName() ).isEqualTo( Access.class.getName() );
+		assertThat( access.getEnumConstantName( "value" ) ).isEqualTo( "FIELD" );
+		assertThat( access.getEnum( "value", AccessType.class ) ).isEqualTo( AccessType.FIELD );
+
+		final AnnotationUsage idClass = classDetails.getAnnotationUsage( IdClass.class.getName() );
+		assertThat( idClass.getClassName( "value" ) ).isEqualTo( UsageEntity.Key.class.getName() );
+
+		final AnnotationUsage table = classDetails.getAnnotationUsage( Table.class );
+		assertThat( table.getString( "name" ) ).isEqualTo( "usages" );
+		final List<AnnotationUsage> uniqueConstraints = table.getNestedUsages( "uniqueConstraints" );
+		assertThat( uniqueConstraints ).hasSize( 1 );
+		assertThat( uniqueConstraints.get( 0 ).getString( "name" ) ).isEqualTo( "uk_usages" );
+		assertThat( uniqueConstraints.get( 0 ).findAttributeValue( "columnNames" ) ).isEqualTo( List.of( "name" ) );
+
+		assertThat( classDetails.getAnnotationUsage( Id.class ) ).isNull();
+
+		// the annotation instance is created once
+		assertThat( classDetails.getAnnotation( Table.class ) ).isSameAs( classDetails.getAnnotation( Table.class ) );
+	}
+
+	@Entity
+	@Access( AccessType.FIELD )
+	@IdClass( UsageEntity.Key.class )
+	@Table( name = "usages", uniqueConstraints = @UniqueConstraint( name = "uk_usages", columnNames = "name" ) )
+	public static class UsageEntity {
+		@Id
+		private Integer id;
+		@Id
+		private String name;
+
+		public static class Key {
+			private Integer id;
+			private String name;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.BatchModelBuilder;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class ArchiveScanningTests {
+	@Test
+	void testJarScanning() throws IOException {
+		final Path jar = Files.createTempFile( "model-scan", ".jar" );
+		try {
+			try ( JarOutputStream jarStream = new JarOutputStream( Files.newOutputStream( jar ) ) ) {
+				addClass( jarStream, SimplePropertyEntity.class );
+				addClass( jarStream, Helper.class );
+				addClass( jarStream, SimpleFieldEntity.class );
+			}
+
+			final ForkJoinPool forkJoinPool = new ForkJoinPool( 2 );
+			try {
+				Helper.withManagedTypeModelContext( (modelContext) -> {
+					final List<ManagedTypeDescriptor> descriptors = new BatchModelBuilder( modelContext, forkJoinPool ).buildDescriptors( jar );
+
+					// Helper is not a managed class; the others are ordered by name
+					assertThat( descriptors ).hasSize( 2 );
+					assertThat( descriptors.get( 0 ).getClassDetails().getClassName() ).isEqualTo( SimpleFieldEntity.class.getName() );
+					assertThat( descriptors.get( 0 ).getPersistentAttributes() ).hasSize( 2 );
+					assertThat( descriptors.get( 1 ).getClassDetails().getClassName() ).isEqualTo( SimplePropertyEntity.class.getName() );
+					assertThat( descriptors.get( 1 ).getPersistentAttributes() ).hasSize( 2 );
+				} );
+			}
+			finally {
+				forkJoinPool.shutdown();
+			}
+		}
+		finally {
+			Files.deleteIfExists( jar );
+		}
+	}
+
+	private static void addClass(JarOutputStream jarStream, Class<?> javaClass) throws IOException {
+		final String resourceName = javaClass.getName().replace( '.', '/' ) + ".class";
+		jarStream.putNextEntry( new JarEntry( resourceName ) );
+		try ( InputStream stream = javaClass.getClassLoader().getResourceAsStream( resourceName ) ) {
+			assertThat( stream ).isNotNull();
+			stream.transferTo( jarStream );
+		}
+		jarStream.closeEntry();
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.BatchModelBuilder;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.AsmClassDetails;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class AsmClassDetailsBuilderTests {
+	private static final List<String> NAMES = List.of(
+			SimplePropertyEntity.class.getName(),
+			SuperClassLevelAccessTests.SuperClassLevelAccessEntity.class.getName(),
+			SimpleFieldEntity.class.getName(),
+			OddNamingTests.OddNamingEntity.class.getName()
+	);
+
+	@Test
+	void testAsmBackend() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( SuperClassLevelAccessTests.SuperClassLevelAccessEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( AsmClassDetails.class );
+			assertThat( classDetails.getSuperType().getAnnotation( Access.class ).value() ).isEqualTo( AccessType.FIELD );
+			assertThat( classDetails.hasAnnotation( Entity.class ) ).isTrue();
+			assertThat( classDetails.getIdentifierMember().getName() ).isEqualTo( "id" );
+			assertThat( classDetails.isImplementorOf( Object.class ) ).isTrue();
+
+			final ClassDetails oddNaming = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( OddNamingTests.OddNamingEntity.class.getName() );
+			// captured in the same pass as the declarations
+			assertThat( oddNaming.findGottenFieldName( "getPrimaryName" ) ).isEqualTo( "name" );
+		} );
+	}
+
+	@Test
+	void testBackendParity() {
+		final List<String> byteBuddyModel = new ArrayList<>();
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			describe( new BatchModelBuilder( modelContext ).buildDescriptors( NAMES ), byteBuddyModel );
+		} );
+
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+		final List<String> asmModel = new ArrayList<>();
+		Helper.withManagedTypeModelContext( options, (modelContext) -> {
+			describe( new BatchModelBuilder( modelContext ).buildDescriptors( NAMES ), asmModel );
+		} );
+
+		assertThat( asmModel ).isEqualTo( byteBuddyModel );
+	}
+
+	@Test
+	void testInvisibleAnnotationsAreIgnored() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( InvisibleAnnotationEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( AsmClassDetails.class );
+			assertThat( classDetails.hasAnnotation( Entity.class ) ).isTrue();
+			assertThat( classDetails.hasAnnotation( ClassRetained.class ) ).isFalse();
+			for ( FieldDetails field : classDetails.getFields() ) {
+				assertThat( field.hasAnnotation( ClassRetained.class ) ).isFalse();
+			}
+			for ( MethodDetails method : classDetails.getMethods() ) {
+				assertThat( method.hasAnnotation( ClassRetained.class ) ).isFalse();
+			}
+		} );
+	}
+
+	private static void describe(List<ManagedTypeDescriptor> descriptors, List<String> description) {
+		for ( ManagedTypeDescriptor descriptor : descriptors ) {
+			final ClassDetails classDetails = descriptor.getClassDetails();
+			description.add( classDetails.getName() + " abstract=" + classDetails.isAbstract()
+					+ " super=" + ( classDetails.getSuperType() == null ? null : classDetails.getSuperType().getName() )
+					+ " id=" + ( classDetails.getIdentifierMember() == null ? null : classDetails.getIdentifierMember().getName() ) );
+			for ( FieldDetails field : classDetails.getFields() ) {
+				description.add( "field " + field.getName() + " : " + field.getType().getName() + " " + field.resolveAttributeMethodNameStem() );
+			}
+			for ( MethodDetails method : classDetails.getMethods() ) {
+				description.add( "method " + method.getName() + " " + method.getMethodKind()
+						+ " : " + ( method.getType() == null ? null : method.getType().getName() ) );
+			}
+			for ( PersistentAttribute attribute : descriptor.getPersistentAttributes().values() ) {
+				description.add( "attribute " + attribute.getName() + " " + attribute.getAccessType()
+						+ " " + attribute.getBackingMember().getName() + " " + attribute.getUnderlyingField().getName() );
+			}
+		}
+	}
+
+	@Retention( RetentionPolicy.CLASS )
+	public @interface ClassRetained {
+	}
+
+	@Entity
+	@ClassRetained
+	public static class InvisibleAnnotationEntity {
+		@Id
+		@ClassRetained
+		private Integer id;
+
+		@ClassRetained
+		public Integer getId() {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ModelSourceHelper;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A getter specifying {@code @Access(PROPERTY)} within a field-access hierarchy
+ *
+ * @author Steve Ebersole
+ */
+public class AttributeLevelAccessTests {
+	@Test
+	void testPropertyAccessGetterUnderFieldAccess() {
+		Helper.withManagedTypeModelContext( (managedTypeContext) -> {
+			final ClassDetails classDetails = managedTypeContext
+					.getModelProcessingContext()
+					.getClassDetailsRegistry()
+					.resolveClassDetails( AttributeLevelAccessEntity.class.getName() );
+			final List<PersistentAttribute> persistentAttributes = ModelSourceHelper.buildPersistentAttributeList(
+					classDetails,
+					null,
+					managedTypeContext
+			);
+			assertThat( persistentAttributes ).hasSize( 2 );
+
+			final PersistentAttribute id = findAttribute( persistentAttributes, "id" );
+			assertThat( id.getAccessType() ).isEqualTo( AccessType.FIELD );
+			assertThat( id.isAccessTypeExplicit() ).isFalse();
+
+			final PersistentAttribute name = findAttribute( persistentAttributes, "name" );
+			assertThat( name.getAccessType() ).isEqualTo( AccessType.PROPERTY );
+			assertThat( name.isAccessTypeExplicit() ).isTrue();
+			assertThat( name.getBackingMember().getName() ).isEqualTo( "getName" );
+			assertThat( name.getUnderlyingField().getName() ).isEqualTo( "name" );
+		} );
+	}
+
+	private static PersistentAttribute findAttribute(List<PersistentAttribute> persistentAttributes, String name) {
+		for ( PersistentAttribute persistentAttribute : persistentAttributes ) {
+			if ( persistentAttribute.getName().equals( name ) ) {
+				return persistentAttribute;
+			}
+		}
+		throw new AssertionError( "No attribute " + name );
+	}
+
+	@Entity
+	public static class AttributeLevelAccessEntity {
+		@Id
+		private Integer id;
+		@Transient
+		private String name;
+
+		public Integer getId() {
+			return id;
+		}
+
+		@Access( AccessType.PROPERTY )
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+}
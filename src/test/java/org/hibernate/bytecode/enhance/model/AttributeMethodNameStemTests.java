@@ -0,0 +1,80 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The attribute method name stem of fields matches that of their getter
+ *
+ * @author Steve Ebersole
+ */
+public class AttributeMethodNameStemTests {
+	@Test
+	void testByteBuddyFieldStem() {
+		verifyFieldStems( ModelProcessingOptions.ClassDetailsBackend.BYTE_BUDDY );
+	}
+
+	@Test
+	void testAsmFieldStem() {
+		verifyFieldStems( ModelProcessingOptions.ClassDetailsBackend.ASM );
+	}
+
+	private static void verifyFieldStems(ModelProcessingOptions.ClassDetailsBackend backend) {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( backend );
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( StemEntity.class.getName() );
+
+			assertThat( findField( classDetails, "name" ).resolveAttributeMethodNameStem() ).isEqualTo( "Name" );
+			assertThat( findField( classDetails, "x" ).resolveAttributeMethodNameStem() ).isEqualTo( "X" );
+			assertThat( findField( classDetails, "name" ).resolveAttributeMethodNameStem() )
+					.isEqualTo( findMethod( classDetails, "getName" ).resolveAttributeMethodNameStem() );
+		} );
+	}
+
+	private static FieldDetails findField(ClassDetails classDetails, String name) {
+		for ( FieldDetails field : classDetails.getFields() ) {
+			if ( field.getName().equals( name ) ) {
+				return field;
+			}
+		}
+		throw new AssertionError( "No field " + name );
+	}
+
+	private static MethodDetails findMethod(ClassDetails classDetails, String name) {
+		for ( MethodDetails method : classDetails.getMethods() ) {
+			if ( method.getName().equals( name ) ) {
+				return method;
+			}
+		}
+		throw new AssertionError( "No method " + name );
+	}
+
+	public static class StemEntity {
+		private String name;
+		private int x;
+
+		public String getName() {
+			return name;
+		}
+
+		public int getX() {
+			return x;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeDescriptorImpl;
+import org.hibernate.bytecode.enhance.model.interp.internal.PersistentAttributeImpl;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptorRegistry;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MemberDetails;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Steve Ebersole
+ */
+public class AttributeOrdinalTests {
+	@Test
+	void testHierarchyOrdinals() {
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			final ManagedTypeDescriptorRegistry descriptorRegistry = modelContext.getDescriptorRegistry();
+			final ManagedTypeDescriptor baseDescriptor = descriptorRegistry.resolveDescriptor( OrdinalBase.class.getName() );
+			final ManagedTypeDescriptor descriptor = descriptorRegistry.resolveDescriptor( OrdinalEntity.class.getName() );
+
+			// id, version
+			assertThat( baseDescriptor.getAttributeCount() ).isEqualTo( 2 );
+			// id, version + name, Aa, BB
+			assertThat( descriptor.getAttributeCount() ).isEqualTo( 5 );
+
+			// inherited attributes keep their ordinals
+			for ( int i = 0; i < baseDescriptor.getAttributeCount(); i++ ) {
+				assertThat( descriptor.getAttribute( i ) ).isSameAs( baseDescriptor.getAttribute( i ) );
+			}
+
+			for ( int i = 0; i < descriptor.getAttributeCount(); i++ ) {
+				final PersistentAttribute attribute = descriptor.getAttribute( i );
+				assertThat( attribute.getOrdinal() ).isEqualTo( i );
+				assertThat( descriptor.findAttributeOrdinal( attribute.getName() ) ).isEqualTo( i );
+			}
+
+			assertThat( descriptor.getAttribute( descriptor.findAttributeOrdinal( "name" ) ) )
+					.isSameAs( descriptor.getPersistentAttribute( "name" ) );
+			assertThat( descriptor.findAttributeOrdinal( "id" ) ).isEqualTo( baseDescriptor.findAttributeOrdinal( "id" ) );
+			assertThat( baseDescriptor.findAttributeOrdinal( "name" ) ).isEqualTo( -1 );
+			assertThat( descriptor.findAttributeOrdinal( "unknown" ) ).isEqualTo( -1 );
+
+			// "Aa" and "BB" share a hash code
+			assertThat( "Aa".hashCode() ).isEqualTo( "BB".hashCode() );
+			assertThat( descriptor.getAttribute( descriptor.findAttributeOrdinal( "Aa" ) ).getName() ).isEqualTo( "Aa" );
+			assertThat( descriptor.getAttribute( descriptor.findAttributeOrdinal( "BB" ) ).getName() ).isEqualTo( "BB" );
+		} );
+	}
+
+	@Test
+	void testManyAttributes() {
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			final ManagedTypeDescriptor baseDescriptor = modelContext.getDescriptorRegistry()
+					.resolveDescriptor( OrdinalBase.class.getName() );
+			final ClassDetails classDetails = modelContext.getModelProcessingContext()
+					.getClassDetailsRegistry()
+					.resolveClassDetails( OrdinalEntity.class.getName() );
+
+			final List<PersistentAttribute> attributes = new ArrayList<>();
+			for ( int i = 0; i < 500; i++ ) {
+				attributes.add( new PersistentAttributeImpl( "attribute" + i, AccessType.FIELD, null, null ) );
+			}
+			// hides the inherited one
+			attributes.add( new PersistentAttributeImpl( "version", AccessType.FIELD, null, null ) );
+
+			final ManagedTypeDescriptor descriptor = new ManagedTypeDescriptorImpl( classDetails, attributes, baseDescriptor );
+			assertThat( descriptor.getAttributeCount() ).isEqualTo( 503 );
+			for ( int i = 0; i < 500; i++ ) {
+				assertThat( descriptor.findAttributeOrdinal( "attribute" + i ) ).isEqualTo( i + 2 );
+			}
+			assertThat( descriptor.findAttributeOrdinal( "id" ) ).isEqualTo( 0 );
+			assertThat( descriptor.findAttributeOrdinal( "version" ) ).isEqualTo( 502 );
+			assertThat( descriptor.findAttributeOrdinal( "attribute500" ) ).isEqualTo( -1 );
+		} );
+	}
+
+	@Test
+	void testOtherAttributeImplementation() {
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			final ClassDetails classDetails = modelContext.getModelProcessingContext()
+					.getClassDetailsRegistry()
+					.resolveClassDetails( OrdinalBase.class.getName() );
+			final PersistentAttribute attribute = new PersistentAttribute() {
+				@Override
+				public String getName() {
+					return "id";
+				}
+
+				@Override
+				public int getOrdinal() {
+					return 0;
+				}
+
+				@Override
+				public AccessType getAccessType() {
+					return AccessType.FIELD;
+				}
+
+				@Override
+				public MemberDetails getBackingMember() {
+					return null;
+				}
+
+				@Override
+				public FieldDetails getUnderlyingField() {
+					return null;
+				}
+			};
+
+			assertThatThrownBy( () -> new ManagedTypeDescriptorImpl( classDetails, List.of( attribute ), (ManagedTypeDescriptor) null ) )
+					.isInstanceOf( ByteBuddyModelException.class );
+		} );
+	}
+
+	@MappedSuperclass
+	@Access( AccessType.FIELD )
+	public static class OrdinalBase {
+		@Id
+		private Integer id;
+		@Version
+		private Integer version;
+	}
+
+	@Entity
+	public static class OrdinalEntity extends OrdinalBase {
+		private String name;
+		private String Aa;
+		private String BB;
+	}
+}
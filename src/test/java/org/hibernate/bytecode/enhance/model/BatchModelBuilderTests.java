@@ -0,0 +1,63 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.BatchModelBuilder;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.AccessType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class BatchModelBuilderTests {
+	@Test
+	void testParallelBatch() {
+		final List<String> names = List.of(
+				SimplePropertyEntity.class.getName(),
+				SuperClassLevelAccessTests.SuperClassLevelAccessEntity.class.getName(),
+				SimpleFieldEntity.class.getName(),
+				OddNamingTests.OddNamingEntity.class.getName()
+		);
+
+		final ForkJoinPool forkJoinPool = new ForkJoinPool( 4 );
+		try {
+			Helper.withManagedTypeModelContext( (modelContext) -> {
+				final List<ManagedTypeDescriptor> descriptors = new BatchModelBuilder( modelContext, forkJoinPool ).buildDescriptors( names );
+				assertThat( descriptors ).hasSize( 4 );
+
+				// order matches the requested names
+				for ( int i = 0; i < names.size(); i++ ) {
+					assertThat( descriptors.get( i ).getClassDetails().getClassName() ).isEqualTo( names.get( i ) );
+					assertThat( modelContext.getDescriptorRegistry().getDescriptor( names.get( i ) ) ).isSameAs( descriptors.get( i ) );
+				}
+
+				assertThat( descriptors.get( 0 ).getPersistentAttributes() ).hasSize( 2 );
+				assertThat( descriptors.get( 0 ).getPersistentAttribute( "id" ).getAccessType() ).isEqualTo( AccessType.PROPERTY );
+				assertThat( descriptors.get( 1 ).getPersistentAttributes() ).hasSize( 2 );
+				assertThat( descriptors.get( 1 ).getPersistentAttribute( "name" ).getAccessType() ).isEqualTo( AccessType.FIELD );
+				assertThat( descriptors.get( 2 ).getPersistentAttributes() ).hasSize( 2 );
+				assertThat( descriptors.get( 3 ).getPersistentAttribute( "primaryName" ).getUnderlyingField().getName() ).isEqualTo( "name" );
+
+				// the mapped-superclass was not requested, but had to be registered to build its subclass
+				assertThat( modelContext.getDescriptorRegistry().findDescriptor(
+						SuperClassLevelAccessTests.SuperClassLevelAccessEntitySuperClass.class.getName()
+				) ).isNotNull();
+			} );
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassBytesCache;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+
+import org.junit.jupiter.api.Test;
+
+import net.bytebuddy.pool.TypePool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class ClassBytesCacheTests {
+	@Test
+	void testSharedBetweenTypePoolAndLocator() throws IOException {
+		final ClassBytesCache classBytesCache = new ClassBytesCache();
+		try (ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl( getClass().getClassLoader(), classBytesCache )) {
+			final TypePool typePool = TypePool.Default.WithLazyResolution.of( classFileLocator );
+			typePool.describe( SimpleFieldEntity.class.getName() ).resolve().getDeclaredFields();
+			assertThat( classBytesCache.getMissCount() ).isEqualTo( 1L );
+			assertThat( classBytesCache.getEntryCount() ).isEqualTo( 1 );
+
+			// e.g. ModelSourceHelper#buildClassNode reading the same class again
+			assertThat( classFileLocator.locate( SimpleFieldEntity.class.getName() ).isResolved() ).isTrue();
+			assertThat( classBytesCache.getHitCount() ).isEqualTo( 1L );
+			assertThat( classBytesCache.getMissCount() ).isEqualTo( 1L );
+
+			classFileLocator.evictClassBytes( List.of( SimpleFieldEntity.class.getName() ) );
+			assertThat( classBytesCache.getEntryCount() ).isEqualTo( 0 );
+		}
+	}
+
+	@Test
+	void testLeastRecentlyUsedEviction() {
+		final ClassBytesCache classBytesCache = new ClassBytesCache( 30 );
+		classBytesCache.put( "a", new byte[10] );
+		classBytesCache.put( "b", new byte[10] );
+		classBytesCache.put( "c", new byte[10] );
+
+		// touch "a" so that "b" is the least-recently-used
+		assertThat( classBytesCache.find( "a" ) ).isNotNull();
+		classBytesCache.put( "d", new byte[10] );
+
+		assertThat( classBytesCache.getEvictionCount() ).isEqualTo( 1L );
+		assertThat( classBytesCache.getCachedBytes() ).isEqualTo( 30L );
+		assertThat( classBytesCache.find( "b" ) ).isNull();
+		assertThat( classBytesCache.find( "a" ) ).isNotNull();
+		assertThat( classBytesCache.find( "d" ) ).isNotNull();
+
+		// larger than the whole bound - never cached
+		classBytesCache.put( "e", new byte[31] );
+		assertThat( classBytesCache.find( "e" ) ).isNull();
+		assertThat( classBytesCache.getEntryCount() ).isEqualTo( 3 );
+	}
+}
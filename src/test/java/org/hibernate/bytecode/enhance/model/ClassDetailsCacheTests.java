@@ -0,0 +1,202 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeModelContextImpl;
+import org.hibernate.bytecode.enhance.model.interp.internal.ModelSourceHelper;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.AsmClassDetails;
+import org.hibernate.bytecode.enhance.model.source.internal.CachedClassDetails;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassDetailsImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class ClassDetailsCacheTests {
+	@Test
+	void testCachedEntryIsReused(@TempDir Path cacheDirectory) throws IOException {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setCacheDirectory( cacheDirectory );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( CachedEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( ClassDetailsImpl.class );
+		} );
+
+		assertThat( Files.exists( cacheDirectory.resolve( CachedEntity.class.getName() + ".cdc" ) ) ).isTrue();
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( CachedEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( CachedClassDetails.class );
+
+			assertThat( classDetails.getFields() ).hasSize( 2 );
+			assertThat( classDetails.getMethods() ).hasSize( 4 );
+			assertThat( classDetails.getIdentifierMember().getName() ).isEqualTo( "getId" );
+			assertThat( classDetails.getAnnotation( Access.class ).value() ).isEqualTo( AccessType.PROPERTY );
+			assertThat( classDetails.getFields().get( 1 ).getType().getClassName() ).isEqualTo( String.class.getName() );
+
+			// resolved from the cache entry rather than the getter bytecode
+			assertThat( classDetails.findGottenFieldName( "getName" ) ).isEqualTo( "theName" );
+
+			final List<PersistentAttribute> attributes = ModelSourceHelper.buildPersistentAttributeList(
+					classDetails,
+					null,
+					new ManagedTypeModelContextImpl( processingContext )
+			);
+			assertThat( attributes ).hasSize( 2 );
+			final PersistentAttribute nameAttribute = "name".equals( attributes.get( 0 ).getName() )
+					? attributes.get( 0 )
+					: attributes.get( 1 );
+			assertThat( nameAttribute.getUnderlyingField().getName() ).isEqualTo( "theName" );
+			assertThat( nameAttribute.getBackingMember().getAnnotation( Column.class ).name() ).isEqualTo( "entity_name" );
+		} );
+	}
+
+	@Test
+	void testStaleEntryIsRebuilt(@TempDir Path cacheDirectory) throws IOException {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setCacheDirectory( cacheDirectory );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			processingContext.getClassDetailsRegistry().resolveClassDetails( CachedEntity.class.getName() );
+		} );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			// simulate a recompiled class
+			final ClassFileLocatorImpl classFileLocator = (ClassFileLocatorImpl) processingContext.getClassFileLocator();
+			classFileLocator.stageClassBytes( CachedEntity.class.getName(), addField( CachedEntity.class ) );
+
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( CachedEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( ClassDetailsImpl.class );
+			assertThat( classDetails.getFields() ).hasSize( 3 );
+		} );
+	}
+
+	@Test
+	void testAsmBackendWithCache(@TempDir Path cacheDirectory) throws IOException {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setCacheDirectory( cacheDirectory );
+		options.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			// writing the entry for the sub-type resolves its super-type
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( CachedSubEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( AsmClassDetails.class );
+		} );
+
+		assertThat( Files.exists( cacheDirectory.resolve( CachedSubEntity.class.getName() + ".cdc" ) ) ).isTrue();
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( CachedSubEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( CachedClassDetails.class ).isNotInstanceOf( AsmClassDetails.class );
+			assertThat( classDetails.getFields() ).hasSize( 1 );
+			assertThat( classDetails.getSuperType().getClassName() ).isEqualTo( CachedEntity.class.getName() );
+		} );
+	}
+
+	@Test
+	void testJdkTypesAreNotCached(@TempDir Path cacheDirectory) throws IOException {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setCacheDirectory( cacheDirectory );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( CachedEntity.class.getName() );
+			assertThat( classDetails.getFields().get( 1 ).getType().getClassName() ).isEqualTo( String.class.getName() );
+		} );
+
+		assertThat( Files.exists( cacheDirectory.resolve( CachedEntity.class.getName() + ".cdc" ) ) ).isTrue();
+		assertThat( Files.exists( cacheDirectory.resolve( String.class.getName() + ".cdc" ) ) ).isFalse();
+		assertThat( Files.exists( cacheDirectory.resolve( Integer.class.getName() + ".cdc" ) ) ).isFalse();
+	}
+
+	private static byte[] addField(Class<?> type) {
+		try {
+			final ClassReader classReader = new ClassReader( type.getName() );
+			final ClassWriter classWriter = new ClassWriter( 0 );
+			classReader.accept(
+					new ClassVisitor( Opcodes.ASM9, classWriter ) {
+						@Override
+						public void visitEnd() {
+							visitField( Opcodes.ACC_PRIVATE, "added", "Ljava/lang/String;", null, null ).visitEnd();
+							super.visitEnd();
+						}
+					},
+					0
+			);
+			return classWriter.toByteArray();
+		}
+		catch (IOException e) {
+			throw new RuntimeException( e );
+		}
+	}
+
+	@Entity
+	@Access( AccessType.PROPERTY )
+	public static class CachedEntity {
+		private Integer id;
+		private String theName;
+
+		@Id
+		public Integer getId() {
+			return id;
+		}
+
+		public void setId(Integer id) {
+			this.id = id;
+		}
+
+		@Column( name = "entity_name" )
+		public String getName() {
+			return theName;
+		}
+
+		public void setName(String name) {
+			this.theName = name;
+		}
+	}
+
+	@Entity
+	public static class CachedSubEntity extends CachedEntity {
+		private String code;
+	}
+}
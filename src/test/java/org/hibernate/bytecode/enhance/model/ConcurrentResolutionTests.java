@@ -0,0 +1,230 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeDescriptorImpl;
+import org.hibernate.bytecode.enhance.model.interp.internal.ModelSourceHelper;
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeDescriptorRegistryImpl;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MappedSuperclass;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Steve Ebersole
+ */
+public class ConcurrentResolutionTests {
+	private static final int THREADS = 8;
+
+	@Test
+	void testConcurrentCyclicResolution() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final List<Callable<ClassDetails>> tasks = new ArrayList<>();
+			for ( int i = 0; i < THREADS; i++ ) {
+				// alternate the starting point so both sides of the cycle race
+				final String name = i % 2 == 0 ? Parent.class.getName() : Child.class.getName();
+				tasks.add( () -> processingContext.getClassDetailsRegistry().resolveClassDetails( name ) );
+			}
+
+			final List<ClassDetails> results = invokeAll( tasks );
+
+			final ClassDetails parentDetails = processingContext.getClassDetailsRegistry().getClassDetails( Parent.class.getName() );
+			final ClassDetails childDetails = processingContext.getClassDetailsRegistry().getClassDetails( Child.class.getName() );
+			for ( int i = 0; i < results.size(); i++ ) {
+				assertThat( results.get( i ) ).isSameAs( i % 2 == 0 ? parentDetails : childDetails );
+			}
+
+			// id, parent, child
+			assertThat( parentDetails.getFields() ).hasSize( 3 );
+			assertThat( parentDetails.getFields().get( 1 ).getType() ).isSameAs( parentDetails );
+			assertThat( parentDetails.getFields().get( 2 ).getType() ).isSameAs( childDetails );
+
+			// id, parent
+			assertThat( childDetails.getFields() ).hasSize( 2 );
+			assertThat( childDetails.getFields().get( 1 ).getType() ).isSameAs( parentDetails );
+		} );
+	}
+
+	@Test
+	void testConcurrentCyclicMemberAccess() {
+		for ( ModelProcessingOptions.ClassDetailsBackend backend : ModelProcessingOptions.ClassDetailsBackend.values() ) {
+			final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+			options.setClassDetailsBackend( backend );
+			// lazily, so the members are resolved by whichever thread reads them first
+			options.setLazyMemberResolution( true );
+
+			for ( int round = 0; round < 20; round++ ) {
+				Helper.withProcessingContext( options, (processingContext) -> {
+					final CountDownLatch start = new CountDownLatch( 1 );
+					final List<Callable<ClassDetails>> tasks = new ArrayList<>();
+					for ( int i = 0; i < THREADS; i++ ) {
+						final String name = i % 2 == 0 ? Parent.class.getName() : Child.class.getName();
+						tasks.add( () -> {
+							start.await();
+							final ClassDetails classDetails = processingContext.getClassDetailsRegistry().resolveClassDetails( name );
+							// walk the cycle while the other side is (possibly) still being resolved
+							classDetails.getFields().get( 1 ).getType().getFields();
+							return classDetails;
+						} );
+					}
+					start.countDown();
+
+					final List<ClassDetails> results = invokeAll( tasks );
+
+					final ClassDetails parentDetails = processingContext.getClassDetailsRegistry().getClassDetails( Parent.class.getName() );
+					final ClassDetails childDetails = processingContext.getClassDetailsRegistry().getClassDetails( Child.class.getName() );
+					for ( int i = 0; i < results.size(); i++ ) {
+						assertThat( results.get( i ) ).isSameAs( i % 2 == 0 ? parentDetails : childDetails );
+					}
+					assertThat( parentDetails.getFields() ).hasSize( 3 );
+					assertThat( parentDetails.getFields().get( 2 ).getType() ).isSameAs( childDetails );
+					assertThat( childDetails.getFields() ).hasSize( 2 );
+					assertThat( childDetails.getFields().get( 1 ).getType() ).isSameAs( parentDetails );
+				} );
+			}
+		}
+	}
+
+	@Test
+	void testFailedResolutionIsNotRegistered() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final String name = MismatchedIdEntity.class.getName();
+			assertThatThrownBy( () -> processingContext.getClassDetailsRegistry().resolveClassDetails( name ) )
+					.isInstanceOf( ByteBuddyModelException.class );
+			assertThat( processingContext.getClassDetailsRegistry().findClassDetails( name ) ).isNull();
+
+			// attempted again, rather than handing out a reference without members
+			assertThatThrownBy( () -> processingContext.getClassDetailsRegistry().resolveClassDetails( name ) )
+					.isInstanceOf( ByteBuddyModelException.class );
+		} );
+	}
+
+	@Test
+	void testConcurrentDescriptorResolution() {
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			final ManagedTypeDescriptorRegistryImpl descriptorRegistry = (ManagedTypeDescriptorRegistryImpl) modelContext.getDescriptorRegistry();
+			final List<Callable<ManagedTypeDescriptor>> tasks = new ArrayList<>();
+			for ( int i = 0; i < THREADS; i++ ) {
+				// sub-types only, so the shared super-type is resolved as part of each build
+				final String name = i % 2 == 0 ? FirstSubEntity.class.getName() : SecondSubEntity.class.getName();
+				tasks.add( () -> descriptorRegistry.resolveDescriptor( name ) );
+			}
+
+			final List<ManagedTypeDescriptor> results = invokeAll( tasks );
+
+			final ManagedTypeDescriptor baseDescriptor = descriptorRegistry.getDescriptor( BaseMapping.class.getName() );
+			final ManagedTypeDescriptor firstDescriptor = descriptorRegistry.getDescriptor( FirstSubEntity.class.getName() );
+			final ManagedTypeDescriptor secondDescriptor = descriptorRegistry.getDescriptor( SecondSubEntity.class.getName() );
+			for ( int i = 0; i < results.size(); i++ ) {
+				assertThat( results.get( i ) ).isSameAs( i % 2 == 0 ? firstDescriptor : secondDescriptor );
+			}
+			assertThat( ( (ManagedTypeDescriptorImpl) firstDescriptor ).getSuperTypeDescriptor() ).isSameAs( baseDescriptor );
+			assertThat( ( (ManagedTypeDescriptorImpl) secondDescriptor ).getSuperTypeDescriptor() ).isSameAs( baseDescriptor );
+
+			final List<String> descriptorNames = descriptorRegistry.getDescriptorNames();
+			assertThat( descriptorNames ).hasSize( 3 );
+			assertThat( descriptorNames.get( 0 ) ).isEqualTo( BaseMapping.class.getName() );
+		} );
+	}
+
+	@Test
+	void testPublishedDescriptorIsNeverReplaced() {
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			final ManagedTypeDescriptorRegistryImpl descriptorRegistry = (ManagedTypeDescriptorRegistryImpl) modelContext.getDescriptorRegistry();
+			final ManagedTypeDescriptor published = descriptorRegistry.resolveDescriptor( BaseMapping.class.getName() );
+
+			final ManagedTypeDescriptor duplicate = new ManagedTypeDescriptorImpl(
+					published.getClassDetails(),
+					ModelSourceHelper.buildPersistentAttributeList( published.getClassDetails(), null, modelContext ),
+					modelContext
+			);
+			assertThat( descriptorRegistry.addDescriptor( duplicate ) ).isSameAs( published );
+			assertThat( descriptorRegistry.getDescriptor( BaseMapping.class.getName() ) ).isSameAs( published );
+			assertThat( descriptorRegistry.getDescriptorNames() ).containsExactly( BaseMapping.class.getName() );
+		} );
+	}
+
+	private static <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		final ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+		try {
+			final List<T> results = new ArrayList<>( tasks.size() );
+			for ( Future<T> future : executor.invokeAll( tasks ) ) {
+				results.add( future.get() );
+			}
+			return results;
+		}
+		catch (Exception e) {
+			throw new RuntimeException( e );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Entity
+	public static class Parent {
+		@Id
+		private Integer id;
+		@ManyToOne
+		private Parent parent;
+		@ManyToOne
+		private Child child;
+	}
+
+	@Entity
+	public static class Child {
+		@Id
+		private Integer id;
+		@ManyToOne
+		private Parent parent;
+	}
+
+	@MappedSuperclass
+	public static class BaseMapping {
+		@Id
+		private Integer id;
+	}
+
+	@Entity
+	public static class FirstSubEntity extends BaseMapping {
+		private String name;
+	}
+
+	@Entity
+	public static class SecondSubEntity extends BaseMapping {
+		private String description;
+	}
+
+	@Entity
+	public static class MismatchedIdEntity {
+		@Id
+		private Integer id;
+
+		@Id
+		public Integer getId() {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,450 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import jakarta.persistence.AccessType;
+
+/**
+ * Generates synthetic domain models for testing and benchmarking model building at the scale
+ * of real applications.  The class files exist only in memory and are meant to be
+ * {@linkplain ClassFileLocatorImpl#stageClassBytes(Map) staged} with a locator.
+ * <p/>
+ * Each hierarchy is a chain of {@code hierarchyDepth - 1} {@code @MappedSuperclass} types, the
+ * root of which declares the {@code @Id} and {@code @Version}, extended by {@code entitiesPerHierarchy}
+ * {@code @Entity} types.  Every type declares {@code attributesPerClass} basic attributes, each
+ * a field with a getter and setter, and every entity declares {@code associationsPerEntity}
+ * {@code @ManyToOne} or {@code @OneToMany} associations to randomly chosen entities.  Beyond that -<ul>
+ *     <li>{@code propertyAccessRatio} - the share of hierarchies using property access, i.e. with the {@code @Id} on the getter</li>
+ *     <li>{@code classAccessOverrideRatio} - the share of non-root types specifying the other access type
+ *     for themselves and their sub-types through a class-level {@code @Access}</li>
+ *     <li>{@code accessOverrideRatio} - the share of basic attributes specifying the other access type
+ *     through an attribute-level {@code @Access}, the member not used being {@code @Transient}</li>
+ *     <li>{@code oddGetterRatio} - the share of basic attributes whose getter name does not match the
+ *     field, e.g. {@code getPrimaryName} for {@code name}, which forces bytecode analysis for property access</li>
+ * </ul>
+ * All choices are driven by a {@linkplain #setSeed seeded} random, so a configuration always
+ * generates the same model.
+ *
+ * @author Steve Ebersole
+ */
+public class DomainModelGenerator {
+	private static final String OBJECT = "java/lang/Object";
+	private static final String[] BASIC_TYPES = {
+			"Ljava/lang/String;",
+			"Ljava/lang/Integer;",
+			"Ljava/lang/Long;",
+			"Z"
+	};
+	private static final String LIST = "Ljava/util/List;";
+
+	private static final String ENTITY = "Ljakarta/persistence/Entity;";
+	private static final String MAPPED_SUPERCLASS = "Ljakarta/persistence/MappedSuperclass;";
+	private static final String ID = "Ljakarta/persistence/Id;";
+	private static final String VERSION = "Ljakarta/persistence/Version;";
+	private static final String MANY_TO_ONE = "Ljakarta/persistence/ManyToOne;";
+	private static final String ONE_TO_MANY = "Ljakarta/persistence/OneToMany;";
+	private static final String TRANSIENT = "Ljakarta/persistence/Transient;";
+	private static final String ACCESS = "Ljakarta/persistence/Access;";
+	private static final String ACCESS_TYPE = "Ljakarta/persistence/AccessType;";
+
+	private String packageName = "org.hibernate.bytecode.enhance.model.generated";
+	private int entityCount = 100;
+	private int hierarchyDepth = 1;
+	private int entitiesPerHierarchy = 1;
+	private int attributesPerClass = 10;
+	private int associationsPerEntity = 2;
+	private double toManyRatio = 0.3;
+	private double propertyAccessRatio = 0.5;
+	private double classAccessOverrideRatio;
+	private double accessOverrideRatio = 0.1;
+	private double oddGetterRatio = 0.1;
+	private long seed;
+
+	public void setPackageName(String packageName) {
+		this.packageName = packageName;
+	}
+
+	public void setEntityCount(int entityCount) {
+		this.entityCount = entityCount;
+	}
+
+	/**
+	 * The number of types in each hierarchy, the entities included
+	 */
+	public void setHierarchyDepth(int hierarchyDepth) {
+		this.hierarchyDepth = hierarchyDepth;
+	}
+
+	/**
+	 * The number of entities sharing the super-types of a hierarchy
+	 */
+	public void setEntitiesPerHierarchy(int entitiesPerHierarchy) {
+		this.entitiesPerHierarchy = entitiesPerHierarchy;
+	}
+
+	public void setAttributesPerClass(int attributesPerClass) {
+		this.attributesPerClass = attributesPerClass;
+	}
+
+	public void setAssociationsPerEntity(int associationsPerEntity) {
+		this.associationsPerEntity = associationsPerEntity;
+	}
+
+	/**
+	 * The share of associations which are {@code @OneToMany} rather than {@code @ManyToOne}
+	 */
+	public void setToManyRatio(double toManyRatio) {
+		this.toManyRatio = toManyRatio;
+	}
+
+	public void setPropertyAccessRatio(double propertyAccessRatio) {
+		this.propertyAccessRatio = propertyAccessRatio;
+	}
+
+	public void setClassAccessOverrideRatio(double classAccessOverrideRatio) {
+		this.classAccessOverrideRatio = classAccessOverrideRatio;
+	}
+
+	public void setAccessOverrideRatio(double accessOverrideRatio) {
+		this.accessOverrideRatio = accessOverrideRatio;
+	}
+
+	public void setOddGetterRatio(double oddGetterRatio) {
+		this.oddGetterRatio = oddGetterRatio;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public GeneratedModel generate() {
+		if ( entityCount < 1 || hierarchyDepth < 1 || entitiesPerHierarchy < 1 ) {
+			throw new IllegalArgumentException(
+					String.format(
+							"Entity count, hierarchy depth and entities per hierarchy must be at least 1 : %s, %s, %s",
+							entityCount,
+							hierarchyDepth,
+							entitiesPerHierarchy
+					)
+			);
+		}
+
+		final String packagePrefix = packageName.replace( '.', '/' ) + '/';
+		final int hierarchyCount = ( entityCount + entitiesPerHierarchy - 1 ) / entitiesPerHierarchy;
+
+		// all entities are known up-front, as association targets
+		final List<String> entityNames = new ArrayList<>( entityCount );
+		for ( int hierarchy = 0; hierarchy < hierarchyCount; hierarchy++ ) {
+			final int entities = Math.min( entitiesPerHierarchy, entityCount - hierarchy * entitiesPerHierarchy );
+			for ( int entity = 0; entity < entities; entity++ ) {
+				entityNames.add( packageName + ".Hierarchy" + hierarchy + "Entity" + entity );
+			}
+		}
+
+		final Generation generation = new Generation( new Random( seed ), entityNames );
+		int entityPosition = 0;
+		for ( int hierarchy = 0; hierarchy < hierarchyCount; hierarchy++ ) {
+			AccessType accessType = generation.random.nextDouble() < propertyAccessRatio
+					? AccessType.PROPERTY
+					: AccessType.FIELD;
+
+			String superInternalName = OBJECT;
+			for ( int level = 0; level < hierarchyDepth - 1; level++ ) {
+				final String internalName = packagePrefix + "Hierarchy" + hierarchy + "Level" + level;
+				final AccessType classAccessType = generation.nextClassAccessType( level, accessType );
+				if ( classAccessType != null ) {
+					accessType = classAccessType;
+				}
+				generation.generateClass(
+						internalName,
+						superInternalName,
+						false,
+						level,
+						accessType,
+						classAccessType
+				);
+				superInternalName = internalName;
+			}
+
+			final int entities = Math.min( entitiesPerHierarchy, entityCount - hierarchy * entitiesPerHierarchy );
+			for ( int entity = 0; entity < entities; entity++ ) {
+				final String internalName = entityNames.get( entityPosition++ ).replace( '.', '/' );
+				final AccessType classAccessType = generation.nextClassAccessType( hierarchyDepth - 1, accessType );
+				generation.generateClass(
+						internalName,
+						superInternalName,
+						true,
+						hierarchyDepth - 1,
+						classAccessType == null ? accessType : classAccessType,
+						classAccessType
+				);
+			}
+		}
+
+		return new GeneratedModel(
+				Collections.unmodifiableMap( generation.classBytes ),
+				Collections.unmodifiableList( new ArrayList<>( generation.classBytes.keySet() ) ),
+				Collections.unmodifiableList( entityNames ),
+				2 + hierarchyDepth * attributesPerClass + associationsPerEntity,
+				generation.accessOverrideCount
+		);
+	}
+
+	private static AccessType opposite(AccessType accessType) {
+		return accessType == AccessType.FIELD ? AccessType.PROPERTY : AccessType.FIELD;
+	}
+
+	private static String capitalize(String name) {
+		return Character.toUpperCase( name.charAt( 0 ) ) + name.substring( 1 );
+	}
+
+	private static void visitAccess(AnnotationVisitor accessVisitor, AccessType accessType) {
+		accessVisitor.visitEnum( "value", ACCESS_TYPE, accessType.name() );
+		accessVisitor.visitEnd();
+	}
+
+	/**
+	 * The state of a single {@link #generate()} call
+	 */
+	private class Generation {
+		private final Random random;
+		private final List<String> entityNames;
+		private final Map<String, byte[]> classBytes = new LinkedHashMap<>();
+
+		private int accessOverrideCount;
+
+		private Generation(Random random, List<String> entityNames) {
+			this.random = random;
+			this.entityNames = entityNames;
+		}
+
+		/**
+		 * The access type specified through a class-level {@code @Access}, if any
+		 */
+		private AccessType nextClassAccessType(int level, AccessType accessType) {
+			if ( level > 0 && random.nextDouble() < classAccessOverrideRatio ) {
+				return opposite( accessType );
+			}
+			return null;
+		}
+
+		private void generateClass(
+				String internalName,
+				String superInternalName,
+				boolean isEntity,
+				int level,
+				AccessType accessType,
+				AccessType classAccessType) {
+			final ClassWriter classWriter = new ClassWriter( ClassWriter.COMPUTE_MAXS );
+			classWriter.visit( Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, superInternalName, null );
+			classWriter.visitAnnotation( isEntity ? ENTITY : MAPPED_SUPERCLASS, true ).visitEnd();
+			if ( classAccessType != null ) {
+				visitAccess( classWriter.visitAnnotation( ACCESS, true ), classAccessType );
+			}
+
+			final MethodVisitor constructor = classWriter.visitMethod( Opcodes.ACC_PUBLIC, "<init>", "()V", null, null );
+			constructor.visitCode();
+			constructor.visitVarInsn( Opcodes.ALOAD, 0 );
+			constructor.visitMethodInsn( Opcodes.INVOKESPECIAL, superInternalName, "<init>", "()V", false );
+			constructor.visitInsn( Opcodes.RETURN );
+			constructor.visitMaxs( 0, 0 );
+			constructor.visitEnd();
+
+			if ( OBJECT.equals( superInternalName ) ) {
+				generateAttribute( classWriter, internalName, accessType, "id", "Ljava/lang/Long;", null, ID, false );
+				generateAttribute( classWriter, internalName, accessType, "version", "Ljava/lang/Integer;", null, VERSION, false );
+			}
+
+			for ( int i = 0; i < attributesPerClass; i++ ) {
+				generateAttribute(
+						classWriter,
+						internalName,
+						accessType,
+						"level" + level + "Attribute" + i,
+						BASIC_TYPES[ i % BASIC_TYPES.length ],
+						null,
+						null,
+						true
+				);
+			}
+
+			if ( isEntity ) {
+				for ( int i = 0; i < associationsPerEntity; i++ ) {
+					final String targetName = entityNames.get( random.nextInt( entityNames.size() ) );
+					final String targetDescriptor = "L" + targetName.replace( '.', '/' ) + ";";
+					if ( random.nextDouble() < toManyRatio ) {
+						final String signature = "Ljava/util/List<" + targetDescriptor + ">;";
+						generateAttribute( classWriter, internalName, accessType, "collection" + i, LIST, signature, ONE_TO_MANY, false );
+					}
+					else {
+						generateAttribute( classWriter, internalName, accessType, "reference" + i, targetDescriptor, null, MANY_TO_ONE, false );
+					}
+				}
+			}
+
+			classWriter.visitEnd();
+			classBytes.put( internalName.replace( '/', '.' ), classWriter.toByteArray() );
+		}
+
+		private void generateAttribute(
+				ClassWriter classWriter,
+				String owner,
+				AccessType accessType,
+				String fieldName,
+				String descriptor,
+				String signature,
+				String mappingAnnotation,
+				boolean allowVariation) {
+			// always draw both, so the choices for the rest of the model do not depend on these
+			final boolean accessOverride = allowVariation & random.nextDouble() < accessOverrideRatio;
+			final boolean oddGetter = allowVariation & random.nextDouble() < oddGetterRatio;
+			final AccessType attributeAccessType = accessOverride ? opposite( accessType ) : accessType;
+			if ( accessOverride ) {
+				accessOverrideCount++;
+			}
+
+			final String accessorStem = oddGetter ? "Primary" + capitalize( fieldName ) : capitalize( fieldName );
+			final String getterName = ( "Z".equals( descriptor ) ? "is" : "get" ) + accessorStem;
+			final Type type = Type.getType( descriptor );
+
+			final FieldVisitor field = classWriter.visitField( Opcodes.ACC_PRIVATE, fieldName, descriptor, signature, null );
+			if ( attributeAccessType == AccessType.FIELD ) {
+				if ( mappingAnnotation != null ) {
+					field.visitAnnotation( mappingAnnotation, true ).visitEnd();
+				}
+				if ( accessOverride ) {
+					visitAccess( field.visitAnnotation( ACCESS, true ), AccessType.FIELD );
+				}
+			}
+			else if ( accessOverride ) {
+				field.visitAnnotation( TRANSIENT, true ).visitEnd();
+			}
+			field.visitEnd();
+
+			final MethodVisitor getter = classWriter.visitMethod(
+					Opcodes.ACC_PUBLIC,
+					getterName,
+					"()" + descriptor,
+					signature == null ? null : "()" + signature,
+					null
+			);
+			if ( attributeAccessType == AccessType.PROPERTY ) {
+				if ( mappingAnnotation != null ) {
+					getter.visitAnnotation( mappingAnnotation, true ).visitEnd();
+				}
+				if ( accessOverride ) {
+					visitAccess( getter.visitAnnotation( ACCESS, true ), AccessType.PROPERTY );
+				}
+			}
+			else if ( accessOverride ) {
+				getter.visitAnnotation( TRANSIENT, true ).visitEnd();
+			}
+			getter.visitCode();
+			getter.visitVarInsn( Opcodes.ALOAD, 0 );
+			getter.visitFieldInsn( Opcodes.GETFIELD, owner, fieldName, descriptor );
+			getter.visitInsn( type.getOpcode( Opcodes.IRETURN ) );
+			getter.visitMaxs( 0, 0 );
+			getter.visitEnd();
+
+			final MethodVisitor setter = classWriter.visitMethod(
+					Opcodes.ACC_PUBLIC,
+					"set" + accessorStem,
+					"(" + descriptor + ")V",
+					signature == null ? null : "(" + signature + ")V",
+					null
+			);
+			setter.visitCode();
+			setter.visitVarInsn( Opcodes.ALOAD, 0 );
+			setter.visitVarInsn( type.getOpcode( Opcodes.ILOAD ), 1 );
+			setter.visitFieldInsn( Opcodes.PUTFIELD, owner, fieldName, descriptor );
+			setter.visitInsn( Opcodes.RETURN );
+			setter.visitMaxs( 0, 0 );
+			setter.visitEnd();
+		}
+	}
+
+	/**
+	 * The class files of a generated domain model
+	 */
+	public static class GeneratedModel {
+		private final Map<String, byte[]> classBytes;
+		private final List<String> classNames;
+		private final List<String> entityNames;
+		private final int attributeCount;
+		private final int accessOverrideCount;
+
+		private GeneratedModel(
+				Map<String, byte[]> classBytes,
+				List<String> classNames,
+				List<String> entityNames,
+				int attributeCount,
+				int accessOverrideCount) {
+			this.classBytes = classBytes;
+			this.classNames = classNames;
+			this.entityNames = entityNames;
+			this.attributeCount = attributeCount;
+			this.accessOverrideCount = accessOverrideCount;
+		}
+
+		/**
+		 * The class files, keyed by class name, super-types before their sub-types
+		 */
+		public Map<String, byte[]> getClassBytes() {
+			return classBytes;
+		}
+
+		/**
+		 * The names of all generated classes, super-types before their sub-types
+		 */
+		public List<String> getClassNames() {
+			return classNames;
+		}
+
+		public List<String> getEntityNames() {
+			return entityNames;
+		}
+
+		/**
+		 * The number of persistent attributes of each entity, inherited ones included
+		 */
+		public int getAttributeCount() {
+			return attributeCount;
+		}
+
+		/**
+		 * The number of attributes specifying their access type through an attribute-level {@code @Access}
+		 */
+		public int getAccessOverrideCount() {
+			return accessOverrideCount;
+		}
+
+		/**
+		 * A locator with this model's classes staged, backed by the class loader of this library
+		 */
+		public ClassFileLocatorImpl createClassFileLocator() {
+			final ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl( DomainModelGenerator.class.getClassLoader() );
+			classFileLocator.stageClassBytes( classBytes );
+			return classFileLocator;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.beans.Introspector;
+
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptorRegistry;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Building the descriptors of a generated domain model
+ *
+ * @author Steve Ebersole
+ */
+public class DomainModelGeneratorTests {
+	@Test
+	void testGenerationIsRepeatable() {
+		final DomainModelGenerator generator = createGenerator();
+		final DomainModelGenerator.GeneratedModel model = generator.generate();
+		final DomainModelGenerator.GeneratedModel again = generator.generate();
+
+		assertThat( again.getClassNames() ).isEqualTo( model.getClassNames() );
+		assertThat( again.getAccessOverrideCount() ).isEqualTo( model.getAccessOverrideCount() );
+		for ( String className : model.getClassNames() ) {
+			assertThat( again.getClassBytes().get( className ) ).isEqualTo( model.getClassBytes().get( className ) );
+		}
+
+		// 100 entities, 25 hierarchies of 2 mapped-superclasses
+		assertThat( model.getEntityNames() ).hasSize( 100 );
+		assertThat( model.getClassNames() ).hasSize( 150 );
+		assertThat( model.getAccessOverrideCount() ).isPositive();
+	}
+
+	@Test
+	void testDescriptorResolution() {
+		final DomainModelGenerator.GeneratedModel model = createGenerator().generate();
+		verifyDescriptors( model, ModelProcessingOptions.ClassDetailsBackend.BYTE_BUDDY );
+		verifyDescriptors( model, ModelProcessingOptions.ClassDetailsBackend.ASM );
+	}
+
+	private static DomainModelGenerator createGenerator() {
+		final DomainModelGenerator generator = new DomainModelGenerator();
+		generator.setEntityCount( 100 );
+		generator.setHierarchyDepth( 3 );
+		generator.setEntitiesPerHierarchy( 4 );
+		generator.setAttributesPerClass( 8 );
+		generator.setPropertyAccessRatio( 0.5 );
+		generator.setClassAccessOverrideRatio( 0.2 );
+		generator.setAccessOverrideRatio( 0.2 );
+		generator.setOddGetterRatio( 0.2 );
+		return generator;
+	}
+
+	private static void verifyDescriptors(
+			DomainModelGenerator.GeneratedModel model,
+			ModelProcessingOptions.ClassDetailsBackend backend) {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( backend );
+		Helper.withManagedTypeModelContext( options, (modelContext) -> {
+			( (ClassFileLocatorImpl) modelContext.getModelProcessingContext().getClassFileLocator() )
+					.stageClassBytes( model.getClassBytes() );
+			final ManagedTypeDescriptorRegistry descriptorRegistry = modelContext.getDescriptorRegistry();
+
+			for ( String entityName : model.getEntityNames() ) {
+				final ManagedTypeDescriptor descriptor = descriptorRegistry.resolveDescriptor( entityName );
+				assertThat( descriptor.getAttributeCount() ).isEqualTo( model.getAttributeCount() );
+			}
+
+			// every class is resolved by now, as an entity or one of its super-types
+			int explicitAccessCount = 0;
+			for ( String className : model.getClassNames() ) {
+				final ManagedTypeDescriptor descriptor = descriptorRegistry.resolveDescriptor( className );
+				for ( PersistentAttribute attribute : descriptor.getPersistentAttributes().values() ) {
+					assertThat( attribute.getUnderlyingField() ).isNotNull();
+					if ( attribute.isAccessTypeExplicit() ) {
+						explicitAccessCount++;
+					}
+					if ( attribute.getName().startsWith( "primary" ) ) {
+						// an odd getter, resolved through bytecode analysis
+						assertThat( attribute.getUnderlyingField().getName() )
+								.isEqualTo( Introspector.decapitalize( attribute.getName().substring( "primary".length() ) ) );
+					}
+					else {
+						assertThat( attribute.getUnderlyingField().getName() ).isEqualTo( attribute.getName() );
+					}
+				}
+			}
+			assertThat( explicitAccessCount ).isEqualTo( model.getAccessOverrideCount() );
+		} );
+	}
+}
@@ -11,9 +11,10 @@ import java.util.function.Consumer;
 import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeModelContextImpl;
 import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeModelContext;
 import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.EvictableTypePool;
 import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
-
-import net.bytebuddy.pool.TypePool;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
 
 /**
  * @author Steve Ebersole
@@ -24,10 +25,22 @@ public class Helper {
 	}
 
 	public static void withProcessingContext(ClassLoader classLoader, Consumer<ModelProcessingContextImpl> action) {
+		withProcessingContext( classLoader, new ModelProcessingOptionsImpl(), action );
+	}
+
+	public static void withProcessingContext(ModelProcessingOptions options, Consumer<ModelProcessingContextImpl> action) {
+		withProcessingContext( Helper.class.getClassLoader(), options, action );
+	}
+
+	public static void withProcessingContext(
+			ClassLoader classLoader,
+			ModelProcessingOptions options,
+			Consumer<ModelProcessingContextImpl> action) {
 		try (ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl( classLoader )) {
 			final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
 					classFileLocator,
-					TypePool.Default.WithLazyResolution.of( classFileLocator )
+					new EvictableTypePool( classFileLocator ),
+					options
 			);
 
 			action.accept( processingContext );
@@ -39,10 +52,22 @@ public class Helper {
 	}
 
 	public static void withManagedTypeModelContext(ClassLoader classLoader, Consumer<ManagedTypeModelContext> action) {
+		withManagedTypeModelContext( classLoader, new ModelProcessingOptionsImpl(), action );
+	}
+
+	public static void withManagedTypeModelContext(ModelProcessingOptions options, Consumer<ManagedTypeModelContext> action) {
+		withManagedTypeModelContext( Helper.class.getClassLoader(), options, action );
+	}
+
+	public static void withManagedTypeModelContext(
+			ClassLoader classLoader,
+			ModelProcessingOptions options,
+			Consumer<ManagedTypeModelContext> action) {
 		try (ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl( classLoader )) {
 			final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
 					classFileLocator,
-					TypePool.Default.WithLazyResolution.of( classFileLocator )
+					new EvictableTypePool( classFileLocator ),
+					options
 			);
 			action.accept( new ManagedTypeModelContextImpl( processingContext ) );
 		}
@@ -0,0 +1,135 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeDescriptorRegistryImpl;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassDetailsRegistryImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsBuilder;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import net.bytebuddy.pool.TypePool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Steve Ebersole
+ */
+public class InvalidationTests {
+	@Test
+	void testClassDetailsInvalidation() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final ClassDetailsRegistryImpl classDetailsRegistry = processingContext.getClassDetailsRegistry();
+			final ClassDetails child = classDetailsRegistry.resolveClassDetails( ChildEntity.class.getName() );
+			final ClassDetails unrelated = classDetailsRegistry.resolveClassDetails( UnrelatedEntity.class.getName() );
+
+			final Set<String> evicted = classDetailsRegistry.invalidate( List.of( BaseEntity.class.getName() ) );
+			assertThat( evicted ).containsExactly( BaseEntity.class.getName(), ChildEntity.class.getName() );
+
+			assertThat( classDetailsRegistry.findClassDetails( ChildEntity.class.getName() ) ).isNull();
+			assertThat( classDetailsRegistry.resolveClassDetails( ChildEntity.class.getName() ) ).isNotSameAs( child );
+			assertThat( classDetailsRegistry.findClassDetails( UnrelatedEntity.class.getName() ) ).isSameAs( unrelated );
+		} );
+	}
+
+	@Test
+	void testOnlyEvictedTypesAreDescribedAgain() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final ClassDetailsRegistryImpl classDetailsRegistry = processingContext.getClassDetailsRegistry();
+			classDetailsRegistry.resolveClassDetails( ChildEntity.class.getName() );
+			classDetailsRegistry.resolveClassDetails( UnrelatedEntity.class.getName() );
+
+			final TypePool typePool = processingContext.getTypePool();
+			final TypePool.Resolution child = typePool.describe( ChildEntity.class.getName() );
+			final TypePool.Resolution unrelated = typePool.describe( UnrelatedEntity.class.getName() );
+
+			classDetailsRegistry.invalidate( List.of( BaseEntity.class.getName() ) );
+
+			assertThat( typePool.describe( ChildEntity.class.getName() ) ).isNotSameAs( child );
+			assertThat( typePool.describe( UnrelatedEntity.class.getName() ) ).isSameAs( unrelated );
+		} );
+	}
+
+	@Test
+	void testInvalidationDuringCreationFails() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final ClassDetailsRegistryImpl[] registry = new ClassDetailsRegistryImpl[1];
+			final ClassDetailsBuilder invalidatingBuilder = (name, context) -> {
+				registry[0].invalidate( List.of( BaseEntity.class.getName() ) );
+				return processingContext.getClassDetailsRegistry().resolveClassDetails( name );
+			};
+			registry[0] = new ClassDetailsRegistryImpl( invalidatingBuilder, processingContext );
+
+			assertThatThrownBy( () -> registry[0].resolveClassDetails( UnrelatedEntity.class.getName() ) )
+					.isInstanceOf( ByteBuddyModelException.class );
+			assertThat( registry[0].findClassDetails( UnrelatedEntity.class.getName() ) ).isNull();
+		} );
+	}
+
+	@Test
+	void testDescriptorInvalidation() {
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			final ManagedTypeDescriptorRegistryImpl descriptorRegistry = (ManagedTypeDescriptorRegistryImpl) modelContext.getDescriptorRegistry();
+			descriptorRegistry.resolveDescriptor( BaseEntity.class.getName() );
+			final ManagedTypeDescriptor child = descriptorRegistry.resolveDescriptor( ChildEntity.class.getName() );
+			final ManagedTypeDescriptor addressHolder = descriptorRegistry.resolveDescriptor( AddressHolderEntity.class.getName() );
+			final ManagedTypeDescriptor unrelated = descriptorRegistry.resolveDescriptor( UnrelatedEntity.class.getName() );
+
+			// a change to the embeddable affects the entity referencing it
+			final List<String> rebuiltForAddress = descriptorRegistry.invalidate( List.of( Address.class.getName() ) );
+			assertThat( rebuiltForAddress ).containsExactly( AddressHolderEntity.class.getName() );
+			assertThat( descriptorRegistry.getDescriptor( AddressHolderEntity.class.getName() ) ).isNotSameAs( addressHolder );
+
+			// a change to the super-type affects the sub-type
+			final List<String> rebuiltForBase = descriptorRegistry.invalidate( List.of( BaseEntity.class.getName() ) );
+			assertThat( rebuiltForBase ).containsExactly( BaseEntity.class.getName(), ChildEntity.class.getName() );
+			assertThat( descriptorRegistry.getDescriptor( ChildEntity.class.getName() ) ).isNotSameAs( child );
+
+			assertThat( descriptorRegistry.getDescriptor( UnrelatedEntity.class.getName() ) ).isSameAs( unrelated );
+		} );
+	}
+
+	@MappedSuperclass
+	public static class BaseEntity {
+		@Id
+		private Integer id;
+	}
+
+	@Entity
+	public static class ChildEntity extends BaseEntity {
+		private String name;
+	}
+
+	@Embeddable
+	public static class Address {
+		private String street;
+	}
+
+	@Entity
+	public static class AddressHolderEntity {
+		@Id
+		private Integer id;
+		private Address address;
+	}
+
+	@Entity
+	public static class UnrelatedEntity {
+		@Id
+		private Integer id;
+		private String name;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ModelSourceHelper;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeModelContext;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.AsmClassDetails;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassDetailsImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.AnnotationTarget;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.jboss.jandex.Index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class JandexClassDetailsTests {
+	@Test
+	void testIndexedClassDetails() throws IOException {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setJandexIndex( Index.of( SimplePropertyEntity.class ) );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( SimplePropertyEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( AsmClassDetails.class );
+			assertThat( classDetails.getAnnotation( Entity.class ).name() ).isEqualTo( "AnEntity" );
+			assertThat( classDetails.getAnnotation( Table.class ).name() ).isEqualTo( "AnEntity" );
+			assertThat( classDetails.getIdentifierMember() ).isNotNull();
+			assertThat( classDetails.getIdentifierMember().getKind() ).isEqualTo( AnnotationTarget.Kind.METHOD );
+
+			// not in the index
+			final ClassDetails unindexed = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( SimpleFieldEntity.class.getName() );
+			assertThat( unindexed ).isInstanceOf( ClassDetailsImpl.class );
+		} );
+	}
+
+	@Test
+	void testGetterAnalysisFallsBackToBytecode() throws IOException {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setJandexIndex( Index.of( OddNamingTests.OddNamingEntity.class ) );
+
+		Helper.withManagedTypeModelContext( options, (managedTypeContext) -> {
+			final ClassDetails classDetails = managedTypeContext
+					.getModelProcessingContext()
+					.getClassDetailsRegistry()
+					.resolveClassDetails( OddNamingTests.OddNamingEntity.class.getName() );
+			assertThat( classDetails ).isInstanceOf( AsmClassDetails.class );
+
+			final List<PersistentAttribute> persistentAttributes = ModelSourceHelper.buildPersistentAttributeList(
+					classDetails,
+					null,
+					managedTypeContext
+			);
+			assertThat( persistentAttributes ).hasSize( 2 );
+			for ( PersistentAttribute persistentAttribute : persistentAttributes ) {
+				if ( "primaryName".equals( persistentAttribute.getName() ) ) {
+					assertThat( persistentAttribute.getUnderlyingField().getName() ).isEqualTo( "name" );
+				}
+			}
+		} );
+	}
+
+	@Test
+	void testDeclarationOrderMatchesByteBuddy() throws IOException {
+		final List<String> byteBuddyOrder = new ArrayList<>();
+		Helper.withManagedTypeModelContext( (managedTypeContext) -> {
+			describeOrder( managedTypeContext, byteBuddyOrder );
+		} );
+
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setJandexIndex( Index.of( UnsortedEntity.class ) );
+		final List<String> jandexOrder = new ArrayList<>();
+		Helper.withManagedTypeModelContext( options, (managedTypeContext) -> {
+			describeOrder( managedTypeContext, jandexOrder );
+		} );
+
+		assertThat( jandexOrder ).isEqualTo( byteBuddyOrder );
+		assertThat( jandexOrder ).startsWith( "field zeta", "field alpha", "field mid" );
+	}
+
+	private static void describeOrder(ManagedTypeModelContext managedTypeContext, List<String> order) {
+		final ClassDetails classDetails = managedTypeContext
+				.getModelProcessingContext()
+				.getClassDetailsRegistry()
+				.resolveClassDetails( UnsortedEntity.class.getName() );
+		for ( FieldDetails field : classDetails.getFields() ) {
+			order.add( "field " + field.getName() );
+		}
+		for ( MethodDetails method : classDetails.getMethods() ) {
+			order.add( "method " + method.getName() );
+		}
+		for ( PersistentAttribute attribute : ModelSourceHelper.buildPersistentAttributeList( classDetails, null, managedTypeContext ) ) {
+			order.add( "attribute " + attribute.getName() );
+		}
+	}
+
+	@Entity
+	public static class UnsortedEntity {
+		private String zeta;
+		@Id
+		private Integer alpha;
+		private String mid;
+
+		public String getZeta() {
+			return zeta;
+		}
+
+		public Integer getAlpha() {
+			return alpha;
+		}
+
+		public String getMid() {
+			return mid;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.UUID;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetailsRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class LazyMemberResolutionTests {
+	@Test
+	void testLazyMembers() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setLazyMemberResolution( true );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetailsRegistry classDetailsRegistry = processingContext.getClassDetailsRegistry();
+			final ClassDetails classDetails = classDetailsRegistry.resolveClassDetails( LazyEntity.class.getName() );
+			assertThat( classDetails.hasAnnotation( Entity.class ) ).isTrue();
+
+			// members have not been looked at yet
+			assertThat( classDetailsRegistry.findClassDetails( UUID.class.getName() ) ).isNull();
+
+			assertThat( classDetails.getFields() ).hasSize( 2 );
+			assertThat( classDetails.getIdentifierMember() ).isNotNull();
+			assertThat( classDetails.getIdentifierMember().getName() ).isEqualTo( "id" );
+
+			// the member type is now known, but only by name - its own members are still unresolved
+			final ClassDetails uuidDetails = classDetailsRegistry.findClassDetails( UUID.class.getName() );
+			assertThat( uuidDetails ).isNotNull();
+			assertThat( classDetails.getFields().get( 1 ).getType() ).isSameAs( uuidDetails );
+		} );
+	}
+
+	@Test
+	void testDeferredMemberTypes() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setDeferredMemberTypeResolution( true );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetailsRegistry classDetailsRegistry = processingContext.getClassDetailsRegistry();
+			final ClassDetails classDetails = classDetailsRegistry.resolveClassDetails( LazyEntity.class.getName() );
+			assertThat( classDetails.getFields() ).hasSize( 2 );
+
+			// the field only knows the name of its type so far
+			assertThat( classDetailsRegistry.findClassDetails( UUID.class.getName() ) ).isNull();
+
+			final ClassDetails uuidDetails = classDetails.getFields().get( 1 ).getType();
+			assertThat( uuidDetails ).isNotNull();
+			assertThat( uuidDetails.getClassName() ).isEqualTo( UUID.class.getName() );
+			assertThat( classDetailsRegistry.findClassDetails( UUID.class.getName() ) ).isSameAs( uuidDetails );
+			// memoized
+			assertThat( classDetails.getFields().get( 1 ).getType() ).isSameAs( uuidDetails );
+		} );
+	}
+
+	@Test
+	void testEagerMembers() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final ClassDetailsRegistry classDetailsRegistry = processingContext.getClassDetailsRegistry();
+			classDetailsRegistry.resolveClassDetails( LazyEntity.class.getName() );
+			assertThat( classDetailsRegistry.findClassDetails( UUID.class.getName() ) ).isNotNull();
+		} );
+	}
+
+	@Entity
+	public static class LazyEntity {
+		@Id
+		private Integer id;
+		private UUID externalId;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.MappedArchiveClassFileLocator;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.bytebuddy.pool.TypePool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class MappedArchiveClassFileLocatorTests {
+	@Test
+	void testJarEntries(@TempDir Path directory) throws IOException {
+		final Path jar = directory.resolve( "mapped-locator.jar" );
+		try ( JarOutputStream jarOutputStream = new JarOutputStream( Files.newOutputStream( jar ) ) ) {
+			writeEntry( jarOutputStream, SimpleFieldEntity.class, ZipEntry.DEFLATED );
+			writeEntry( jarOutputStream, SimplePropertyEntity.class, ZipEntry.STORED );
+		}
+
+		try ( MappedArchiveClassFileLocator locator = MappedArchiveClassFileLocator.of( jar ) ) {
+			assertThat( locator.getIndexedClassCount() ).isEqualTo( 2 );
+			assertThat( locator.locate( SimpleFieldEntity.class.getName() ).resolve() )
+					.isEqualTo( readClassBytes( SimpleFieldEntity.class ) );
+			assertThat( locator.locate( SimplePropertyEntity.class.getName() ).resolve() )
+					.isEqualTo( readClassBytes( SimplePropertyEntity.class ) );
+			assertThat( locator.locate( Helper.class.getName() ).isResolved() ).isFalse();
+		}
+	}
+
+	@Test
+	void testDirectoryEntries(@TempDir Path directory) throws IOException {
+		final Path classFile = directory.resolve( SimpleFieldEntity.class.getName().replace( '.', '/' ) + ".class" );
+		Files.createDirectories( classFile.getParent() );
+		Files.write( classFile, readClassBytes( SimpleFieldEntity.class ) );
+
+		try ( MappedArchiveClassFileLocator locator = MappedArchiveClassFileLocator.of( directory ) ) {
+			assertThat( locator.locate( SimpleFieldEntity.class.getName() ).resolve() )
+					.isEqualTo( readClassBytes( SimpleFieldEntity.class ) );
+			assertThat( locator.locate( Helper.class.getName() ).isResolved() ).isFalse();
+		}
+	}
+
+	@Test
+	void testAsArchiveLocator(@TempDir Path directory) throws IOException {
+		final Path jar = directory.resolve( "mapped-locator.jar" );
+		try ( JarOutputStream jarOutputStream = new JarOutputStream( Files.newOutputStream( jar ) ) ) {
+			writeEntry( jarOutputStream, SimpleFieldEntity.class, ZipEntry.DEFLATED );
+		}
+
+		try ( ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl(
+				getClass().getClassLoader(),
+				null,
+				MappedArchiveClassFileLocator.of( jar )
+		) ) {
+			final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
+					classFileLocator,
+					TypePool.Default.WithLazyResolution.of( classFileLocator ),
+					new ModelProcessingOptionsImpl()
+			);
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( SimpleFieldEntity.class.getName() );
+			assertThat( classDetails.getFields() ).hasSize( 2 );
+		}
+	}
+
+	private static void writeEntry(JarOutputStream jarOutputStream, Class<?> type, int method) throws IOException {
+		final byte[] bytes = readClassBytes( type );
+		final JarEntry entry = new JarEntry( type.getName().replace( '.', '/' ) + ".class" );
+		entry.setMethod( method );
+		if ( method == ZipEntry.STORED ) {
+			final CRC32 crc = new CRC32();
+			crc.update( bytes );
+			entry.setSize( bytes.length );
+			entry.setCompressedSize( bytes.length );
+			entry.setCrc( crc.getValue() );
+		}
+		jarOutputStream.putNextEntry( entry );
+		jarOutputStream.write( bytes );
+		jarOutputStream.closeEntry();
+	}
+
+	private static byte[] readClassBytes(Class<?> type) throws IOException {
+		try ( InputStream stream = type.getClassLoader().getResourceAsStream( type.getName().replace( '.', '/' ) + ".class" ) ) {
+			return stream.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeDescriptorImpl;
+import org.hibernate.bytecode.enhance.model.interp.internal.ModelImage;
+import org.hibernate.bytecode.enhance.model.interp.internal.ModelImageWriter;
+import org.hibernate.bytecode.enhance.model.interp.spi.ManagedTypeDescriptor;
+import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class ModelImageTests {
+	@Test
+	void testImageRoundTrip(@TempDir Path directory) throws IOException {
+		final Path imageFile = directory.resolve( "model.img" );
+
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			final List<ManagedTypeDescriptor> descriptors = List.of(
+					modelContext.getDescriptorRegistry().resolveDescriptor( SimpleFieldEntity.class.getName() ),
+					modelContext.getDescriptorRegistry().resolveDescriptor( SimplePropertyEntity.class.getName() )
+			);
+			try {
+				ModelImageWriter.writeImage( descriptors, imageFile );
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException( e );
+			}
+		} );
+
+		final ModelImage modelImage = ModelImage.open( imageFile );
+		assertThat( modelImage.getDescriptorNames() ).hasSize( 2 );
+
+		final ManagedTypeDescriptor descriptor = modelImage.getDescriptor( SimpleFieldEntity.class.getName() );
+		assertThat( descriptor ).isSameAs( modelImage.getDescriptor( SimpleFieldEntity.class.getName() ) );
+		assertThat( descriptor.getPersistentAttributes() ).hasSize( 2 );
+
+		final PersistentAttribute nameAttribute = descriptor.getPersistentAttribute( "name" );
+		assertThat( nameAttribute.getAccessType() ).isEqualTo( AccessType.FIELD );
+		assertThat( nameAttribute.getUnderlyingField().getName() ).isEqualTo( "name" );
+		assertThat( nameAttribute.getUnderlyingField().getType().getClassName() ).isEqualTo( String.class.getName() );
+
+		final ClassDetails classDetails = descriptor.getClassDetails();
+		assertThat( classDetails.getAnnotation( Entity.class ).name() ).isEqualTo( "AnEntity" );
+		assertThat( classDetails.getIdentifierMember().getName() ).isEqualTo( "id" );
+		assertThat( classDetails.isImplementorOf( Object.class ) ).isTrue();
+
+		// member types are part of the image, without their members
+		final ClassDetails stringDetails = modelImage.getClassDetailsRegistry().getClassDetails( String.class.getName() );
+		assertThat( stringDetails.getFields() ).isEmpty();
+		assertThat( stringDetails.isImplementorOf( CharSequence.class ) ).isTrue();
+	}
+
+	@Test
+	void testHierarchyRoundTrip(@TempDir Path directory) throws IOException {
+		final Path imageFile = directory.resolve( "model.img" );
+
+		final List<String> attributeNames = new ArrayList<>();
+		Helper.withManagedTypeModelContext( (modelContext) -> {
+			// only the sub-type is passed, its super-type descriptor is written along with it
+			final ManagedTypeDescriptor descriptor = modelContext.getDescriptorRegistry()
+					.resolveDescriptor( AttributeOrdinalTests.OrdinalEntity.class.getName() );
+			for ( int i = 0; i < descriptor.getAttributeCount(); i++ ) {
+				attributeNames.add( descriptor.getAttribute( i ).getName() );
+			}
+			try {
+				ModelImageWriter.writeImage( List.of( descriptor ), imageFile );
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException( e );
+			}
+		} );
+		assertThat( attributeNames ).hasSize( 5 );
+
+		final ModelImage modelImage = ModelImage.open( imageFile );
+		assertThat( modelImage.getDescriptorNames() ).containsExactlyInAnyOrder(
+				AttributeOrdinalTests.OrdinalEntity.class.getName(),
+				AttributeOrdinalTests.OrdinalBase.class.getName()
+		);
+
+		final ManagedTypeDescriptor descriptor = modelImage.getDescriptor( AttributeOrdinalTests.OrdinalEntity.class.getName() );
+		final ManagedTypeDescriptor superTypeDescriptor = ( (ManagedTypeDescriptorImpl) descriptor ).getSuperTypeDescriptor();
+		assertThat( superTypeDescriptor ).isSameAs( modelImage.getDescriptor( AttributeOrdinalTests.OrdinalBase.class.getName() ) );
+		assertThat( descriptor.getPersistentAttributes() ).hasSize( 3 );
+
+		assertThat( descriptor.getAttributeCount() ).isEqualTo( attributeNames.size() );
+		for ( int i = 0; i < descriptor.getAttributeCount(); i++ ) {
+			assertThat( descriptor.getAttribute( i ).getName() ).isEqualTo( attributeNames.get( i ) );
+			assertThat( descriptor.getAttribute( i ).getOrdinal() ).isEqualTo( i );
+			assertThat( descriptor.findAttributeOrdinal( attributeNames.get( i ) ) ).isEqualTo( i );
+		}
+		for ( int i = 0; i < superTypeDescriptor.getAttributeCount(); i++ ) {
+			assertThat( descriptor.getAttribute( i ) ).isSameAs( superTypeDescriptor.getAttribute( i ) );
+		}
+	}
+}
@@ -8,8 +8,12 @@ package org.hibernate.bytecode.enhance.model;
 
 import java.util.List;
 
+import org.hibernate.bytecode.enhance.model.interp.internal.ManagedTypeModelContextImpl;
 import org.hibernate.bytecode.enhance.model.interp.internal.ModelSourceHelper;
 import org.hibernate.bytecode.enhance.model.interp.spi.PersistentAttribute;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassBytesCache;
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
 import org.hibernate.bytecode.enhance.model.source.spi.AnnotationTarget;
 import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
 
@@ -19,6 +23,7 @@ import jakarta.persistence.Access;
 import jakarta.persistence.AccessType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import net.bytebuddy.pool.TypePool;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -102,6 +107,34 @@ public class OddNamingTests {
 		} );
 	}
 
+	@Test
+	void testGetterAnalysisIsMemoized() {
+		final ClassBytesCache classBytesCache = new ClassBytesCache();
+		try (ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl( getClass().getClassLoader(), classBytesCache )) {
+			final ModelProcessingContextImpl processingContext = new ModelProcessingContextImpl(
+					classFileLocator,
+					TypePool.Default.WithLazyResolution.of( classFileLocator )
+			);
+			final ManagedTypeModelContextImpl managedTypeContext = new ManagedTypeModelContextImpl( processingContext );
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( OddNamingEntity.class.getName() );
+
+			ModelSourceHelper.buildPersistentAttributeList( classDetails, null, managedTypeContext );
+			final long locates = classBytesCache.getHitCount() + classBytesCache.getMissCount();
+
+			// the getter analysis is not repeated, so the class file is not located again
+			final List<PersistentAttribute> persistentAttributes = ModelSourceHelper.buildPersistentAttributeList(
+					classDetails,
+					null,
+					managedTypeContext
+			);
+			assertThat( persistentAttributes ).hasSize( 2 );
+			assertThat( classBytesCache.getHitCount() + classBytesCache.getMissCount() ).isEqualTo( locates );
+			assertThat( classDetails.findGottenFieldName( "getPrimaryName" ) ).isEqualTo( "name" );
+		}
+	}
+
 	@Entity
 	public static class OddNamingEntity {
 		private Integer id;
@@ -0,0 +1,60 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.UUID;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class OpaqueClassDetailsTests {
+	@Test
+	void testOpaqueMemberTypes() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setOpaqueTypePrefixes( ModelProcessingOptionsImpl.JDK_TYPE_PREFIXES );
+
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( EntityWithOpaqueTypes.class.getName() );
+
+			// the entity itself is fully modeled
+			assertThat( classDetails.getFields() ).hasSize( 3 );
+			assertThat( classDetails.getIdentifierMember() ).isNotNull();
+
+			final ClassDetails uuidDetails = classDetails.getFields().get( 1 ).getType();
+			assertThat( uuidDetails.getClassName() ).isEqualTo( UUID.class.getName() );
+			assertThat( uuidDetails.getFields() ).isEmpty();
+			assertThat( uuidDetails.getMethods() ).isEmpty();
+			assertThat( uuidDetails.getIdentifierMember() ).isNull();
+			assertThat( uuidDetails.isAbstract() ).isFalse();
+			assertThat( uuidDetails.isImplementorOf( Comparable.class ) ).isTrue();
+
+			final ClassDetails intDetails = classDetails.getFields().get( 2 ).getType();
+			assertThat( intDetails.getClassName() ).isEqualTo( "int" );
+			assertThat( intDetails.getFields() ).isEmpty();
+		} );
+	}
+
+	@Entity
+	public static class EntityWithOpaqueTypes {
+		@Id
+		private Integer id;
+		private UUID externalId;
+		private int version;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingContextImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.SharedClassDetailsCatalog;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.AttributeConverter;
+import net.bytebuddy.pool.TypePool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Steve Ebersole
+ */
+public class SharedClassDetailsCatalogTests {
+	@Test
+	void testSharedAcrossContexts() {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		final SharedClassDetailsCatalog catalog = new SharedClassDetailsCatalog( options );
+
+		final ClassDetails[] fromFirst = new ClassDetails[2];
+		withProcessingContext( options, catalog, (processingContext) -> {
+			fromFirst[0] = processingContext.getClassDetailsRegistry().getClassDetails( String.class.getName() );
+			fromFirst[1] = processingContext.getClassDetailsRegistry().resolveClassDetails( LocalDateTime.class.getName() );
+		} );
+
+		withProcessingContext( options, catalog, (processingContext) -> {
+			assertThat( processingContext.getClassDetailsRegistry().getClassDetails( String.class.getName() ) ).isSameAs( fromFirst[0] );
+			assertThat( processingContext.getClassDetailsRegistry().resolveClassDetails( LocalDateTime.class.getName() ) ).isSameAs( fromFirst[1] );
+		} );
+
+		assertThat( catalog.findClassDetails( String.class.getName() ) ).isSameAs( fromFirst[0] );
+		assertThat( fromFirst[0].getFields() ).isNotEmpty();
+
+		// contexts without the catalog build their own
+		Helper.withProcessingContext( (processingContext) -> {
+			assertThat( processingContext.getClassDetailsRegistry().getClassDetails( String.class.getName() ) ).isNotSameAs( fromFirst[0] );
+		} );
+	}
+
+	@Test
+	void testOnlyJdkTypesShared() {
+		final SharedClassDetailsCatalog catalog = new SharedClassDetailsCatalog( new ModelProcessingOptionsImpl() );
+		assertThat( catalog.size() ).isPositive();
+		assertThat( catalog.findClassDetails( AttributeConverter.class.getName() ) ).isNull();
+
+		// still primed by each context itself
+		withProcessingContext( new ModelProcessingOptionsImpl(), catalog, (processingContext) -> {
+			assertThat( processingContext.getClassDetailsRegistry().getClassDetails( AttributeConverter.class.getName() ) ).isNotNull();
+		} );
+		Helper.withProcessingContext( (processingContext) -> {
+			assertThat( processingContext.getClassDetailsRegistry().getClassDetails( AttributeConverter.class.getName() ) ).isNotNull();
+		} );
+	}
+
+	@Test
+	void testIncompatibleOptions() {
+		final SharedClassDetailsCatalog catalog = new SharedClassDetailsCatalog( new ModelProcessingOptionsImpl() );
+
+		final ModelProcessingOptionsImpl asmOptions = new ModelProcessingOptionsImpl();
+		asmOptions.setClassDetailsBackend( ModelProcessingOptions.ClassDetailsBackend.ASM );
+		assertThat( catalog.isCompatibleWith( asmOptions ) ).isFalse();
+		assertThatThrownBy( () -> withProcessingContext( asmOptions, catalog, (processingContext) -> {} ) )
+				.isInstanceOf( ByteBuddyModelException.class );
+
+		final ModelProcessingOptionsImpl lazyOptions = new ModelProcessingOptionsImpl();
+		lazyOptions.setLazyMemberResolution( !lazyOptions.isLazyMemberResolution() );
+		assertThat( catalog.isCompatibleWith( lazyOptions ) ).isFalse();
+	}
+
+	private static void withProcessingContext(
+			ModelProcessingOptions options,
+			SharedClassDetailsCatalog catalog,
+			Consumer<ModelProcessingContextImpl> action) {
+		try (ClassFileLocatorImpl classFileLocator = new ClassFileLocatorImpl( Helper.class.getClassLoader() )) {
+			action.accept( new ModelProcessingContextImpl(
+					classFileLocator,
+					TypePool.Default.WithLazyResolution.of( classFileLocator ),
+					options,
+					catalog
+			) );
+		}
+	}
+}
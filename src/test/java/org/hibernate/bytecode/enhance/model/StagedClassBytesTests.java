@@ -0,0 +1,69 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ClassFileLocatorImpl;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+
+import org.junit.jupiter.api.Test;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resolving a batch of classes which are not available from any class loader
+ *
+ * @author Steve Ebersole
+ */
+public class StagedClassBytesTests {
+	private static final String BASE_NAME = "org.hibernate.generated.GeneratedBase";
+	private static final String SUB_NAME = "org.hibernate.generated.GeneratedSub";
+
+	@Test
+	void testBulkStaging() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final ClassFileLocatorImpl classFileLocator = (ClassFileLocatorImpl) processingContext.getClassFileLocator();
+			classFileLocator.stageClassBytes( Map.of(
+					BASE_NAME, generateClass( BASE_NAME, "java/lang/Object", "id" ),
+					SUB_NAME, generateClass( SUB_NAME, BASE_NAME.replace( '.', '/' ), "name" )
+			) );
+			assertThat( classFileLocator.hasStagedClassBytes( BASE_NAME ) ).isTrue();
+			assertThat( classFileLocator.hasStagedClassBytes( SUB_NAME ) ).isTrue();
+
+			final ClassDetails sub = processingContext.getClassDetailsRegistry().resolveClassDetails( SUB_NAME );
+			assertThat( sub.getFields() ).hasSize( 1 );
+			assertThat( sub.getFields().get( 0 ).getName() ).isEqualTo( "name" );
+			assertThat( sub.getSuperType().getName() ).isEqualTo( BASE_NAME );
+			assertThat( sub.getSuperType().getFields() ).hasSize( 1 );
+			assertThat( sub.getSuperType().getFields().get( 0 ).getName() ).isEqualTo( "id" );
+
+			classFileLocator.releaseClassBytes( List.of( BASE_NAME, SUB_NAME ) );
+			assertThat( classFileLocator.hasStagedClassBytes( BASE_NAME ) ).isFalse();
+			assertThat( classFileLocator.hasStagedClassBytes( SUB_NAME ) ).isFalse();
+		} );
+	}
+
+	private static byte[] generateClass(String className, String superInternalName, String fieldName) {
+		final ClassWriter classWriter = new ClassWriter( 0 );
+		classWriter.visit(
+				Opcodes.V11,
+				Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER,
+				className.replace( '.', '/' ),
+				null,
+				superInternalName,
+				null
+		);
+		classWriter.visitField( Opcodes.ACC_PRIVATE, fieldName, "Ljava/lang/String;", null, null ).visitEnd();
+		classWriter.visitEnd();
+		return classWriter.toByteArray();
+	}
+}
@@ -77,6 +77,27 @@ public class SuperClassLevelAccessTests {
 		} );
 	}
 
+	@Test
+	void testHierarchyAccessType() {
+		Helper.withProcessingContext( (processingContext) -> {
+			final ClassDetails classDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( SuperClassLevelAccessEntity.class.getName() );
+			assertThat( classDetails.getHierarchyAccessType() ).isEqualTo( AccessType.FIELD );
+			assertThat( classDetails.getSuperType().getHierarchyAccessType() ).isEqualTo( AccessType.FIELD );
+			// memoized
+			assertThat( classDetails.getHierarchyAccessType() ).isEqualTo( AccessType.FIELD );
+
+			// no super-type and no @Access - depends on the identifier placement
+			final ClassDetails rootDetails = processingContext
+					.getClassDetailsRegistry()
+					.resolveClassDetails( SimpleFieldEntity.class.getName() );
+			assertThat( rootDetails.getHierarchyAccessType() ).isNull();
+			assertThat( ModelSourceHelper.determineClassLevelAccessType( rootDetails, rootDetails.getIdentifierMember(), null ) )
+					.isEqualTo( AccessType.FIELD );
+		} );
+	}
+
 	@Test
 	void testPersistentAttributeResolution() {
 		Helper.withManagedTypeModelContext( (managedTypeContext) -> {
@@ -0,0 +1,87 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html.
+ */
+package org.hibernate.bytecode.enhance.model;
+
+import org.hibernate.bytecode.enhance.model.source.internal.ModelProcessingOptionsImpl;
+import org.hibernate.bytecode.enhance.model.source.internal.SymbolTable;
+import org.hibernate.bytecode.enhance.model.source.spi.ClassDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.FieldDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.MethodDetails;
+import org.hibernate.bytecode.enhance.model.source.spi.ModelProcessingOptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Steve Ebersole
+ */
+public class SymbolTableTests {
+	@Test
+	void testSymbolTable() {
+		final SymbolTable symbolTable = new SymbolTable();
+		final String name = symbolTable.intern( "org.hibernate.Thing" );
+		assertThat( symbolTable.intern( new String( "org.hibernate.Thing" ) ) ).isSameAs( name );
+
+		final String internalName = symbolTable.internalName( new String( "org.hibernate.Thing" ) );
+		assertThat( internalName ).isEqualTo( "org/hibernate/Thing" );
+		assertThat( symbolTable.className( new String( "org/hibernate/Thing" ) ) ).isSameAs( name );
+		assertThat( symbolTable.internalName( name ) ).isSameAs( internalName );
+
+		final String attributeName = symbolTable.attributeName( "Name" );
+		assertThat( attributeName ).isEqualTo( "name" );
+		assertThat( symbolTable.intern( new String( "name" ) ) ).isSameAs( attributeName );
+		// decapitalization leaves acronyms as they are
+		assertThat( symbolTable.attributeName( "URL" ) ).isEqualTo( "URL" );
+	}
+
+	@Test
+	void testCanonicalNames() {
+		verifyCanonicalNames( ModelProcessingOptions.ClassDetailsBackend.BYTE_BUDDY );
+		verifyCanonicalNames( ModelProcessingOptions.ClassDetailsBackend.ASM );
+	}
+
+	private static void verifyCanonicalNames(ModelProcessingOptions.ClassDetailsBackend backend) {
+		final ModelProcessingOptionsImpl options = new ModelProcessingOptionsImpl();
+		options.setClassDetailsBackend( backend );
+		Helper.withProcessingContext( options, (processingContext) -> {
+			final SymbolTable symbolTable = processingContext.getSymbolTable();
+			final ClassDetails fieldEntity = processingContext.getClassDetailsRegistry()
+					.resolveClassDetails( SimpleFieldEntity.class.getName() );
+			final ClassDetails propertyEntity = processingContext.getClassDetailsRegistry()
+					.resolveClassDetails( SimplePropertyEntity.class.getName() );
+
+			assertThat( fieldEntity.getClassName() ).isSameAs( symbolTable.intern( SimpleFieldEntity.class.getName() ) );
+
+			final FieldDetails idField = findField( fieldEntity, "id" );
+			final FieldDetails propertyIdField = findField( propertyEntity, "id" );
+			assertThat( propertyIdField.getName() ).isSameAs( idField.getName() );
+
+			final MethodDetails idGetter = findMethod( propertyEntity, "getId" );
+			assertThat( idGetter.resolveAttributeName() ).isSameAs( idField.getName() );
+			assertThat( idGetter.getSimpleMatchFieldName() ).isSameAs( idField.getName() );
+		} );
+	}
+
+	private static FieldDetails findField(ClassDetails classDetails, String name) {
+		for ( FieldDetails field : classDetails.getFields() ) {
+			if ( field.getName().equals( name ) ) {
+				return field;
+			}
+		}
+		throw new AssertionError( "No field " + name );
+	}
+
+	private static MethodDetails findMethod(ClassDetails classDetails, String name) {
+		for ( MethodDetails method : classDetails.getMethods() ) {
+			if ( method.getName().equals( name ) ) {
+				return method;
+			}
+		}
+		throw new AssertionError( "No method " + name );
+	}
+}